@@ -14,7 +14,6 @@ import com.github.automaton.automata.incremental.*;
 import com.github.automaton.automata.util.*;
 
 import org.apache.commons.collections4.*;
-import org.apache.commons.collections4.list.SetUniqueList;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.time.StopWatch;
@@ -124,6 +123,44 @@ public class AutomataOperations {
         return automaton;
     }
 
+    /**
+     * Generates the accessible portion of the specified compact automaton.
+     * 
+     * @param source a compact automaton
+     * @return the accessible portion of {@code source}, or {@code null} if
+     *         {@code source} does not have an initial state
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    public static CompactAutomaton accessible(final CompactAutomaton source) {
+
+        Objects.requireNonNull(source);
+
+        if (source.getInitialState() < 0)
+            return null;
+
+        BitSet reached = new BitSet(source.getNumberOfStates());
+        int[] stack = new int[source.getNumberOfStates()];
+        int size = 0;
+        stack[size++] = source.getInitialState();
+        reached.set(source.getInitialState());
+
+        while (size > 0) {
+            int s = stack[--size];
+            for (int t = source.outgoingStart(s); t < source.outgoingEnd(s); t++) {
+                int target = source.getTarget(t);
+                if (!reached.get(target)) {
+                    reached.set(target);
+                    stack[size++] = target;
+                }
+            }
+        }
+
+        return source.restrict(reached);
+    }
+
     /**
      * Generates the co-accessible portion of the specified automaton.
      * 
@@ -221,6 +258,44 @@ public class AutomataOperations {
         return automaton;
     }
 
+    /**
+     * Generates the co-accessible portion of the specified compact automaton.
+     * 
+     * @param source a compact automaton
+     * @return the co-accessible portion of {@code source}
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    public static CompactAutomaton coaccessible(final CompactAutomaton source) {
+
+        Objects.requireNonNull(source);
+
+        BitSet reached = new BitSet(source.getNumberOfStates());
+        int[] stack = new int[source.getNumberOfStates()];
+        int size = 0;
+        for (int s = 0; s < source.getNumberOfStates(); s++) {
+            if (source.isMarked(s)) {
+                reached.set(s);
+                stack[size++] = s;
+            }
+        }
+
+        while (size > 0) {
+            int s = stack[--size];
+            for (int t = source.incomingStart(s); t < source.incomingEnd(s); t++) {
+                int prev = source.getSource(t);
+                if (!reached.get(prev)) {
+                    reached.set(prev);
+                    stack[size++] = prev;
+                }
+            }
+        }
+
+        return source.restrict(reached);
+    }
+
     /**
      * Generates the complement of the specified automaton.
      * 
@@ -424,7 +499,6 @@ public class AutomataOperations {
             State state1 = first.getState(id1);
             State state2 = second.getState(id2);
             List<Transition> transitions1 = state1.getTransitions();
-            List<Transition> transitions2 = state2.getTransitions();
 
             // Add new state
             automaton.addStateAt(state1.getLabel() + "_" + state2.getLabel(),
@@ -435,24 +509,23 @@ public class AutomataOperations {
 
             // Find every pair of transitions that have the same events
             for (Transition t1 : transitions1)
-                for (Transition t2 : transitions2)
-                    if (t1.getEvent().equals(t2.getEvent())) {
+                for (Transition t2 : state2.getTransitionsWithEvent(t1.getEvent())) {
 
-                        // Add this pair to the stack
-                        stack1.add(t1.getTargetStateID());
-                        stack2.add(t2.getTargetStateID());
+                    // Add this pair to the stack
+                    stack1.add(t1.getTargetStateID());
+                    stack2.add(t2.getTargetStateID());
 
-                        // Add transition to the new automaton
-                        long targetID = IDUtil.combineTwoIDs(t1.getTargetStateID(), first, t2.getTargetStateID(),
-                                second);
-                        int eventID = automaton.addTransition(newStateID, t1.getEvent().getLabel(), targetID);
+                    // Add transition to the new automaton
+                    long targetID = IDUtil.combineTwoIDs(t1.getTargetStateID(), first, t2.getTargetStateID(),
+                            second);
+                    int eventID = automaton.addTransition(newStateID, t1.getEvent().getLabel(), targetID);
 
-                        // Mark as bad transition if either of them are bad
-                        if (first.isBadTransition(id1, t1.getEvent().getID(), t1.getTargetStateID())
-                                || second.isBadTransition(id2, t2.getEvent().getID(), t2.getTargetStateID()))
-                            automaton.markTransitionAsBad(newStateID, eventID, targetID);
+                    // Mark as bad transition if either of them are bad
+                    if (first.isBadTransition(id1, t1.getEvent().getID(), t1.getTargetStateID())
+                            || second.isBadTransition(id2, t2.getEvent().getID(), t2.getTargetStateID()))
+                        automaton.markTransitionAsBad(newStateID, eventID, targetID);
 
-                    }
+                }
 
         }
 
@@ -488,6 +561,103 @@ public class AutomataOperations {
                 .orElseThrow(IllegalArgumentException::new);
     }
 
+    /**
+     * Generates the intersection of the two specified compact automata.
+     * 
+     * @param first  the first automaton
+     * @param second the second automaton
+     * @return the intersection
+     * 
+     * @throws IncompatibleAutomataException if the number of controllers do not
+     *                                       match, or the automata have
+     *                                       incompatible events
+     * @throws NullPointerException          if either one of the arguments is
+     *                                       {@code null}
+     * 
+     * @since 2.2.0
+     */
+    public static CompactAutomaton intersection(CompactAutomaton first, CompactAutomaton second)
+            throws IncompatibleAutomataException {
+
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+
+        if (first.getNumberOfControllers() != second.getNumberOfControllers())
+            throw new IncompatibleAutomataException();
+
+        CompactAutomaton.Builder builder = new CompactAutomaton.Builder(first.getNumberOfControllers(),
+                Collections.emptyList());
+
+        /* Create event set (intersection of both event sets) */
+
+        // Map the events of each automaton to the events of the intersection
+        int[] eventMap1 = new int[first.getEvents().size()];
+        int[] eventMap2 = new int[second.getEvents().size()];
+        Arrays.fill(eventMap1, -1);
+        Arrays.fill(eventMap2, -1);
+        for (int e1 = 0; e1 < eventMap1.length; e1++) {
+            Event event1 = first.getEvent(e1);
+            int e2 = second.getEventIndex(event1.getLabel());
+            if (e2 < 0)
+                continue;
+            Event event2 = second.getEvent(e2);
+            if (!Arrays.equals(event1.isObservable(), event2.isObservable())
+                    || !Arrays.equals(event1.isControllable(), event2.isControllable()))
+                throw new IncompatibleAutomataException();
+            eventMap1[e1] = eventMap2[e2] = builder.addEvent(event1);
+        }
+
+        if (first.getInitialState() < 0 || second.getInitialState() < 0)
+            return builder.build();
+
+        /* Build product */
+
+        final long n2 = second.getNumberOfStates();
+        Map<Long, Integer> indices = new HashMap<>();
+        Deque<int[]> stack = new ArrayDeque<>();
+
+        int[] initialPair = { first.getInitialState(), second.getInitialState() };
+        builder.initialState = builder.addState(
+                first.getLabel(initialPair[0]) + "_" + second.getLabel(initialPair[1]),
+                0, first.isMarked(initialPair[0]) && second.isMarked(initialPair[1]), null);
+        indices.put(initialPair[0] * n2 + initialPair[1], builder.initialState);
+        stack.push(initialPair);
+
+        while (!stack.isEmpty()) {
+
+            int[] pair = stack.pop();
+            int source = indices.get(pair[0] * n2 + pair[1]);
+
+            // Find every pair of transitions that have the same events
+            for (int t1 = first.outgoingStart(pair[0]); t1 < first.outgoingEnd(pair[0]); t1++) {
+                int event = eventMap1[first.getEventOf(t1)];
+                if (event < 0)
+                    continue;
+                for (int t2 = second.outgoingStart(pair[1]); t2 < second.outgoingEnd(pair[1]); t2++) {
+                    if (eventMap2[second.getEventOf(t2)] != event)
+                        continue;
+
+                    int target1 = first.getTarget(t1), target2 = second.getTarget(t2);
+                    long key = target1 * n2 + target2;
+                    Integer target = indices.get(key);
+                    if (target == null) {
+                        target = builder.addState(first.getLabel(target1) + "_" + second.getLabel(target2),
+                                0, first.isMarked(target1) && second.isMarked(target2), null);
+                        indices.put(key, target);
+                        stack.push(new int[] { target1, target2 });
+                    }
+
+                    // Mark as bad transition if either of them are bad
+                    builder.addTransition(source, event, target,
+                            first.isBadTransition(t1) || second.isBadTransition(t2));
+                }
+            }
+
+        }
+
+        return builder.build();
+    }
+
     /**
      * Generates the union of the two specified automata.
      * 
@@ -579,24 +749,23 @@ public class AutomataOperations {
             // Find every pair of transitions that have the same events (this accounts for
             // public events)
             for (Transition t1 : transitions1)
-                for (Transition t2 : transitions2)
-                    if (t1.getEvent().equals(t2.getEvent())) {
+                for (Transition t2 : state2.getTransitionsWithEvent(t1.getEvent())) {
 
-                        // Add this pair to the stack
-                        stack1.add(t1.getTargetStateID());
-                        stack2.add(t2.getTargetStateID());
+                    // Add this pair to the stack
+                    stack1.add(t1.getTargetStateID());
+                    stack2.add(t2.getTargetStateID());
 
-                        // Add transition to the new automaton
-                        long targetID = IDUtil.combineTwoIDs(t1.getTargetStateID(), first, t2.getTargetStateID(),
-                                second);
-                        int eventID = automaton.addTransition(newStateID, t1.getEvent().getLabel(), targetID);
+                    // Add transition to the new automaton
+                    long targetID = IDUtil.combineTwoIDs(t1.getTargetStateID(), first, t2.getTargetStateID(),
+                            second);
+                    int eventID = automaton.addTransition(newStateID, t1.getEvent().getLabel(), targetID);
 
-                        // Mark as bad transition if either of them are bad
-                        if (first.isBadTransition(id1, t1.getEvent().getID(), t1.getTargetStateID())
-                                || second.isBadTransition(id2, t2.getEvent().getID(), t2.getTargetStateID()))
-                            automaton.markTransitionAsBad(newStateID, eventID, targetID);
+                    // Mark as bad transition if either of them are bad
+                    if (first.isBadTransition(id1, t1.getEvent().getID(), t1.getTargetStateID())
+                            || second.isBadTransition(id2, t2.getEvent().getID(), t2.getTargetStateID()))
+                        automaton.markTransitionAsBad(newStateID, eventID, targetID);
 
-                    }
+                }
 
             // Take care of the first automaton's private events
             for (Transition t : transitions1)
@@ -660,6 +829,24 @@ public class AutomataOperations {
      * @since 2.1.0
      **/
     public static UStructure synchronizedComposition(Automaton automaton) {
+        return synchronizedComposition(automaton, CompositionOptions.sequential());
+    }
+
+    /**
+     * Apply the synchronized composition algorithm to an automaton to produce the
+     * U-Structure, using the specified options.
+     * 
+     * @param automaton an automaton
+     * @param options   the options to build the U-Structure with
+     * @return The U-Structure
+     * 
+     * @throws NoInitialStateException  if there was no starting state
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws OperationFailedException if something else went wrong
+     * 
+     * @since 2.2.0
+     **/
+    public static UStructure synchronizedComposition(Automaton automaton, CompositionOptions options) {
 
         Objects.requireNonNull(automaton);
 
@@ -668,266 +855,44 @@ public class AutomataOperations {
             throw new NoInitialStateException("No starting state");
         }
 
-        /* Setup */
-
-        boolean containsDumpState = automaton.getState(Automaton.DUMP_STATE_LABEL) != null;
-
-        Deque<StateVector> stack = new ArrayDeque<StateVector>();
-        Set<StateVector> valuesInStack = new HashSet<StateVector>();
-        UStructure uStructure = new UStructure(automaton.getNumberOfControllers());
-
-        /* Add initial state to the stack */
-
-        { // The only reason this is inside a scope is so that variable names could be
-          // re-used more cleanly
-            List<State> listOfInitialStates = new ArrayList<State>();
-            State startingState = automaton.getState(automaton.getInitialStateID());
-
-            // Create list of initial IDs and build the label
-            for (int i = 0; i <= automaton.getNumberOfControllers(); i++) {
-                listOfInitialStates.add(startingState);
-            }
-
-            StateVector initialStateVector = new StateVector(listOfInitialStates, automaton.getNumberOfStates());
-            stack.push(initialStateVector);
-            valuesInStack.add(initialStateVector);
-
-            uStructure.addStateAt(initialStateVector, true);
-
-        }
-
-        /* Continue until the stack is empty */
-
-        while (stack.size() > 0) {
-
-            StateVector stateVector = stack.pop();
-            valuesInStack.remove(stateVector);
-
-            // Get list of IDs and states
-            List<State> listOfStates = stateVector.getStates();
-            List<Long> listOfIDs = new ArrayList<Long>();
-            for (State s : listOfStates)
-                listOfIDs.add(s.getID());
-
-            // For each transition in the system automaton
-            outer: for (Transition t1 : listOfStates.get(0).getTransitions()) {
-
-                Event e = t1.getEvent();
-
-                List<State> targetStates = new ArrayList<State>();
-                State currTargetState = automaton.getState(t1.getTargetStateID());
-                targetStates.add(currTargetState);
-
-                List<String> combinedEvent = new ArrayList<>();
-                combinedEvent.add(e.getLabel());
-
-                // Determine observable and controllable properties for this event vector
-                boolean[] observable = new boolean[automaton.getNumberOfControllers()];
-                boolean[] controllable = new boolean[automaton.getNumberOfControllers()];
-
-                // For each controller
-                for (int i = 0; i < automaton.getNumberOfControllers(); i++) {
-
-                    // Observable events by this controller
-                    if (e.isObservable(i)) {
-
-                        observable[i] = true;
-
-                        // If the event is observable, but not possible at this current time, then we
-                        // can skip this altogether
-                        State target = null;
-                        for (Transition t2 : listOfStates.get(i + 1).getTransitions())
-                            if (t2.getEvent().equals(e)) {
-                                target = automaton.getState(t2.getTargetStateID());
-                            }
-                        if (target == null)
-                            continue outer;
-
-                        combinedEvent.add(e.getLabel());
-                        targetStates.add(target);
-
-                        if (e.isControllable(i)) {
-
-                            controllable[i] = true;
-
-                        }
-
-                    // Unobservable events by this controller
-                    } else {
-                        combinedEvent.add(Event.EPSILON);
-                        targetStates.add(listOfStates.get(i + 1));
-                    }
-
-                } // for i
-
-                LabelVector eventLabelVector = new LabelVector(combinedEvent);
-
-                StateVector targetStateVector = new StateVector(targetStates, automaton.getNumberOfStates());
-
-                boolean isConditionalViolation = false, isUnconditionalViolation = false;
-
-                /* Check control configurations */
-                if (automaton.transitionExists(listOfIDs.get(0), e.getID(), targetStates.get(0).getID()) && BooleanUtils.or(e.isControllable())) {
-                    if (automaton.getBadTransitions().contains(new TransitionData(listOfIDs.get(0), e.getID(), targetStates.get(0).getID())))
-                        isUnconditionalViolation = true;
-                    else
-                        isConditionalViolation = true;
-                }
-                controlCheck: for (int i = 1; i < listOfIDs.size() && (isConditionalViolation || isUnconditionalViolation); i++) {
-                    String eventLabel = eventLabelVector.getLabelAtIndex(i);
-                    if ((listOfIDs.get(i) == targetStates.get(i).getID()) && (Objects.equals(eventLabel, Event.EPSILON)))
-                        continue controlCheck;
-                    else if (!automaton.transitionExists(listOfIDs.get(i), automaton.getEvent(eventLabel).getID(), targetStates.get(i).getID())) {
-                        isUnconditionalViolation = isConditionalViolation = false;
-                    }
-                }
-
-                // Add event
-                uStructure.addEventIfNonExisting(eventLabelVector, observable, controllable);
-
-                // Add state if it doesn't already exist
-                if (!uStructure.stateExists(targetStateVector.getID())) {
-
-                    // Add state
-                    if (!uStructure.addStateAt(targetStateVector, false)) {
-                        throw new OperationFailedException("Failed to add state");
-                    }
-
-                    // Only add the ID if it's not already waiting to be processed
-                    if (!valuesInStack.contains(targetStateVector)) {
-                        stack.push(targetStateVector);
-                        valuesInStack.add(targetStateVector);
-                    } else
-                        logger.debug("Prevented adding of state since it was already in the stack.");
-                    /*
-                     * NOTE: Does this ever get printed to the console? Intuitively it should, but I
-                     * have never seen it before. (from Micah Stairs)
-                     */
-                }
-
-                // Add transition
-                int eventID = uStructure.addTransition(stateVector, eventLabelVector, targetStateVector);
-
-                inner: for (int i = 0; i < automaton.getNumberOfControllers(); i++) {
-                    if ((isConditionalViolation || isUnconditionalViolation)
-                            && !automaton.transitionExistsWithEvent(stateVector.getStateFor(i + 1).getID(),
-                                automaton.getEvent(combinedEvent.get(0)).getID())) {
-                        isUnconditionalViolation = false;
-                        isConditionalViolation = false;
-                        break inner;
-                    }
-                }
-
-                if (isUnconditionalViolation) {
-                    uStructure.addUnconditionalViolation(stateVector.getID(), eventID, targetStateVector.getID());
-                    stateVector.setDisablementOf(combinedEvent.get(0));
-                    boolean validConfig = false;
-                    for (int i = 1; !validConfig && i < stateVector.getStates().size(); i++) {
-                        State init = stateVector.getStateFor(i);
-                        if (automaton.getBadTransitions().parallelStream().anyMatch(td -> td.initialStateID == init.getID() && td.eventID == automaton.getEvent(eventLabelVector.getLabelAtIndex(0)).getID())) {
-                            validConfig = true;
-                        }
-                    }
-                    if (!validConfig) {
-                        stateVector.setIllegalConfigOf(combinedEvent.get(0));
-                    }
-                }
-                if (isConditionalViolation) {
-
-                    uStructure.addConditionalViolation(stateVector.getID(), eventID, targetStateVector.getID());
-                    stateVector.setEnablementOf(combinedEvent.get(0));
-                    boolean validConfig = false;
-                    for (int i = 1; !validConfig && i < stateVector.getStates().size(); i++) {
-                        State init = stateVector.getStateFor(i);
-                        if (automaton.getBadTransitions().parallelStream().noneMatch(td -> td.initialStateID == init.getID() && td.eventID == automaton.getEvent(eventLabelVector.getLabelAtIndex(0)).getID())) {
-                            validConfig = true;
-                        }
-                    }
-                    if (!validConfig) {
-                        stateVector.setIllegalConfigOf(combinedEvent.get(0));
-                    }
-                }
-
-            } // for
-
-            // For each unobservable transition in the each of the controllers of the
-            // automaton
-            outer: for (int i = 0; i < automaton.getNumberOfControllers(); i++) {
-
-                for (Transition t : listOfStates.get(i + 1).getTransitions()) {
-                    if (!t.getEvent().isObservable(i)) {
-
-                        List<State> targetStates = new ArrayList<State>();
-                        List<String> combinedEvent = new ArrayList<>();
-
-                        for (int j = 0; j <= automaton.getNumberOfControllers(); j++) {
-
-                            // The current controller
-                            if (j == i + 1) {
-                                combinedEvent.add(t.getEvent().getLabel());
-                                targetStates.add(automaton.getState(t.getTargetStateID()));
-                            } else {
-                                combinedEvent.add(Event.EPSILON);
-                                targetStates.add(automaton.getState(listOfIDs.get(j)));
-                            }
+        return synchronizedComposition(CompactAutomaton.of(automaton), options);
 
-                        }
-
-                        LabelVector eventLabelVector = new LabelVector(combinedEvent);
-                        StateVector targetStateVector = new StateVector(targetStates, automaton.getNumberOfStates());
-
-                        // Add event
-                        boolean[] observable = new boolean[automaton.getNumberOfControllers()];
-                        boolean[] controllable = new boolean[automaton.getNumberOfControllers()];
-                        controllable[i] = t.getEvent().isControllable(i);
-                        uStructure.addEventIfNonExisting(eventLabelVector, observable, controllable);
-
-                        // Add state if it doesn't already exist
-                        if (!uStructure.stateExists(targetStateVector)) {
-
-                            // Add state
-                            if (!uStructure.addStateAt(targetStateVector, false)) {
-                                throw new OperationFailedException("Failed to add state");
-                            }
-
-                            // Only add the ID if it's not already waiting to be processed
-                            if (!valuesInStack.contains(targetStateVector)) {
-                                stack.push(targetStateVector);
-                                valuesInStack.add(targetStateVector);
-                            } else
-                                logger.debug("Prevented adding of state since it was already in the stack.");
-
-                        }
-
-                        // Add transition
-                        int eventID = uStructure.addTransition(stateVector, eventLabelVector, targetStateVector);
-                        if (eventID == 0)
-                            logger.error("Failed to add transition.");
-                    }
-                }
-
-            } // for
-
-        } // while
-
-        /* Filter dump state */
-        if (containsDumpState) {
-            StringBuilder labelBuilder = new StringBuilder(Automaton.DUMP_STATE_LABEL);
-            for (int i = 0; i < automaton.getNumberOfControllers(); i++) {
-                labelBuilder.append('_');
-                labelBuilder.append(Automaton.DUMP_STATE_LABEL);
-            }
-            String label = labelBuilder.toString();
-            long dumpID = uStructure.getStateID(label);
-            uStructure.removeState(dumpID);
-        }
-
-        /* Re-number states (by removing empty ones) */
-        uStructure.renumberStates();
+    }
 
-        /* Return produced U-Structure */
-        return uStructure;
+    /**
+     * Apply the synchronized composition algorithm to a compact automaton to
+     * produce the U-Structure.
+     * 
+     * @param automaton a compact automaton
+     * @return The U-Structure
+     * 
+     * @throws NoInitialStateException  if there was no starting state
+     * @throws NullPointerException if argument is {@code null}
+     * @throws OperationFailedException if something else went wrong
+     * 
+     * @see #synchronizedComposition(Automaton)
+     * @since 2.2.0
+     **/
+    public static UStructure synchronizedComposition(CompactAutomaton automaton) {
+        return SynchronizedComposition.build(automaton);
+    }
 
+    /**
+     * Apply the synchronized composition algorithm to a compact automaton to
+     * produce the U-Structure, using the specified options.
+     * 
+     * @param automaton a compact automaton
+     * @param options   the options to build the U-Structure with
+     * @return The U-Structure
+     * 
+     * @throws NoInitialStateException  if there was no starting state
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws OperationFailedException if something else went wrong
+     * 
+     * @since 2.2.0
+     **/
+    public static UStructure synchronizedComposition(CompactAutomaton automaton, CompositionOptions options) {
+        return SynchronizedComposition.build(automaton, options);
     }
 
     /**
@@ -938,124 +903,25 @@ public class AutomataOperations {
      * @return whether the system is inference observable and the level of inferencing required
      * 
      * @throws NullPointerException if {@code automaton} is {@code null}
+     * 
+     * @implNote If the level of inferencing is not requested, this method may
+     *           return as soon as it finds states that no controller can
+     *           distinguish, without building the full subset constructions.
      */
-    @SuppressWarnings("unchecked")
     public static Pair<Boolean, OptionalInt> testObservability(final Automaton automaton, final boolean showInferenceLevel) {
 
         Objects.requireNonNull(automaton);
 
         StopWatch sw = StopWatch.createStarted();
 
-        // Take the U-Structure, then relabel states as needed
-        UStructure uStructure = UStructureOperations.relabelConfigurationStates(synchronizedComposition(automaton));
-
-        Automaton[] determinizations = new Automaton[automaton.nControllers];
-        List<List<State>>[] indistinguishableStatesArr = new List[automaton.nControllers];
-        Map<Event, MutableInt> nValues = new HashMap<>();
-
-        IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-            determinizations[i] = uStructure.subsetConstruction(i + 1);
-            indistinguishableStatesArr[i] = new ArrayList<>();
-            for (State indistinguishableStates : determinizations[i].states.values()) {
-                indistinguishableStatesArr[i]
-                        .add(uStructure.getStatesFromLabel(new LabelVector(indistinguishableStates.getLabel())));
-            }
-        });
-
-        for (Event e : IterableUtils.filteredIterable(
-                automaton.events, event -> BooleanUtils.or(event.isControllable()))) {
-
-            ListValuedMap<State, Set<State>> neighborMap = MultiMapUtils.newListValuedHashMap();
-            /* Initialize value of N for this event (e) */
-            nValues.put(e, new MutableInt(-1));
-
-            Set<State> disablementStates = Collections.unmodifiableSet(uStructure.getDisablementStates(e.getLabel()));
-            Set<State> enablementStates = Collections.unmodifiableSet(uStructure.getEnablementStates(e.getLabel()));
-
-            /*
-             * Initialize set of adjacent vertices
-             */
-            for (int i = 0; i < automaton.nControllers; i++) {
-                for (State controlState : SetUtils.union(enablementStates, disablementStates)) {
-                    neighborMap.put(controlState, e.isControllable(i) ? new LinkedHashSet<>() : Collections.emptySet());
-                }
-            }
-
-            /* Build edges of bipartite graph */
-            IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-                List<List<State>> indistinguishableStateLists = indistinguishableStatesArr[i];
-                for (List<State> indistinguishableStateList : indistinguishableStateLists) {
-                    for (State disablementState : disablementStates) {
-                        for (State enablementState : enablementStates) {
-                            if (indistinguishableStateList.contains(disablementState)
-                                    && indistinguishableStateList.contains(enablementState)
-                                    && e.isControllable(i)) {
-                                neighborMap.get(disablementState).get(i).add(enablementState);
-                                neighborMap.get(enablementState).get(i).add(disablementState);
-                            }
-                        }
-                    }
-                }
-            });
-
-            Set<State> vDist = new LinkedHashSet<>();
-
-            int infLevel = 0;
-
-            for (State v : neighborMap.keySet()) {
-                for (int i = 0; i < automaton.nControllers; i++) {
-                    if (e.isControllable(i) && neighborMap.get(v).get(i).isEmpty()) {
-                        vDist.add(v);
-                        nValues.get(e).setValue(infLevel);
-                    }
-                }
-            }
-
-            Set<State> prevDist = new LinkedHashSet<>(vDist);
-
-            while (!prevDist.isEmpty()) {
-                Set<State> currDist = new LinkedHashSet<>();
-                infLevel += 1;
-                logger.printf(Level.DEBUG, "infLevel = %d", infLevel);
-                for (State v : prevDist) {
-                    logger.printf(Level.TRACE, "\tv = (%s)", v.getLabel());
-                    for (int i = 0; i < automaton.nControllers; i++) {
-                        logger.printf(Level.TRACE, "\t\tController %d", i);
-                        logger.printf(Level.TRACE, "\t\tNeighbors = %s", neighborMap.get(v).get(i).toString());
-                        if (e.isControllable(i)) {
-                            if (neighborMap.get(v).get(i).isEmpty() && !vDist.contains(v)) {
-                                currDist.add(v);
-                                if (infLevel > nValues.get(e).intValue())
-                                    nValues.get(e).setValue(infLevel);
-                            } else {
-                                for (State vPrime : neighborMap.get(v).get(i)) {
-                                    neighborMap.get(vPrime).get(i).remove(v);
-                                    if (neighborMap.get(vPrime).get(i).isEmpty() && !vDist.contains(vPrime)) {
-                                        currDist.add(vPrime);
-                                        if (infLevel > nValues.get(e).intValue())
-                                            nValues.get(e).setValue(infLevel);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                vDist.addAll(currDist);
-                prevDist = currDist;
-            }
-            if (vDist.size() < neighborMap.keySet().size()) {
-                long timeTaken = sw.getTime(TimeUnit.MILLISECONDS);
-                logger.info("Time taken: " + timeTaken + " ms");
-                return Pair.of(false, OptionalInt.empty());
-            }
-        }
-        OptionalInt n = showInferenceLevel ? nValues.values().stream().mapToInt(MutableInt::intValue).max()
-                : OptionalInt.empty();
+        Pair<Boolean, OptionalInt> result = showInferenceLevel
+                ? ObservabilityAnalysis.of(automaton).testObservability(true)
+                : Pair.of(ObservabilityAnalysis.testObservability(automaton), OptionalInt.empty());
 
         long timeTaken = sw.getTime(TimeUnit.MILLISECONDS);
         logger.info("Time taken: " + timeTaken + " ms");
 
-        return Pair.of(true, n);
+        return result;
     }
 
     /**
@@ -1087,117 +953,13 @@ public class AutomataOperations {
      * @throws IllegalArgumentException if system is not inference observable
      * @throws NullPointerException     if argument is {@code null}
      */
-    @SuppressWarnings("unchecked")
     public static List<AmbiguityData> generateLocalControlDecisions(final Automaton automaton, boolean enablement) {
 
         Objects.requireNonNull(automaton);
 
         StopWatch sw = StopWatch.createStarted();
 
-        Pair<Boolean, OptionalInt> obsResult = testObservability(automaton, true);
-
-        if (!obsResult.getLeft())
-            throw new IllegalArgumentException("System is not inference observable");
-
-        // Take the U-Structure, then relabel states as needed
-        UStructure uStructure = UStructureOperations.relabelConfigurationStates(synchronizedComposition(automaton));
-
-        Automaton[] determinizations = new Automaton[automaton.nControllers];
-        List<List<State>>[] indistinguishableStatesArr = new List[automaton.nControllers];
-
-        // Build list of indistinguishable states
-        IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-            determinizations[i] = uStructure.subsetConstruction(i + 1);
-            indistinguishableStatesArr[i] = new ArrayList<>();
-            for (State indistinguishableStates : determinizations[i].states.values()) {
-                indistinguishableStatesArr[i]
-                        .add(uStructure.getStatesFromLabel(new LabelVector(indistinguishableStates.getLabel())));
-            }
-        });
-
-        List<AmbiguityData> retList = Collections.synchronizedList(new ArrayList<>());
-
-        for (Event e : IterableUtils.filteredIterable(
-                automaton.events, event -> BooleanUtils.or(event.isControllable()))) {
-
-            ListValuedMap<State, Set<State>> neighborMap = MultiMapUtils.newListValuedHashMap();
-
-            Set<State> disablementStates = Collections.unmodifiableSet(uStructure.getDisablementStates(e.getLabel()));
-            Set<State> enablementStates = Collections.unmodifiableSet(uStructure.getEnablementStates(e.getLabel()));
-            Set<State> controlStates = SetUtils.union(enablementStates, disablementStates);
-
-            /*
-             * Initialize set of adjacent vertices and ambiguity levels
-             */
-            for (int i = 0; i < automaton.nControllers; i++) {
-                for (State controlState : controlStates) {
-                    neighborMap.put(controlState, e.isControllable(i) ? new LinkedHashSet<>() : Collections.emptySet());
-                }
-            }
-
-            /* Build edges of bipartite graph */
-            IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-                List<List<State>> indistinguishableStateLists = indistinguishableStatesArr[i];
-                for (List<State> indistinguishableStateList : indistinguishableStateLists) {
-                    for (State disablementState : disablementStates) {
-                        for (State enablementState : enablementStates) {
-                            if (indistinguishableStateList.contains(disablementState)
-                                    && indistinguishableStateList.contains(enablementState)) {
-                                neighborMap.get(disablementState).get(i).add(enablementState);
-                                neighborMap.get(enablementState).get(i).add(disablementState);
-                            }
-                        }
-                    }
-                }
-            });
-
-            // vDist is the collection of set of vertices that can be distinguished by i
-            List<Set<State>> vDist = new ArrayList<>(automaton.nControllers);
-            for (int i = 0; i < automaton.nControllers; i++) {
-                vDist.add(e.isControllable(i) ? new LinkedHashSet<>() : Collections.emptySet());
-            }
-
-            int infLevel = 0;
-
-            for (State v : neighborMap.keySet()) {
-                for (int i = 0; i < automaton.nControllers; i++) {
-                    if (e.isControllable(i) && neighborMap.get(v).get(i).isEmpty() && (enablement ^ v.isDisablementStateOf(e.getLabel()))) {
-                        retList.add(new AmbiguityData(v, e, i + 1, enablement, infLevel));
-                        vDist.get(i).add(v);
-                    }
-                }
-            }
-
-            Set<State> prevDist = new LinkedHashSet<>();
-            for (Set<State> vDistI : vDist) {
-                prevDist.addAll(vDistI);
-            }
-
-            while (infLevel <= obsResult.getRight().getAsInt()) {
-                Set<State> currDist = new LinkedHashSet<>();
-                infLevel += 1;
-                for (State v : prevDist) {
-                    for (int i = 0; i < automaton.nControllers; i++) {
-                        if (e.isControllable(i)) {
-                            var neighborStates = neighborMap.get(v).get(i);
-                            if (!neighborStates.isEmpty()) {
-                                for (State vPrime : neighborStates) {
-                                    neighborMap.get(vPrime).get(i).remove(v);
-                                    if (neighborMap.get(vPrime).get(i).isEmpty() && !vDist.get(i).contains(vPrime)) {
-                                        currDist.add(vPrime);
-                                        retList.add(new AmbiguityData(vPrime, e, i + 1, (infLevel % 2 == 1) ^ enablement, infLevel));
-                                    }
-                                }
-                                neighborStates.clear();
-                                vDist.get(i).add(v);
-                                retList.add(new AmbiguityData(v, e, i + 1, (infLevel % 2 == 1) ^ enablement, infLevel));
-                            }
-                        }
-                    }
-                }
-                prevDist = currDist;
-            }
-        }
+        List<AmbiguityData> retList = ObservabilityAnalysis.of(automaton).generateLocalControlDecisions(enablement);
 
         long timeTaken = sw.getTime(TimeUnit.MILLISECONDS);
 
@@ -1215,64 +977,11 @@ public class AutomataOperations {
      * 
      * @throws NullPointerException if {@code automaton} is {@code null}
      */
-    @SuppressWarnings("unchecked")
     public static Map<Event, ListValuedMap<State, Set<State>>> generateBipartiteGraph(final Automaton automaton) {
 
         Objects.requireNonNull(automaton);
 
-        // Take the U-Structure, then relabel states as needed
-        UStructure uStructure = UStructureOperations.relabelConfigurationStates(synchronizedComposition(automaton));
-
-        Automaton[] determinizations = new Automaton[automaton.nControllers];
-        List<List<State>>[] indistinguishableStatesArr = new List[automaton.nControllers];
-
-        IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-            determinizations[i] = uStructure.subsetConstruction(i + 1);
-            indistinguishableStatesArr[i] = new ArrayList<>();
-            for (State indistinguishableStates : determinizations[i].states.values()) {
-                indistinguishableStatesArr[i]
-                        .add(uStructure.getStatesFromLabel(new LabelVector(indistinguishableStates.getLabel())));
-            }
-        });
-
-        Map<Event, ListValuedMap<State, Set<State>>> bipartiteGraphs = new HashMap<>();
-
-        for (Event e : IterableUtils.filteredIterable(
-                automaton.events, event -> BooleanUtils.or(event.isControllable()))) {
-
-            ListValuedMap<State, Set<State>> neighborMap = MultiMapUtils.newListValuedHashMap();
-
-            Set<State> disablementStates = Collections.unmodifiableSet(uStructure.getDisablementStates(e.getLabel()));
-            Set<State> enablementStates = Collections.unmodifiableSet(uStructure.getEnablementStates(e.getLabel()));
-
-            /*
-             * Initialize set of adjacent vertices
-             */
-            for (int i = 0; i < automaton.nControllers; i++) {
-                for (State controlState : SetUtils.union(enablementStates, disablementStates)) {
-                    neighborMap.put(controlState, e.isControllable(i) ? new LinkedHashSet<>() : Collections.emptySet());
-                }
-            }
-
-            /* Build edges of bipartite graph */
-            IntStream.range(0, automaton.nControllers).parallel().forEach(i -> {
-                List<List<State>> indistinguishableStateLists = indistinguishableStatesArr[i];
-                for (List<State> indistinguishableStateList : indistinguishableStateLists) {
-                    for (State disablementState : disablementStates) {
-                        for (State enablementState : enablementStates) {
-                            if (indistinguishableStateList.contains(disablementState)
-                                    && indistinguishableStateList.contains(enablementState)
-                                    && e.isControllable(i)) {
-                                neighborMap.get(disablementState).get(i).add(enablementState);
-                                neighborMap.get(enablementState).get(i).add(disablementState);
-                            }
-                        }
-                    }
-                }
-            });
-            bipartiteGraphs.put(e, neighborMap);
-        }
-        return bipartiteGraphs;
+        return ObservabilityAnalysis.of(automaton).generateBipartiteGraph();
     }
 
     /**
@@ -1310,7 +1019,7 @@ public class AutomataOperations {
                 if (sequence.containsState(t.getTargetStateID()))
                     throw new IllegalArgumentException();
                 else {
-                    if (!automaton.getBadTransitions().contains(new TransitionData(lastState.getID(), t.getEvent().getID(), t.getTargetStateID()))) {
+                    if (!automaton.isBadTransition(lastState.getID(), t.getEvent().getID(), t.getTargetStateID())) {
                         queue.add(sequence.append(t.getEvent().getID(), t.getTargetStateID()));
                     }
                 }
@@ -1345,7 +1054,7 @@ public class AutomataOperations {
         long dumpStateID = automaton.getNumberOfStates() + 1;
         boolean needToAddDumpState = false;
 
-        List<Event> activeEvents = automaton.getActiveEvents();
+        Set<Event> activeEvents = new HashSet<>(automaton.getActiveEvents());
 
         // Add each state to the new automaton
         for (long s = 1; s <= automaton.getNumberOfStates(); s++) {
@@ -1357,14 +1066,11 @@ public class AutomataOperations {
             // Try to add transitions for each event
             for (Event e : automaton.getEvents()) {
 
-                boolean foundMatch = false;
+                List<Transition> matches = state.getTransitionsWithEvent(e);
+                boolean foundMatch = !matches.isEmpty();
 
-                // Search through each transition for the event
-                for (Transition t : state.getTransitions())
-                    if (t.getEvent().equals(e)) {
-                        twinPlant.addTransition(id, e.getID(), t.getTargetStateID());
-                        foundMatch = true;
-                    }
+                for (Transition t : matches)
+                    twinPlant.addTransition(id, e.getID(), t.getTargetStateID());
 
                 // Add new transition leading to dump state if this event if undefined at this
                 // state and is active
@@ -1447,10 +1153,38 @@ public class AutomataOperations {
      * @since 2.2.0
      */
     public static boolean testIncrementalObservability(Set<Automaton> plants, Set<Automaton> specs, CounterexampleHeuristics counterexampleHeuristic, FilteredComponentIterableGenerator componentHeuristicSupplier) {
+        return testIncrementalObservability(plants, specs, counterexampleHeuristic, componentHeuristicSupplier, CompositionOptions.sequential());
+    }
+
+    /**
+     * Given a set of plants and specifications, test whether the combined system is inference observable.
+     * This method uses the specified heuristic for querying the system components.
+     * <p>
+     * In parallel mode, the candidate components are checked against each counterexample concurrently.
+     * The component that is picked is always the first one in the order of the component heuristic
+     * that rejects the counterexample, so the result and the components that are picked do not
+     * depend on the mode.
+     * 
+     * @param plants a set of plants
+     * @param specs a set of specifications
+     * @param counterexampleHeuristic a counterexample heuristic
+     * @param componentHeuristicSupplier a component heuristic supplier
+     * @param options whether the components are checked in parallel
+     * 
+     * @return {@code true} if the combined system is inference observable
+     * 
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted
+     *                                                    while components are checked in parallel
+     * @throws NullPointerException if any one of the arguments is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    public static boolean testIncrementalObservability(Set<Automaton> plants, Set<Automaton> specs, CounterexampleHeuristics counterexampleHeuristic, FilteredComponentIterableGenerator componentHeuristicSupplier, CompositionOptions options) {
         Objects.requireNonNull(plants);
         Objects.requireNonNull(specs);
         Objects.requireNonNull(counterexampleHeuristic);
         Objects.requireNonNull(componentHeuristicSupplier);
+        Objects.requireNonNull(options);
 
         /* Create copies of the sets to avoid modifying supplied sets */
         Set<Automaton> G = new LinkedHashSet<>(plants);
@@ -1459,85 +1193,77 @@ public class AutomataOperations {
         logger.info("Starting incremental observability check");
         logger.info("Counterexample heuristic: " + counterexampleHeuristic.toString());
         logger.info("Component heuristic: " + componentHeuristicSupplier.toString());
+        logger.info("Component search: " + options.toString());
         StopWatch sw = StopWatch.createStarted();
-        int nComponentChecks = 0;
-
-        while (!H.isEmpty()) {
-            Automaton Hj = H.iterator().next();
-            logger.debug(Hj);
-            Set<Automaton> Hprime = new LinkedHashSet<>();
-            Set<Automaton> Gprime = new LinkedHashSet<>();
-            Hprime.add(Hj);
-            Automaton combinedSys = generateTwinPlant(Hj);
-            while (!testObservability(combinedSys, false).getLeft()) {
-                UStructure uStructure = UStructureOperations.relabelConfigurationStates(synchronizedComposition(combinedSys));
-                List<Counterexample> counterExamplesRaw = new ArrayList<>();
-                List<Counterexample> counterExamples = SetUniqueList.setUniqueList(counterExamplesRaw);
-                for (Event controllableEvent : combinedSys.getControllableEvents()) {
-                    var enablementStates = uStructure.getEnablementStates(controllableEvent.getLabel());
-                    var illegalConfigs = uStructure.getIllegalConfigStates(controllableEvent.getLabel());
-                    for (var illegalConfig : illegalConfigs) {
-                        if (!enablementStates.contains(illegalConfig)) {
-                            illegalConfig.setMarked(true);
-                            var trim = uStructure.trim();
-                            var counterExample = buildCounterexample(controllableEvent, trim);
-                            counterExamples.add(counterExample);
-                            illegalConfig.setMarked(false);
+
+        try (ComponentSearch componentSearch = new ComponentSearch(options)) {
+
+            while (!H.isEmpty()) {
+                Automaton Hj = H.iterator().next();
+                logger.debug(Hj);
+                Set<Automaton> Hprime = new LinkedHashSet<>();
+                Set<Automaton> Gprime = new LinkedHashSet<>();
+                Hprime.add(Hj);
+                CompositionCache compositionCache = new CompositionCache();
+                Automaton combinedSys = compositionCache.buildMonolithicSystem(Gprime, Hprime);
+                ObservabilityAnalysis analysis = ObservabilityAnalysis.analyze(combinedSys);
+                while (!analysis.isObservable()) {
+                    // Extract counterexamples from the U-Structure that was just tested
+                    List<Counterexample> counterExamples = new CounterexampleExtractor(analysis.getUStructure())
+                            .extractAll(combinedSys, counterexampleHeuristic);
+                    logger.debug("Counterexamples: "  + counterExamples);
+
+                    if (counterExamples.isEmpty()) {
+                        // Fall back to the monolithic system, whose verdict is final
+                        if (Gprime.containsAll(G) && Hprime.containsAll(H)) {
+                            logger.info("Time taken: " + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
+                            logger.info("Number of component checks: " + componentSearch.getNumberOfChecks());
+                            return false;
                         }
+                        logger.info("No counterexample found; adding all remaining components");
+                        Gprime.addAll(G);
+                        Hprime.addAll(H);
+                        combinedSys = compositionCache.buildMonolithicSystem(Gprime, Hprime);
+                        analysis = ObservabilityAnalysis.analyze(combinedSys);
+                        continue;
                     }
-                }
-                logger.debug("Counterexamples: "  + counterExamples);
-                counterExamplesRaw.sort(counterexampleHeuristic);
-
-                boolean found = false;
-                Counterexample counterExample = counterExamplesRaw.get(0);
-                logger.info("Current counterexample: " + counterExample);
-                var componentIterator = componentHeuristicSupplier.generate(G, H, Gprime, Hprime).iterator();
-                componentSearch: while (!found && componentIterator.hasNext()) {
-                    var M = componentIterator.next();
-                    logger.info("Current component: " + M);
-                    nComponentChecks++;
-                    if (G.contains(M) && !M.recognizesWord(counterExample.getWords().get(0).append(counterExample.getEvent().getLabel()))) {
-                        found = Gprime.add(M);
-                        break componentSearch;
-                    }
-                    if (H.contains(M) && !M.recognizesWord(counterExample.getWords().get(0))) {
-                        found = Hprime.add(M);
-                        break componentSearch;
+                    Counterexample counterExample = counterExamples.get(0);
+                    logger.info("Current counterexample: " + counterExample);
+                    int nChecksBefore = componentSearch.getNumberOfChecks();
+                    Automaton M = componentSearch.findRejectingComponent(
+                            componentHeuristicSupplier.generate(G, H, Gprime, Hprime, counterExample), counterExample, G, combinedSys.nControllers);
+                    componentHeuristicSupplier.searchCompleted(counterExample, M, componentSearch.getNumberOfChecks() - nChecksBefore);
+                    if (M == null) {
+                        logger.info("Time taken: " + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
+                        logger.info("Number of component checks: " + componentSearch.getNumberOfChecks());
+                        return false;
                     }
-                    for (int i = 1; !found && i <= combinedSys.nControllers; i++) {
-                        if (counterExample.getEvent().isControllable(i - 1)) {
-                            if (!M.recognizesWord(i, counterExample.getWords().get(i).append(counterExample.getEvent().getLabel()))) {
-                                if (G.contains(M)) {
-                                    found = Gprime.add(M);
-                                } else {
-                                    found = Hprime.add(M);
-                                }
-                                break componentSearch;
-                            }
-                        }
+                    logger.info("Current component: " + M);
+                    if (G.contains(M)) {
+                        Gprime.add(M);
+                    } else {
+                        Hprime.add(M);
                     }
+                    logger.debug("Rebuilding system");
+                    combinedSys = compositionCache.buildMonolithicSystem(Gprime, Hprime);
+                    compositionCache.logAndResetStatistics(
+                            "Rebuilt system with " + Gprime.size() + " plants and " + Hprime.size() + " specifications");
+                    analysis = ObservabilityAnalysis.analyze(combinedSys);
+                    // logger.debug("New system: " + combinedSys.toJsonObject());
                 }
-
-                if (!found) {
-                    logger.info("Time taken: " + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
-                    logger.info("Number of component checks: " + nComponentChecks);
-                    return false;
-                }
-                logger.debug("Rebuilding system");
-                combinedSys = buildMonolithicSystem(Gprime, Hprime);
-                // logger.debug("New system: " + combinedSys.toJsonObject());
+                H.removeAll(Hprime);
+                G.addAll(Hprime);
             }
-            H.removeAll(Hprime);
-            G.addAll(Hprime);
+            logger.info("Time taken: " + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
+            logger.info("Number of component checks: " + componentSearch.getNumberOfChecks());
+            return true;
         }
-        logger.info("Time taken: " + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
-        logger.info("Number of component checks: " + nComponentChecks);
-        return true;
     }
 
     /**
      * Builds monolithic system with the specified system components.
+     * The components of each set are intersected one at a time, in the order
+     * that the set returns them.
      * 
      * @param plants set of plant components
      * @param specs set of specification components
@@ -1546,24 +1272,7 @@ public class AutomataOperations {
      * @since 2.2.0
      */
     public static Automaton buildMonolithicSystem(Set<Automaton> plants, Set<Automaton> specs) {
-        Automaton compositeSpec = buildCompositeAutomaton(specs);
-        Automaton compositeSpecTwinPlant = compositeSpec.generateTwinPlant();
-        if (plants.isEmpty()) {
-            return compositeSpecTwinPlant;
-        }
-        Automaton compositePlant = buildCompositeAutomaton(plants);
-        Automaton combinedSys = union(compositeSpecTwinPlant, compositePlant);
-        combinedSys.renumberStates();
-        relabelStates(combinedSys);
-        return combinedSys;
-    }
-
-    private static Automaton buildCompositeAutomaton(Set<Automaton> automata) {
-        if (automata.size() == 1) {
-            return automata.iterator().next();
-        }
-        return automata.parallelStream().reduce(AutomataOperations::intersection)
-                .orElseThrow(IllegalArgumentException::new);
+        return new CompositionCache().buildMonolithicSystem(plants, specs);
     }
 
     /**
@@ -1576,48 +1285,11 @@ public class AutomataOperations {
      * 
      * @since 2.2.0
      */
-    private static <T extends Automaton> T relabelStates(T automaton) {
+    static <T extends Automaton> T relabelStates(T automaton) {
         for (State s : automaton.getStates()) {
-            s.setLabel(Long.toString(s.getID()));
+            automaton.relabelState(s, Long.toString(s.getID()));
         }
         return automaton;
     }
 
-    /**
-     * Constructs counterexamples w.r.t. the specified event.
-     * 
-     * @param event an event
-     * @param trim the trimmed U-Structure
-     * @return a counterexample
-     */
-    private static Counterexample buildCounterexample(final Event event, final UStructure trim) {
-
-        State currState = trim.getState(trim.initialState);
-        Sequence seq = new Sequence(currState.getID());
-
-        while (currState.getNumberOfTransitions() > 0) {
-            Transition transition = currState.getTransition(0);
-            seq = seq.append(transition.getEvent().getID(), transition.getTargetStateID());
-            currState = trim.getState(transition.getTargetStateID());
-        }
-
-        List<List<String>> temp = new ArrayList<>();
-        for (int i = 0; i <= trim.nControllers; i++) {
-            temp.add(new ArrayList<>());
-        }
-        for (int eventID : seq.getEventList()) {
-            Event e = trim.getEvent(eventID);
-            LabelVector lv = e.getVector();
-            for (int i = 0; i <= trim.nControllers; i++) {
-                temp.get(i).add(lv.getLabelAtIndex(i));
-            }
-        }
-        List<Word> words = new ArrayList<>();
-
-        for (int i = 0; i <= trim.nControllers; i++) {
-            words.add(new Word(temp.get(i)));
-        }
-        return new Counterexample(event, words);
-    }
-
 }
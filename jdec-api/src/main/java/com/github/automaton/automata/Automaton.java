@@ -93,9 +93,28 @@ public class Automaton implements Cloneable {
      * @since 2.0
      */
     protected Map<Long, State> states = new LinkedHashMap<>();
+    /**
+     * Mapping of labels of states in this automaton to their respective
+     * {@link State}s.
+     * 
+     * @implNote If more than one state shares the same label, only the first of
+     *           them to be indexed is mapped here. The others are kept in
+     *           {@link #duplicateLabels}.
+     * 
+     * @see #getState(String)
+     * @since 2.2.0
+     */
+    private transient Map<String, State> labelIndex = new HashMap<>();
+    /**
+     * States that share their label with the state that {@link #labelIndex}
+     * maps the label to, by label, in the order they were indexed.
+     * 
+     * @since 2.2.0
+     */
+    private transient Map<String, Deque<State>> duplicateLabels = new HashMap<>();
 
     // Special transitions
-    private List<TransitionData> badTransitions;
+    private TransitionDataList<TransitionData> badTransitions;
 
     // Basic properties of the automaton
     /** The type of this automaton */
@@ -119,6 +138,15 @@ public class Automaton implements Cloneable {
      */
     private transient AutomatonGuiInputGenerator<?> generator;
 
+    /**
+     * Observers of this automaton, by controller, which are built as they are
+     * needed and discarded whenever this automaton is modified.
+     * 
+     * @see #recognizesWord(int, Word)
+     * @since 2.2.0
+     */
+    private transient LazyObserver[] observers;
+
     /**
      * GraphViz DOT converter.
      * 
@@ -326,6 +354,7 @@ public class Automaton implements Cloneable {
         for (State s : gson.fromJson(jsonObject.get("states"), new TypeToken<HashSet<State>>() {
         })) {
             states.put(s.getID(), s);
+            indexLabel(s);
         }
 
         readSpecialTransitionsFromJsonObject(jsonObject);
@@ -334,6 +363,53 @@ public class Automaton implements Cloneable {
 
     }
 
+    /**
+     * Constructs a deep copy of the specified automaton.
+     * <p>
+     * The events, states, transitions and special transitions are all copied,
+     * so that the new automaton can be modified independently of the
+     * original. The order of the events and states is preserved.
+     * 
+     * @param other the automaton to copy
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @see #clone()
+     * @since 2.2.0
+     */
+    protected Automaton(Automaton other) {
+
+        Objects.requireNonNull(other);
+
+        initializeLists();
+
+        type = other.type;
+        initialState = other.initialState;
+        nControllers = other.nControllers;
+
+        for (Event e : other.events) {
+            Event copy = new Event(e.getLabel(), e.getID(), ArrayUtils.clone(e.isObservable()),
+                    ArrayUtils.clone(e.isControllable()));
+            events.add(copy);
+            eventsMap.put(copy.getLabel(), copy);
+        }
+
+        for (State s : other.states.values()) {
+            State copy = s.clone();
+            // Point the copied transitions to the copied events
+            copy.clearTransitions();
+            for (Transition t : s.getTransitions()) {
+                Event e = eventsMap.getOrDefault(t.getEvent().getLabel(), t.getEvent());
+                copy.addTransition(new Transition(e, t.getTargetStateID()));
+            }
+            states.put(copy.getID(), copy);
+            indexLabel(copy);
+        }
+
+        badTransitions = other.badTransitions.deepCopy();
+
+    }
+
     /**
      * Builds an automaton from a JSON object.
      * 
@@ -381,7 +457,7 @@ public class Automaton implements Cloneable {
      **/
     protected void initializeLists() {
 
-        badTransitions = new ArrayList<TransitionData>();
+        badTransitions = new TransitionDataList<TransitionData>();
 
     }
 
@@ -746,6 +822,7 @@ public class Automaton implements Cloneable {
         /* Update the special transitions */
 
         renumberStatesInAllTransitionData(mappingHashMap);
+        invalidateObservers();
 
     }
 
@@ -788,6 +865,9 @@ public class Automaton implements Cloneable {
 
         }
 
+        if (list instanceof TransitionDataList<?> indexedList)
+            indexedList.reindex();
+
     }
 
     /**
@@ -1022,10 +1102,11 @@ public class Automaton implements Cloneable {
      * @return a copy of this automaton
      * 
      * @since 2.0
+     * @revised 2.2.0
      **/
     @Override
     public Automaton clone() {
-        return new Automaton(this.toJsonObject());
+        return new Automaton(this);
     }
 
     /**
@@ -1080,7 +1161,7 @@ public class Automaton implements Cloneable {
      * @param jsonObj the JSON object to import from
      */
     protected void readSpecialTransitionsFromJsonObject(JsonObject jsonObj) {
-        badTransitions = readTransitionDataFromJsonObject(jsonObj, "badTransitions");
+        badTransitions = new TransitionDataList<>(readTransitionDataFromJsonObject(jsonObj, "badTransitions"));
     }
 
     /**
@@ -1141,15 +1222,12 @@ public class Automaton implements Cloneable {
      **/
     public int addTransition(long startingStateID, String eventLabel, long targetStateID) {
 
-        for (Event e : events)
-            if (eventLabel.equals(e.getLabel())) {
-                if (!addTransition(startingStateID, e.getID(), targetStateID))
-                    return 0;
-                else
-                    return e.getID();
-            }
+        Event e = eventsMap.get(eventLabel);
+
+        if (e == null || !addTransition(startingStateID, e.getID(), targetStateID))
+            return 0;
 
-        return 0;
+        return e.getID();
 
     }
 
@@ -1166,15 +1244,12 @@ public class Automaton implements Cloneable {
      **/
     public int addTransition(State startingState, String eventLabel, State targetState) {
 
-        for (Event e : events)
-            if (eventLabel.equals(e.getLabel())) {
-                if (!addTransition(startingState.getID(), e.getID(), targetState.getID()))
-                    return 0;
-                else
-                    return e.getID();
-            }
+        Event e = eventsMap.get(eventLabel);
+
+        if (e == null || !addTransition(startingState.getID(), e.getID(), targetState.getID()))
+            return 0;
 
-        return 0;
+        return e.getID();
 
     }
 
@@ -1225,6 +1300,7 @@ public class Automaton implements Cloneable {
             return false;
         }
 
+        invalidateObservers();
         return true;
 
     }
@@ -1247,7 +1323,7 @@ public class Automaton implements Cloneable {
             return false;
         else if (event == null)
             return false;
-        return startingState.getTransitions().contains(new Transition(event, targetStateID));
+        return startingState.containsTransition(new Transition(event, targetStateID));
     }
 
     /**
@@ -1268,7 +1344,7 @@ public class Automaton implements Cloneable {
         else if (!startingState.equals(getState(startingState.getID()))) {
             throw new IllegalArgumentException("State information inconsistent");
         }
-        return getState(startingState.getID()).getTransitions().contains(new Transition(event, targetStateID));
+        return getState(startingState.getID()).containsTransition(new Transition(event, targetStateID));
     }
 
     /**
@@ -1313,6 +1389,7 @@ public class Automaton implements Cloneable {
 
         Event event = getEvent(td.eventID);
         startingState.removeTransition(new Transition(event, td.targetStateID));
+        invalidateObservers();
 
         /*
          * Remove transition from list of special transitions (if it appears anywhere in
@@ -1336,6 +1413,7 @@ public class Automaton implements Cloneable {
     protected void removeTransitionData(TransitionData data) {
 
         badTransitions.remove(data);
+        invalidateObservers();
 
     }
 
@@ -1374,12 +1452,14 @@ public class Automaton implements Cloneable {
 
         State state = new State(label, id, marked, transitions);
         states.put(id, state);
+        indexLabel(state);
 
         /* Change initial state */
 
         if (isInitialState)
             initialState = id;
 
+        invalidateObservers();
         return id;
     }
 
@@ -1517,12 +1597,14 @@ public class Automaton implements Cloneable {
         }
 
         states.put(state.getID(), state);
+        indexLabel(state);
 
         /* Update initial state */
 
         if (isInitialState)
             initialState = state.getID();
 
+        invalidateObservers();
         return true;
     }
 
@@ -1540,9 +1622,10 @@ public class Automaton implements Cloneable {
         List<TransitionData> tdToRemove = getTransitionStream().filter(td -> td.initialStateID == stateID || td.targetStateID == stateID).collect(Collectors.toList());
         for (TransitionData td : tdToRemove)
             removeTransition(td);
-        states.remove(stateID);
+        unindexLabel(states.remove(stateID));
         if (initialState == stateID)
             initialState = 0;
+        invalidateObservers();
         return true;
     }
 
@@ -1598,6 +1681,7 @@ public class Automaton implements Cloneable {
         }
 
         eventsMap.put(event.getLabel(), event);
+        invalidateObservers();
 
         return event.getID();
     }
@@ -1695,6 +1779,7 @@ public class Automaton implements Cloneable {
     public void markTransitionAsBad(long initialStateID, int eventID, long targetStateID) {
 
         badTransitions.add(new TransitionData(initialStateID, eventID, targetStateID));
+        invalidateObservers();
 
     }
 
@@ -1705,6 +1790,7 @@ public class Automaton implements Cloneable {
      **/
     public void setInitialStateID(long id) {
         initialState = id;
+        invalidateObservers();
     }
 
     /* ACCESSOR METHODS */
@@ -1724,7 +1810,7 @@ public class Automaton implements Cloneable {
         if (event == null)
             return false;
 
-        return getState(initialStateID).getTransitions().contains(new Transition(event, targetStateID));
+        return getState(initialStateID).containsTransition(new Transition(event, targetStateID));
 
     }
 
@@ -1738,14 +1824,12 @@ public class Automaton implements Cloneable {
      **/
     public boolean transitionExistsWithEvent(long initialStateID, int eventID) {
 
-        if (getEvent(eventID) == null)
-            return false;
+        Event event = getEvent(eventID);
 
-        for (Transition t : getState(initialStateID).getTransitions())
-            if (t.getEvent().getID() == eventID)
-                return true;
+        if (event == null)
+            return false;
 
-        return false;
+        return getState(initialStateID).hasTransitionWithEvent(event);
 
     }
 
@@ -1850,14 +1934,64 @@ public class Automaton implements Cloneable {
      * @since 2.0
      */
     public State getState(String label) {
-        return getStates().parallelStream().filter(s -> Objects.equals(s.getLabel(), label)).findAny().orElse(null);
+        return label == null ? null : labelIndex.get(label);
+    }
+
+    /**
+     * Changes the label of the specified state, keeping the label index of this
+     * automaton up to date.
+     * 
+     * @param state a state in this automaton
+     * @param label new label for the state
+     * 
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 2.2.0
+     */
+    void relabelState(State state, String label) {
+        unindexLabel(state);
+        state.setLabel(label);
+        indexLabel(state);
+    }
+
+    /**
+     * Adds the specified state to the label index. If another state with the
+     * same label is already indexed, the state is kept as a duplicate instead.
+     * 
+     * @param state a state
+     * 
+     * @since 2.2.0
+     */
+    private void indexLabel(State state) {
+        if (labelIndex.putIfAbsent(state.getLabel(), state) != null)
+            duplicateLabels.computeIfAbsent(state.getLabel(), label -> new ArrayDeque<>(2)).addLast(state);
+    }
+
+    /**
+     * Removes the specified state from the label index. If another state with the
+     * same label exists, the one that was indexed next is indexed instead.
+     * 
+     * @param state a state (may be {@code null})
+     * 
+     * @since 2.2.0
+     */
+    private void unindexLabel(State state) {
+        if (state == null)
+            return;
+        String label = state.getLabel();
+        Deque<State> duplicates = duplicateLabels.get(label);
+        if (labelIndex.remove(label, state)) {
+            if (duplicates != null)
+                labelIndex.put(label, duplicates.pollFirst());
+        } else if (duplicates != null) {
+            duplicates.removeIf(s -> s == state);
+        }
+        if (duplicates != null && duplicates.isEmpty())
+            duplicateLabels.remove(label);
     }
 
     /**
      * Given the label of a state, get the ID of the state.
      * 
-     * @implNote This method is extremely expensive. It should only be used when
-     *           absolutely necessary.
      * @param label The unique label corresponding to the requested state
      * @return The corresponding state ID (or {@code null}, if it was not found)
      **/
@@ -2197,10 +2331,17 @@ public class Automaton implements Cloneable {
 
     /**
      * Tests whether this automaton recognizes the specified word.
+     * <p>
+     * For controllers other than the system, the word is checked against the
+     * observer of this automaton with respect to the controller. The observer
+     * is built as words are queried and is reused by later queries, until this
+     * automaton is modified.
      * 
+     * @param controller the controller, or {@code 0} for the system
      * @param word a word
      * @return {@code true} if this automaton recognizes this word
      * 
+     * @throws IllegalArgumentException if {@code controller} is out of range
      * @throws NullPointerException if argument is {@code null}
      * 
      * @since 2.2.0
@@ -2215,29 +2356,35 @@ public class Automaton implements Cloneable {
         if (controller == 0) {
             return recognizesWord(word);
         }
-        Queue<Pair<Long, Integer>> queue = new PriorityQueue<>((a, b) -> Integer.compare(a.getRight(), b.getRight()));
-        queue.add(Pair.of(initialState, 0));
-        while (!queue.isEmpty()) {
-            var curr = queue.poll();
-            State currState = getState(curr.getLeft());
-            if (curr.getRight() == word.length()) {
-                return true;
-            }
-            String eventLabel = word.getEventAt(curr.getRight());
-            for (int i = 0; i < currState.getNumberOfTransitions(); i++) {
-                Transition t = currState.getTransition(i);
-                if (!isBadTransition(currState, t.getEvent(), getState(t.getTargetStateID()))) {
-                    if (t.getEvent().isObservable(controller - 1)) {
-                        if (t.getEvent().getLabel().equals(eventLabel)) {
-                            queue.add(Pair.of(t.getTargetStateID(), curr.getRight() + 1));
-                        }
-                    } else {
-                        queue.add(Pair.of(t.getTargetStateID(), curr.getRight()));
-                    }
-                }
-            }
-        }
-        return false;
+        return getObserver(controller).accepts(word);
+    }
+
+    /**
+     * Returns the observer of this automaton with respect to the specified
+     * controller, building it if this automaton has been modified since it was
+     * last used.
+     * 
+     * @param controller the controller, starting at {@code 1}
+     * @return the observer
+     * 
+     * @since 2.2.0
+     */
+    private synchronized LazyObserver getObserver(int controller) {
+        if (observers == null)
+            observers = new LazyObserver[nControllers];
+        if (observers[controller - 1] == null)
+            observers[controller - 1] = new LazyObserver(this, controller);
+        return observers[controller - 1];
+    }
+
+    /**
+     * Discards the observers of this automaton. This must be called whenever
+     * this automaton is modified.
+     * 
+     * @since 2.2.0
+     */
+    protected final void invalidateObservers() {
+        observers = null;
     }
 
     /**
@@ -2267,4 +2414,16 @@ public class Automaton implements Cloneable {
         this.repr = repr;
     }
 
+    /**
+     * Returns the custom string representation of this automaton.
+     * 
+     * @return the custom string representation, or {@code null} if none was set
+     * 
+     * @see #setStrRepr(String)
+     * @since 2.2.0
+     */
+    public String getStrRepr() {
+        return this.repr;
+    }
+
 }
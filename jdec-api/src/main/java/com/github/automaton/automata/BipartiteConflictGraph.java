@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import org.apache.commons.collections4.*;
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * The bipartite graph of a controllable event, used for testing inference
+ * observability.
+ * <p>
+ * The vertices of the graph are the control configurations of the event in a
+ * U-Structure. For each controller that can control the event, an enablement
+ * state and a disablement state are adjacent if the controller cannot
+ * distinguish them. Vertices are numbered from {@code 0}, and the adjacency of
+ * each controller is stored in compressed sparse row form.
+ * <p>
+ * Instances of this class are immutable. The inference level and the local
+ * control decisions are computed by peeling the graph with per-vertex degree
+ * counters, without modifying the graph itself.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see ObservabilityAnalysis
+ * @since 2.2.0
+ */
+final class BipartiteConflictGraph {
+
+    /** The event that this graph is built for */
+    private final Event event;
+    /** Number of controllers */
+    private final int nControllers;
+    /** The control configurations */
+    private final State[] vertices;
+    /** Vertices that are disablement states */
+    private final BitSet disablement;
+    /**
+     * Offsets of the neighbors of each vertex in {@link #neighbors}, for each
+     * controller; {@code null} if the controller cannot control the event
+     */
+    private final int[][] offsets;
+    /** Neighbors of each vertex, for each controller */
+    private final int[][] neighbors;
+
+    /**
+     * Builds the bipartite graph of the specified event. The adjacency of each
+     * controller is built in parallel.
+     *
+     * @param event              a controllable event
+     * @param enablementStates   the enablement states of the event
+     * @param disablementStates  the disablement states of the event
+     * @param blockIndices       for each controller, the indices of the sets of
+     *                           indistinguishable states that contain each state
+     * @param nBlocks            for each controller, the number of sets of
+     *                           indistinguishable states
+     */
+    BipartiteConflictGraph(Event event, Set<State> enablementStates, Set<State> disablementStates,
+            List<Map<State, int[]>> blockIndices, int[] nBlocks) {
+
+        this.event = event;
+        this.nControllers = blockIndices.size();
+
+        /*
+         * Number the vertices in the iteration order of a hash map, which is the
+         * order that the map-based implementation visited them in. The peeling is
+         * sensitive to this order.
+         */
+        Map<State, Integer> order = new HashMap<>();
+        for (State s : SetUtils.union(enablementStates, disablementStates))
+            order.put(s, 0);
+        vertices = order.keySet().toArray(new State[0]);
+        Map<State, Integer> vertexIndices = new HashMap<>(vertices.length * 2);
+        for (int v = 0; v < vertices.length; v++)
+            vertexIndices.put(vertices[v], v);
+
+        disablement = new BitSet(vertices.length);
+        BitSet enablement = new BitSet(vertices.length);
+        int[] disablementOrder = disablementStates.stream().mapToInt(vertexIndices::get).toArray();
+        int[] enablementOrder = enablementStates.stream().mapToInt(vertexIndices::get).toArray();
+        for (int v : disablementOrder)
+            disablement.set(v);
+        for (int v : enablementOrder)
+            enablement.set(v);
+
+        offsets = new int[nControllers][];
+        neighbors = new int[nControllers][];
+
+        IntStream.range(0, nControllers).parallel().forEach(i -> {
+            if (!event.isControllable(i))
+                return;
+            int[][] disablementByBlock = groupByBlock(disablementOrder, blockIndices.get(i), nBlocks[i]);
+            int[][] enablementByBlock = groupByBlock(enablementOrder, blockIndices.get(i), nBlocks[i]);
+            int[] off = new int[vertices.length + 1];
+            int[] adj = new int[16];
+            int[] mark = new int[vertices.length];
+            int size = 0;
+            for (int v = 0; v < vertices.length; v++) {
+                int stamp = v + 1;
+                for (int b : blockIndices.get(i).getOrDefault(vertices[v], ArrayUtils.EMPTY_INT_ARRAY)) {
+                    // Disablement states are adjacent to enablement states, and vice versa
+                    int[] opposite = disablement.get(v) ? enablementByBlock[b] : null;
+                    for (int pass = 0; pass < 2; pass++) {
+                        if (opposite != null) {
+                            for (int u : opposite) {
+                                if (mark[u] == stamp)
+                                    continue;
+                                mark[u] = stamp;
+                                if (size == adj.length)
+                                    adj = Arrays.copyOf(adj, size * 2);
+                                adj[size++] = u;
+                            }
+                        }
+                        opposite = enablement.get(v) ? disablementByBlock[b] : null;
+                    }
+                }
+                off[v + 1] = size;
+            }
+            offsets[i] = off;
+            neighbors[i] = Arrays.copyOf(adj, size);
+        });
+    }
+
+    /**
+     * Groups the specified vertices by the sets of indistinguishable states
+     * that contain them. The vertices in each group keep their relative order.
+     *
+     * @param order      vertices
+     * @param blockIndex the indices of the sets that contain each state
+     * @param nBlocks    the number of sets of indistinguishable states
+     * @return the vertices contained in each set
+     */
+    private int[][] groupByBlock(int[] order, Map<State, int[]> blockIndex, int nBlocks) {
+        int[] counts = new int[nBlocks];
+        for (int v : order) {
+            for (int b : blockIndex.getOrDefault(vertices[v], ArrayUtils.EMPTY_INT_ARRAY))
+                counts[b]++;
+        }
+        int[][] groups = new int[nBlocks][];
+        for (int b = 0; b < nBlocks; b++)
+            groups[b] = new int[counts[b]];
+        Arrays.fill(counts, 0);
+        for (int v : order) {
+            for (int b : blockIndex.getOrDefault(vertices[v], ArrayUtils.EMPTY_INT_ARRAY))
+                groups[b][counts[b]++] = v;
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices
+     */
+    int getNumberOfVertices() {
+        return vertices.length;
+    }
+
+    /**
+     * Returns the state represented by the specified vertex.
+     *
+     * @param vertex a vertex
+     * @return the state represented by the vertex
+     */
+    State getVertex(int vertex) {
+        return vertices[vertex];
+    }
+
+    /**
+     * Returns the neighbors of the specified vertex with respect to the
+     * specified controller.
+     *
+     * @param controller the index of a controller (0-based)
+     * @param vertex     a vertex
+     * @return the neighbors of the vertex, or an empty array if the controller
+     *         cannot control the event
+     */
+    int[] getNeighbors(int controller, int vertex) {
+        if (offsets[controller] == null)
+            return ArrayUtils.EMPTY_INT_ARRAY;
+        return Arrays.copyOfRange(neighbors[controller], offsets[controller][vertex],
+                offsets[controller][vertex + 1]);
+    }
+
+    /**
+     * Returns the initial degree of each vertex, for each controller.
+     *
+     * @return the degree of each vertex, or {@code null} for controllers that
+     *         cannot control the event
+     */
+    private int[][] degrees() {
+        int[][] degrees = new int[nControllers][];
+        for (int i = 0; i < nControllers; i++) {
+            if (offsets[i] == null)
+                continue;
+            degrees[i] = new int[vertices.length];
+            for (int v = 0; v < vertices.length; v++)
+                degrees[i][v] = offsets[i][v + 1] - offsets[i][v];
+        }
+        return degrees;
+    }
+
+    /**
+     * Calculates the level of inferencing required to distinguish all vertices
+     * of this graph.
+     *
+     * @return the inference level ({@code -1} if this graph has no vertices), or
+     *         an empty {@code OptionalInt} if some vertices can never be
+     *         distinguished
+     */
+    OptionalInt computeInferenceLevel() {
+
+        int[][] degrees = degrees();
+        BitSet[] processed = new BitSet[nControllers];
+        for (int i = 0; i < nControllers; i++)
+            processed[i] = new BitSet(vertices.length);
+
+        BitSet distinguished = new BitSet(vertices.length);
+        int level = -1;
+
+        for (int v = 0; v < vertices.length; v++) {
+            for (int i = 0; i < nControllers; i++) {
+                if (degrees[i] != null && degrees[i][v] == 0) {
+                    distinguished.set(v);
+                    level = 0;
+                }
+            }
+        }
+
+        int[] prev = distinguished.stream().toArray();
+        int infLevel = 0;
+
+        while (prev.length > 0) {
+            BitSet inCurr = new BitSet(vertices.length);
+            int[] curr = new int[vertices.length];
+            int nCurr = 0;
+            infLevel += 1;
+            for (int v : prev) {
+                for (int i = 0; i < nControllers; i++) {
+                    if (degrees[i] == null)
+                        continue;
+                    if (degrees[i][v] == 0 && !distinguished.get(v)) {
+                        if (!inCurr.get(v)) {
+                            inCurr.set(v);
+                            curr[nCurr++] = v;
+                        }
+                        level = Math.max(level, infLevel);
+                    } else {
+                        for (int t = offsets[i][v]; t < offsets[i][v + 1]; t++) {
+                            int w = neighbors[i][t];
+                            if (processed[i].get(w))
+                                continue;
+                            if (--degrees[i][w] == 0 && !distinguished.get(w)) {
+                                if (!inCurr.get(w)) {
+                                    inCurr.set(w);
+                                    curr[nCurr++] = w;
+                                }
+                                level = Math.max(level, infLevel);
+                            }
+                        }
+                        processed[i].set(v);
+                    }
+                }
+            }
+            distinguished.or(inCurr);
+            prev = Arrays.copyOf(curr, nCurr);
+        }
+
+        if (distinguished.cardinality() < vertices.length)
+            return OptionalInt.empty();
+        return OptionalInt.of(level);
+    }
+
+    /**
+     * Calculates the local control decisions of this graph, and adds them to
+     * the specified list.
+     *
+     * @param enablement whether to use "enable by default (EBD)" framework for
+     *                   generating local control decisions
+     * @param maxLevel   the inference level of the system
+     * @param decisions  the list to add the control decisions to
+     */
+    void collectControlDecisions(boolean enablement, int maxLevel, List<AmbiguityData> decisions) {
+
+        int[][] degrees = degrees();
+        BitSet[] cleared = new BitSet[nControllers];
+        // vDist is the collection of set of vertices that can be distinguished by i
+        BitSet[] vDist = new BitSet[nControllers];
+        for (int i = 0; i < nControllers; i++) {
+            cleared[i] = new BitSet(vertices.length);
+            vDist[i] = new BitSet(vertices.length);
+        }
+
+        int infLevel = 0;
+
+        for (int v = 0; v < vertices.length; v++) {
+            for (int i = 0; i < nControllers; i++) {
+                if (degrees[i] != null && degrees[i][v] == 0 && (enablement ^ disablement.get(v))) {
+                    decisions.add(new AmbiguityData(vertices[v], event, i + 1, enablement, infLevel));
+                    vDist[i].set(v);
+                }
+            }
+        }
+
+        BitSet inPrev = new BitSet(vertices.length);
+        int[] prev = new int[vertices.length];
+        int nPrev = 0;
+        for (int i = 0; i < nControllers; i++) {
+            for (int v = vDist[i].nextSetBit(0); v >= 0; v = vDist[i].nextSetBit(v + 1)) {
+                if (!inPrev.get(v)) {
+                    inPrev.set(v);
+                    prev[nPrev++] = v;
+                }
+            }
+        }
+
+        while (infLevel <= maxLevel) {
+            BitSet inCurr = new BitSet(vertices.length);
+            int[] curr = new int[vertices.length];
+            int nCurr = 0;
+            infLevel += 1;
+            boolean decision = (infLevel % 2 == 1) ^ enablement;
+            for (int k = 0; k < nPrev; k++) {
+                int v = prev[k];
+                for (int i = 0; i < nControllers; i++) {
+                    if (degrees[i] == null || degrees[i][v] == 0)
+                        continue;
+                    for (int t = offsets[i][v]; t < offsets[i][v + 1]; t++) {
+                        int w = neighbors[i][t];
+                        if (cleared[i].get(w))
+                            continue;
+                        if (--degrees[i][w] == 0 && !vDist[i].get(w)) {
+                            if (!inCurr.get(w)) {
+                                inCurr.set(w);
+                                curr[nCurr++] = w;
+                            }
+                            decisions.add(new AmbiguityData(vertices[w], event, i + 1, decision, infLevel));
+                        }
+                    }
+                    degrees[i][v] = 0;
+                    cleared[i].set(v);
+                    vDist[i].set(v);
+                    decisions.add(new AmbiguityData(vertices[v], event, i + 1, decision, infLevel));
+                }
+            }
+            prev = curr;
+            nPrev = nCurr;
+        }
+    }
+
+    /**
+     * Returns this graph as a map from each vertex to its neighbors with
+     * respect to each controller.
+     *
+     * @return the neighbors of each vertex, for each controller
+     */
+    ListValuedMap<State, Set<State>> toNeighborMap() {
+        ListValuedMap<State, Set<State>> neighborMap = MultiMapUtils.newListValuedHashMap();
+        for (int i = 0; i < nControllers; i++) {
+            for (int v = 0; v < vertices.length; v++) {
+                if (offsets[i] == null) {
+                    neighborMap.put(vertices[v], Collections.emptySet());
+                    continue;
+                }
+                Set<State> adjacent = new LinkedHashSet<>();
+                for (int t = offsets[i][v]; t < offsets[i][v + 1]; t++)
+                    adjacent.add(vertices[neighbors[i][t]]);
+                neighborMap.put(vertices[v], adjacent);
+            }
+        }
+        return neighborMap;
+    }
+}
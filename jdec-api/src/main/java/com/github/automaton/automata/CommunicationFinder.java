@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+/**
+ * Determines which state a communication leads to from a given state of a
+ * U-Structure.
+ * <p>
+ * A communication leads from one state to another if there is a path between
+ * them whose event vectors are pairwise disjoint, and whose union is the event
+ * vector of the communication. Elements of event vectors are represented as
+ * bit masks, and the compatibility of each event with each communication is
+ * computed once, when this finder is constructed.
+ * <p>
+ * Pairs of states and found elements that do not lead anywhere (dead-ends) are
+ * memoized. As the number of such pairs can be very large, only the most
+ * recently used ones are kept. The U-Structure must not be modified while
+ * this finder is in use.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see UStructureOperations#addCommunications(UStructure)
+ * @since 2.2.0
+ */
+final class CommunicationFinder {
+
+    /** Maximum number of dead-ends to memoize */
+    static final int MAX_DEAD_ENDS = 1 << 16;
+
+    /** The U-Structure to search in */
+    private final UStructure uStructure;
+    /** Masks of the non-empty elements of each communication */
+    private final int[] targetMasks;
+    /**
+     * Masks of the non-empty elements of each event, indexed by communication
+     * and event ID. Events that are incompatible with a communication have
+     * mask {@code -1}.
+     */
+    private final int[][] eventMasks;
+    /** Most recently used dead-ends */
+    private final Map<DeadEnd, Boolean> deadEnds;
+
+    /**
+     * Constructs a new finder.
+     *
+     * @param uStructure     the U-Structure to search in
+     * @param communications the event vectors of the communications to search
+     *                       for
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    CommunicationFinder(UStructure uStructure, List<? extends LabelVector> communications) {
+        this.uStructure = Objects.requireNonNull(uStructure);
+        this.targetMasks = new int[communications.size()];
+        this.eventMasks = new int[communications.size()][uStructure.getNumberOfEvents() + 1];
+        for (int i = 0; i < targetMasks.length; i++) {
+            LabelVector communication = communications.get(i);
+            targetMasks[i] = maskOf(communication);
+            for (Event e : uStructure.getEvents()) {
+                eventMasks[i][e.getID()] = compatibleMaskOf(e.getVector(), communication);
+            }
+        }
+        this.deadEnds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DeadEnd, Boolean> eldest) {
+                return size() > MAX_DEAD_ENDS;
+            }
+        };
+    }
+
+    /**
+     * Determines which state the specified communication leads to from the
+     * specified state.
+     *
+     * @param startingState the state to start from
+     * @param communication the index of the communication, in the list that
+     *                      this finder was constructed with
+     * @return the destination state, or {@code null} if the communication does
+     *         not lead to a state
+     */
+    State findDestination(State startingState, int communication) {
+        return findDestination(startingState, communication, 0);
+    }
+
+    /**
+     * Determines which state the specified communication leads to, given the
+     * elements of the communication that have been found so far.
+     *
+     * @param currentState  the state that we are currently on
+     * @param communication the index of the communication
+     * @param found         mask of the elements that have been found
+     * @return the destination state, or {@code null} if the communication does
+     *         not lead to a state
+     */
+    private State findDestination(State currentState, int communication, int found) {
+
+        // We have found the destination if all vector elements have been found
+        if (found == targetMasks[communication])
+            return currentState;
+
+        DeadEnd key = new DeadEnd(currentState.getID(), communication, found);
+        if (deadEnds.get(key) != null)
+            return null;
+
+        // Try all transitions leading from this state
+        for (Transition t : currentState.getTransitions()) {
+            int eventMask = eventMasks[communication][t.getEvent().getID()];
+
+            // Skip events that are incompatible with the communication or with what we've
+            // found so far (there are no events with empty vectors, so the mask only grows)
+            if (eventMask <= 0 || (found & eventMask) != 0)
+                continue;
+
+            // Return destination if it is found (there will only ever be one destination
+            // for a given communication from a given state, so we can stop as soon as we
+            // find it the first time)
+            State destinationState = findDestination(uStructure.getState(t.getTargetStateID()), communication,
+                    found | eventMask);
+            if (destinationState != null)
+                return destinationState;
+
+        }
+
+        deadEnds.put(key, Boolean.TRUE);
+        return null;
+
+    }
+
+    /**
+     * Returns the mask of the non-empty elements of the specified vector.
+     *
+     * @param vector an event vector
+     * @return mask of the non-empty elements
+     */
+    private static int maskOf(LabelVector vector) {
+        int mask = 0;
+        for (int i = 0; i < vector.getSize(); i++) {
+            if (!vector.getLabelAtIndex(i).equals(Event.EPSILON))
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the mask of the non-empty elements of the specified event vector,
+     * if each of them matches the corresponding element of the communication.
+     *
+     * @param vector        an event vector
+     * @param communication the event vector of a communication
+     * @return mask of the non-empty elements, or {@code -1} if the vectors are
+     *         incompatible
+     */
+    private static int compatibleMaskOf(LabelVector vector, LabelVector communication) {
+        if (vector.getSize() != communication.getSize())
+            return -1;
+        int mask = 0;
+        for (int i = 0; i < vector.getSize(); i++) {
+            String element = vector.getLabelAtIndex(i);
+            if (!element.equals(Event.EPSILON)) {
+                if (!element.equals(communication.getLabelAtIndex(i)))
+                    return -1;
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * A state from which a communication does not lead anywhere, given the
+     * elements of the communication that have been found.
+     *
+     * @param stateID       the ID of the state
+     * @param communication the index of the communication
+     * @param found         mask of the elements that have been found
+     */
+    private static record DeadEnd(long stateID, int communication, int found) {
+    }
+}
@@ -0,0 +1,696 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+import org.apache.commons.collections4.SetUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.logging.log4j.*;
+
+/**
+ * A read-optimized, immutable representation of an {@link Automaton}.
+ * <p>
+ * States and events are identified by consecutive {@code int} indices
+ * starting from {@code 0}. Transitions are stored in compressed sparse row
+ * form: the outgoing transitions of state {@code s} occupy the positions
+ * {@code outgoingStart(s)} (inclusive) to {@code outgoingEnd(s)} (exclusive)
+ * of flat target and event arrays, and are listed in the same order as in
+ * the original automaton. Incoming transitions are indexed in the same
+ * manner. Marking status, control configurations and bad transitions are
+ * stored in bit sets.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#accessible(CompactAutomaton)
+ * @see AutomataOperations#coaccessible(CompactAutomaton)
+ * @see AutomataOperations#intersection(CompactAutomaton, CompactAutomaton)
+ * @see AutomataOperations#synchronizedComposition(CompactAutomaton)
+ * @since 2.2.0
+ */
+public final class CompactAutomaton {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Number of controllers */
+    private final int nControllers;
+    /** Events of this automaton, indexed by event index */
+    private final List<Event> events;
+    /** Mapping of event labels to event indices */
+    private final Map<String, Integer> eventIndices;
+
+    /** State labels, indexed by state index */
+    private final String[] labels;
+    /** IDs of the states in the automaton this was built from */
+    private final long[] stateIDs;
+    /** Index of the initial state, or {@code -1} if there is none */
+    private final int initialState;
+
+    /** Offsets of the outgoing transitions of each state */
+    private final int[] outOffsets;
+    /** Target state indices of transitions */
+    private final int[] outTargets;
+    /** Event indices of transitions */
+    private final int[] outEvents;
+    /** Offsets of the incoming transitions of each state */
+    private final int[] inOffsets;
+    /** Source state indices of incoming transitions */
+    private final int[] inSources;
+    /** Event indices of incoming transitions */
+    private final int[] inEvents;
+
+    /** Marked states */
+    private final BitSet marked;
+    /** Labels of the events that appear in control configurations */
+    private final String[] controlEvents;
+    /** Mapping of labels of control configuration events to their indices */
+    private final Map<String, Integer> controlEventIndices;
+    /** Enablement configurations, indexed by {@link #configIndex(int, int)} */
+    private final BitSet enablement;
+    /** Disablement configurations, indexed by {@link #configIndex(int, int)} */
+    private final BitSet disablement;
+    /** Illegal configurations, indexed by {@link #configIndex(int, int)} */
+    private final BitSet illegalConfig;
+    /** Bad transitions, indexed by outgoing transition index */
+    private final BitSet badTransitions;
+
+    /**
+     * Constructs a new {@code CompactAutomaton} from the data collected by the
+     * specified builder.
+     *
+     * @param builder a builder
+     */
+    private CompactAutomaton(Builder builder) {
+        this.nControllers = builder.nControllers;
+        this.events = Collections.unmodifiableList(builder.events);
+        this.eventIndices = builder.eventIndices;
+        int nStates = builder.labels.size();
+        this.labels = builder.labels.toArray(String[]::new);
+        this.stateIDs = Arrays.copyOf(builder.stateIDs, nStates);
+        this.initialState = builder.initialState;
+        this.marked = builder.marked;
+
+        /* Control configurations */
+        Map<String, Integer> indices = new LinkedHashMap<>();
+        for (State config : builder.configs)
+            if (config != null)
+                for (String event : SetUtils.union(SetUtils.union(config.getEnablementEvents(),
+                        config.getDisablementEvents()), config.getIllegalConfigEvents()))
+                    indices.putIfAbsent(event, indices.size());
+        this.controlEvents = indices.keySet().toArray(String[]::new);
+        this.controlEventIndices = indices;
+        this.enablement = new BitSet();
+        this.disablement = new BitSet();
+        this.illegalConfig = new BitSet();
+        for (int s = 0; s < nStates; s++) {
+            State config = builder.configs.get(s);
+            if (config == null)
+                continue;
+            for (String event : config.getEnablementEvents())
+                enablement.set(configIndex(s, indices.get(event)));
+            for (String event : config.getDisablementEvents())
+                disablement.set(configIndex(s, indices.get(event)));
+            for (String event : config.getIllegalConfigEvents())
+                illegalConfig.set(configIndex(s, indices.get(event)));
+        }
+
+        int nTransitions = builder.nTransitions;
+
+        /* Outgoing transitions (stable counting sort by source) */
+        outOffsets = new int[nStates + 1];
+        for (int i = 0; i < nTransitions; i++)
+            outOffsets[builder.sources[i] + 1]++;
+        for (int s = 0; s < nStates; s++)
+            outOffsets[s + 1] += outOffsets[s];
+        outTargets = new int[nTransitions];
+        outEvents = new int[nTransitions];
+        badTransitions = new BitSet(nTransitions);
+        int[] next = Arrays.copyOf(outOffsets, nStates);
+        for (int i = 0; i < nTransitions; i++) {
+            int pos = next[builder.sources[i]]++;
+            outTargets[pos] = builder.targets[i];
+            outEvents[pos] = builder.eventIDs[i];
+            if (builder.bad.get(i))
+                badTransitions.set(pos);
+        }
+
+        /* Incoming transitions (stable counting sort by target) */
+        inOffsets = new int[nStates + 1];
+        for (int i = 0; i < nTransitions; i++)
+            inOffsets[builder.targets[i] + 1]++;
+        for (int s = 0; s < nStates; s++)
+            inOffsets[s + 1] += inOffsets[s];
+        inSources = new int[nTransitions];
+        inEvents = new int[nTransitions];
+        next = Arrays.copyOf(inOffsets, nStates);
+        for (int i = 0; i < nTransitions; i++) {
+            int pos = next[builder.targets[i]]++;
+            inSources[pos] = builder.sources[i];
+            inEvents[pos] = builder.eventIDs[i];
+        }
+    }
+
+    /**
+     * Builds a compact representation of the specified automaton.
+     *
+     * @implNote Bad transitions that do not correspond to a transition of the
+     *           automaton are not retained.
+     *
+     * @param automaton an automaton
+     * @return the compact representation of {@code automaton}
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public static CompactAutomaton of(Automaton automaton) {
+
+        Objects.requireNonNull(automaton);
+
+        Builder builder = new Builder(automaton.getNumberOfControllers(), automaton.getEvents());
+
+        /* Add states */
+
+        Map<Long, Integer> indices = new HashMap<>();
+        for (State s : automaton.getStates()) {
+            int index = builder.addState(s.getLabel(), s.getID(), s.isMarked(), s);
+            indices.put(s.getID(), index);
+            if (s.getID() == automaton.getInitialStateID())
+                builder.initialState = index;
+        }
+
+        /* Add transitions */
+
+        Set<TransitionData> bad = new HashSet<>(automaton.getBadTransitions());
+        for (State s : automaton.getStates()) {
+            int source = indices.get(s.getID());
+            for (Transition t : s.getTransitions()) {
+                Integer target = indices.get(t.getTargetStateID());
+                if (target == null) {
+                    logger.error("Transition leads to a nonexistent state: " + t);
+                    continue;
+                }
+                builder.addTransition(source, builder.eventIndices.get(t.getEvent().getLabel()), target,
+                        bad.contains(new TransitionData(s.getID(), t.getEvent().getID(), t.getTargetStateID())));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Builds an automaton from this compact representation. The state with
+     * index {@code i} is given the ID {@code i + 1}.
+     *
+     * @return an automaton equivalent to this compact representation
+     */
+    public Automaton toAutomaton() {
+
+        Automaton automaton = new Automaton(nControllers);
+
+        for (Event e : events)
+            automaton.addEvent(e.getLabel(), ArrayUtils.clone(e.isObservable()),
+                    ArrayUtils.clone(e.isControllable()));
+
+        for (int s = 0; s < labels.length; s++) {
+            automaton.addStateAt(
+                    new State(labels[s], s + 1, marked.get(s), getConfigEvents(s, enablement),
+                            getConfigEvents(s, disablement), getConfigEvents(s, illegalConfig)),
+                    s == initialState);
+        }
+
+        for (int s = 0; s < labels.length; s++) {
+            for (int t = outOffsets[s]; t < outOffsets[s + 1]; t++) {
+                automaton.addTransition(s + 1, outEvents[t] + 1, outTargets[t] + 1);
+                if (badTransitions.get(t))
+                    automaton.markTransitionAsBad(s + 1, outEvents[t] + 1, outTargets[t] + 1);
+            }
+        }
+
+        return automaton;
+    }
+
+    /**
+     * Builds the sub-automaton induced by the specified states. The relative
+     * order of the remaining states is preserved.
+     *
+     * @param keep the indices of the states to keep
+     * @return the induced sub-automaton
+     */
+    CompactAutomaton restrict(BitSet keep) {
+
+        Builder builder = new Builder(nControllers, events);
+
+        int[] indices = new int[labels.length];
+        Arrays.fill(indices, -1);
+        for (int s = keep.nextSetBit(0); s >= 0; s = keep.nextSetBit(s + 1)) {
+            indices[s] = builder.addState(labels[s], stateIDs[s], marked.get(s), getConfig(s));
+        }
+        if (initialState >= 0)
+            builder.initialState = indices[initialState];
+
+        for (int s = keep.nextSetBit(0); s >= 0; s = keep.nextSetBit(s + 1)) {
+            for (int t = outOffsets[s]; t < outOffsets[s + 1]; t++) {
+                if (indices[outTargets[t]] >= 0)
+                    builder.addTransition(indices[s], outEvents[t], indices[outTargets[t]],
+                            badTransitions.get(t));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the bit index of the control configuration of the specified state
+     * w.r.t. the specified event.
+     *
+     * @param state        a state index
+     * @param controlEvent a control configuration event index
+     * @return the bit index
+     */
+    private int configIndex(int state, int controlEvent) {
+        return state * controlEvents.length + controlEvent;
+    }
+
+    /**
+     * Returns the labels of the events that the specified state is a control
+     * configuration of.
+     *
+     * @param state   a state index
+     * @param configs the control configurations
+     * @return the event labels
+     */
+    private Set<String> getConfigEvents(int state, BitSet configs) {
+        Set<String> events = new HashSet<>();
+        for (int c = 0; c < controlEvents.length; c++)
+            if (configs.get(configIndex(state, c)))
+                events.add(controlEvents[c]);
+        return events;
+    }
+
+    /**
+     * Returns a state that holds the control configurations of the specified
+     * state, or {@code null} if it has none.
+     *
+     * @param state a state index
+     * @return the control configurations of the state
+     */
+    private State getConfig(int state) {
+        if (controlEvents.length == 0)
+            return null;
+        return new State(labels[state], state, false, getConfigEvents(state, enablement),
+                getConfigEvents(state, disablement), getConfigEvents(state, illegalConfig));
+    }
+
+    /**
+     * Checks whether the specified state has a control configuration w.r.t. the
+     * specified event.
+     *
+     * @param state   a state index
+     * @param event   an event label
+     * @param configs the control configurations
+     * @return {@code true} if the state has the control configuration
+     */
+    private boolean isConfigOf(int state, String event, BitSet configs) {
+        Integer c = controlEventIndices.get(event);
+        return c != null && configs.get(configIndex(state, c));
+    }
+
+    /* ACCESSOR METHODS */
+
+    /**
+     * Returns the number of controllers in this automaton.
+     *
+     * @return the number of controllers
+     */
+    public int getNumberOfControllers() {
+        return nControllers;
+    }
+
+    /**
+     * Returns the number of states in this automaton.
+     *
+     * @return the number of states
+     */
+    public int getNumberOfStates() {
+        return labels.length;
+    }
+
+    /**
+     * Returns the number of transitions in this automaton.
+     *
+     * @return the number of transitions
+     */
+    public int getNumberOfTransitions() {
+        return outTargets.length;
+    }
+
+    /**
+     * Returns the events of this automaton, ordered by their indices. The
+     * returned list is unmodifiable.
+     *
+     * @return the events of this automaton
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the event with the specified index.
+     *
+     * @param index an event index
+     * @return the event with the specified index
+     *
+     * @throws IndexOutOfBoundsException if argument is out of bounds
+     */
+    public Event getEvent(int index) {
+        return events.get(index);
+    }
+
+    /**
+     * Returns the index of the event with the specified label.
+     *
+     * @param label an event label
+     * @return the index of the event, or {@code -1} if there is no such event
+     */
+    public int getEventIndex(String label) {
+        return eventIndices.getOrDefault(label, -1);
+    }
+
+    /**
+     * Returns the index of the initial state.
+     *
+     * @return the index of the initial state, or {@code -1} if there is none
+     */
+    public int getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Returns the label of the specified state.
+     *
+     * @param state a state index
+     * @return the label of the state
+     *
+     * @throws IndexOutOfBoundsException if argument is out of bounds
+     */
+    public String getLabel(int state) {
+        return labels[state];
+    }
+
+    /**
+     * Returns the ID that the specified state had in the automaton that this
+     * compact representation was built from.
+     *
+     * @param state a state index
+     * @return the original ID of the state
+     *
+     * @throws IndexOutOfBoundsException if argument is out of bounds
+     */
+    public long getStateID(int state) {
+        return stateIDs[state];
+    }
+
+    /**
+     * Checks whether the specified state is marked.
+     *
+     * @param state a state index
+     * @return {@code true} if the state is marked
+     */
+    public boolean isMarked(int state) {
+        return marked.get(state);
+    }
+
+    /**
+     * Checks whether the specified state is an enablement config of the
+     * specified event.
+     *
+     * @param state a state index
+     * @param event an event label
+     * @return {@code true} if the state is an enablement config of the event
+     */
+    public boolean isEnablementStateOf(int state, String event) {
+        return isConfigOf(state, event, enablement);
+    }
+
+    /**
+     * Checks whether the specified state is a disablement config of the
+     * specified event.
+     *
+     * @param state a state index
+     * @param event an event label
+     * @return {@code true} if the state is a disablement config of the event
+     */
+    public boolean isDisablementStateOf(int state, String event) {
+        return isConfigOf(state, event, disablement);
+    }
+
+    /**
+     * Checks whether the specified state is an illegal configuration of the
+     * specified event.
+     *
+     * @param state a state index
+     * @param event an event label
+     * @return {@code true} if the state is an illegal configuration of the event
+     */
+    public boolean isIllegalConfigurationOf(int state, String event) {
+        return isConfigOf(state, event, illegalConfig);
+    }
+
+    /**
+     * Returns the index of the first outgoing transition of the specified state.
+     *
+     * @param state a state index
+     * @return the index of the first outgoing transition (inclusive)
+     */
+    public int outgoingStart(int state) {
+        return outOffsets[state];
+    }
+
+    /**
+     * Returns the index after the last outgoing transition of the specified
+     * state.
+     *
+     * @param state a state index
+     * @return the index after the last outgoing transition (exclusive)
+     */
+    public int outgoingEnd(int state) {
+        return outOffsets[state + 1];
+    }
+
+    /**
+     * Returns the target state of the specified outgoing transition.
+     *
+     * @param transition an outgoing transition index
+     * @return the index of the target state
+     */
+    public int getTarget(int transition) {
+        return outTargets[transition];
+    }
+
+    /**
+     * Returns the event of the specified outgoing transition.
+     *
+     * @param transition an outgoing transition index
+     * @return the index of the event
+     */
+    public int getEventOf(int transition) {
+        return outEvents[transition];
+    }
+
+    /**
+     * Checks whether the specified outgoing transition is bad.
+     *
+     * @param transition an outgoing transition index
+     * @return {@code true} if the transition is bad
+     */
+    public boolean isBadTransition(int transition) {
+        return badTransitions.get(transition);
+    }
+
+    /**
+     * Returns the index of the first incoming transition of the specified state.
+     *
+     * @param state a state index
+     * @return the index of the first incoming transition (inclusive)
+     */
+    public int incomingStart(int state) {
+        return inOffsets[state];
+    }
+
+    /**
+     * Returns the index after the last incoming transition of the specified
+     * state.
+     *
+     * @param state a state index
+     * @return the index after the last incoming transition (exclusive)
+     */
+    public int incomingEnd(int state) {
+        return inOffsets[state + 1];
+    }
+
+    /**
+     * Returns the source state of the specified incoming transition.
+     *
+     * @param transition an incoming transition index
+     * @return the index of the source state
+     */
+    public int getSource(int transition) {
+        return inSources[transition];
+    }
+
+    /**
+     * Returns the event of the specified incoming transition.
+     *
+     * @param transition an incoming transition index
+     * @return the index of the event
+     */
+    public int getIncomingEventOf(int transition) {
+        return inEvents[transition];
+    }
+
+    /**
+     * Checks whether the specified state has an outgoing transition with the
+     * specified event.
+     *
+     * @param state a state index
+     * @param event an event index
+     * @return {@code true} if such transition exists
+     */
+    public boolean hasTransitionWithEvent(int state, int event) {
+        for (int t = outOffsets[state]; t < outOffsets[state + 1]; t++)
+            if (outEvents[t] == event)
+                return true;
+        return false;
+    }
+
+    /**
+     * Checks whether the specified state has a bad outgoing transition with
+     * the specified event.
+     *
+     * @param state a state index
+     * @param event an event index
+     * @return {@code true} if such transition exists
+     */
+    public boolean hasBadTransitionWithEvent(int state, int event) {
+        for (int t = outOffsets[state]; t < outOffsets[state + 1]; t++)
+            if (outEvents[t] == event && badTransitions.get(t))
+                return true;
+        return false;
+    }
+
+    /**
+     * Incrementally collects states and transitions of a
+     * {@link CompactAutomaton}.
+     *
+     * @since 2.2.0
+     */
+    static final class Builder {
+
+        private final int nControllers;
+        private final List<Event> events = new ArrayList<>();
+        private final Map<String, Integer> eventIndices = new HashMap<>();
+
+        private final List<String> labels = new ArrayList<>();
+        private long[] stateIDs = new long[16];
+        private final BitSet marked = new BitSet();
+        /** States holding the control configurations of each state, if any */
+        private final List<State> configs = new ArrayList<>();
+        /** Index of the initial state, or {@code -1} if there is none */
+        int initialState = -1;
+
+        private int nTransitions = 0;
+        private int[] sources = new int[16];
+        private int[] eventIDs = new int[16];
+        private int[] targets = new int[16];
+        private final BitSet bad = new BitSet();
+
+        /**
+         * Constructs a new builder.
+         *
+         * @param nControllers the number of controllers
+         * @param events       the events, which are indexed in iteration order
+         */
+        Builder(int nControllers, Collection<Event> events) {
+            this.nControllers = nControllers;
+            for (Event e : events)
+                addEvent(e);
+        }
+
+        /**
+         * Adds an event.
+         *
+         * @param event an event
+         * @return the index of the added event
+         */
+        int addEvent(Event event) {
+            int index = events.size();
+            events.add(new Event(event.getLabel(), index + 1, ArrayUtils.clone(event.isObservable()),
+                    ArrayUtils.clone(event.isControllable())));
+            eventIndices.put(event.getLabel(), index);
+            return index;
+        }
+
+        /**
+         * Returns the index of the event with the specified label.
+         *
+         * @param label an event label
+         * @return the index of the event, or {@code -1} if there is no such event
+         */
+        int getEventIndex(String label) {
+            return eventIndices.getOrDefault(label, -1);
+        }
+
+        /**
+         * Adds a state.
+         *
+         * @param label  the label of the state
+         * @param id     the original ID of the state
+         * @param marked whether the state is marked
+         * @param config a state that holds the control configurations of the
+         *               state, or {@code null} if it has none
+         * @return the index of the added state
+         */
+        int addState(String label, long id, boolean marked, State config) {
+            int index = labels.size();
+            labels.add(label);
+            if (index == stateIDs.length)
+                stateIDs = Arrays.copyOf(stateIDs, index * 2);
+            stateIDs[index] = id;
+            this.marked.set(index, marked);
+            configs.add(config);
+            return index;
+        }
+
+        /**
+         * Adds a transition.
+         *
+         * @param source the index of the source state
+         * @param event  the index of the event
+         * @param target the index of the target state
+         * @param isBad  whether the transition is bad
+         */
+        void addTransition(int source, int event, int target, boolean isBad) {
+            if (nTransitions == sources.length) {
+                sources = Arrays.copyOf(sources, nTransitions * 2);
+                eventIDs = Arrays.copyOf(eventIDs, nTransitions * 2);
+                targets = Arrays.copyOf(targets, nTransitions * 2);
+            }
+            sources[nTransitions] = source;
+            eventIDs[nTransitions] = event;
+            targets[nTransitions] = target;
+            bad.set(nTransitions, isBad);
+            nTransitions++;
+        }
+
+        /**
+         * Builds the compact automaton.
+         *
+         * @return the compact automaton
+         */
+        CompactAutomaton build() {
+            return new CompactAutomaton(this);
+        }
+    }
+}
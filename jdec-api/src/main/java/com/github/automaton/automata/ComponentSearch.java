@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.github.automaton.automata.incremental.*;
+
+/**
+ * Searches the system components for one that rejects a counterexample, during
+ * incremental observability testing.
+ * <p>
+ * Candidates are given in the order of a component heuristic, and the first
+ * candidate in that order that rejects the counterexample is the one that is
+ * found, regardless of the mode. In parallel mode, worker threads claim
+ * candidates in order of priority and check them concurrently. Once a
+ * rejecting candidate is found, candidates of lower priority are no longer
+ * claimed, and the search ends as soon as every candidate of higher priority
+ * has been checked.
+ * <p>
+ * A search is not thread-safe. Searches that use their own pool of worker
+ * threads must be {@linkplain #close() closed} after use.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#testIncrementalObservability(Set, Set,
+ *      CounterexampleHeuristics, FilteredComponentIterableGenerator,
+ *      CompositionOptions)
+ * @since 2.2.0
+ */
+final class ComponentSearch implements AutoCloseable {
+
+    /** The pool to check candidates in, or {@code null} to check them sequentially */
+    private final ForkJoinPool pool;
+    /** Whether the pool was created by this search */
+    private final boolean ownsPool;
+    /** Number of candidates that have been checked */
+    private final AtomicInteger nChecks;
+
+    /**
+     * Constructs a new component search.
+     *
+     * @param options whether candidates are checked in parallel, and by how many
+     *                threads
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    ComponentSearch(CompositionOptions options) {
+        if (!options.isParallel()) {
+            this.pool = null;
+            this.ownsPool = false;
+        } else if (options.getParallelism() == 0) {
+            this.pool = ForkJoinPool.commonPool();
+            this.ownsPool = false;
+        } else {
+            this.pool = new ForkJoinPool(options.getParallelism());
+            this.ownsPool = true;
+        }
+        this.nChecks = new AtomicInteger();
+    }
+
+    /**
+     * Finds the first candidate that rejects the specified counterexample.
+     *
+     * @param candidates     the candidates, in order of priority
+     * @param counterexample a counterexample
+     * @param plants         the set of plants; candidates that are not plants are
+     *                       specifications
+     * @param nControllers   the number of controllers in the system
+     * @return the first candidate that rejects the counterexample, or
+     *         {@code null} if there is none
+     *
+     * @throws CancellationException if the current thread is interrupted while
+     *                               waiting for the candidates to be checked
+     */
+    Automaton findRejectingComponent(Iterable<Automaton> candidates, Counterexample counterexample,
+            Set<Automaton> plants, int nControllers) {
+
+        if (pool == null) {
+            for (Automaton candidate : candidates) {
+                nChecks.incrementAndGet();
+                if (rejects(candidate, counterexample, plants, nControllers))
+                    return candidate;
+            }
+            return null;
+        }
+
+        List<Automaton> ordered = new ArrayList<>();
+        candidates.forEach(ordered::add);
+        if (ordered.isEmpty())
+            return null;
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger first = new AtomicInteger(ordered.size());
+        Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < first.get()) {
+                nChecks.incrementAndGet();
+                if (rejects(ordered.get(i), counterexample, plants, nControllers))
+                    first.accumulateAndGet(i, Math::min);
+            }
+        };
+
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int t = Math.min(pool.getParallelism(), ordered.size()); t > 0; t--)
+                tasks.add(pool.submit(worker));
+            for (Future<?> task : tasks)
+                task.get();
+        } catch (InterruptedException e) {
+            first.set(-1);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Component search was interrupted");
+        } catch (ExecutionException e) {
+            first.set(-1);
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new CompletionException(e.getCause());
+        }
+
+        return first.get() < ordered.size() ? ordered.get(first.get()) : null;
+
+    }
+
+    /**
+     * Checks whether a component rejects a counterexample.
+     *
+     * @param component      a component
+     * @param counterexample a counterexample
+     * @param plants         the set of plants
+     * @param nControllers   the number of controllers in the system
+     * @return {@code true} if the component rejects the counterexample
+     */
+    private static boolean rejects(Automaton component, Counterexample counterexample, Set<Automaton> plants,
+            int nControllers) {
+        List<Word> words = counterexample.getWords();
+        String event = counterexample.getEvent().getLabel();
+        if (plants.contains(component)) {
+            if (!component.recognizesWord(words.get(0).append(event)))
+                return true;
+        } else if (!component.recognizesWord(words.get(0))) {
+            return true;
+        }
+        for (int i = 1; i <= nControllers; i++) {
+            if (counterexample.getEvent().isControllable(i - 1)
+                    && !component.recognizesWord(i, words.get(i).append(event)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of candidates that have been checked by this search.
+     *
+     * @return the number of candidates that have been checked
+     */
+    int getNumberOfChecks() {
+        return nChecks.get();
+    }
+
+    /**
+     * Shuts down the pool of worker threads, if it was created by this search.
+     */
+    @Override
+    public void close() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+}
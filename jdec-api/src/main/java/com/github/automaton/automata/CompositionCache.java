@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * Builds monolithic systems out of system components, reusing the products
+ * that have already been built.
+ * <p>
+ * The product of a set of components is built by intersecting the components
+ * one at a time, in the order that the set returns them. Each intermediate
+ * product is cached, keyed by the identities of the components that it
+ * consists of, so that when a component is added to a set whose product has
+ * already been built, only the new component is intersected with the cached
+ * product. The twin plants of composite specifications are cached in the same
+ * way.
+ * <p>
+ * Components are identified by reference, so they must not be modified while
+ * this cache is in use. Cached automata are shared, and must not be modified
+ * either. A cache is not thread-safe.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#buildMonolithicSystem(Set, Set)
+ * @see AutomataOperations#testIncrementalObservability(Set, Set,
+ *      com.github.automaton.automata.incremental.CounterexampleHeuristics,
+ *      com.github.automaton.automata.incremental.FilteredComponentIterableGenerator)
+ * @since 2.2.0
+ */
+final class CompositionCache {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Products of sequences of components */
+    private final Map<Components, Automaton> products;
+    /** Twin plants of the products of sequences of specifications */
+    private final Map<Components, Automaton> twinPlants;
+    /** Number of products and twin plants that were found in this cache */
+    private int nHits;
+    /** Number of products and twin plants that had to be built */
+    private int nMisses;
+
+    /**
+     * Constructs a new, empty cache.
+     */
+    CompositionCache() {
+        this.products = new HashMap<>();
+        this.twinPlants = new HashMap<>();
+    }
+
+    /**
+     * Builds the monolithic system with the specified system components.
+     *
+     * @param plants set of plant components
+     * @param specs  set of specification components
+     * @return the monolithic system
+     *
+     * @throws IllegalArgumentException if {@code specs} is empty
+     * @throws NullPointerException     if any argument is {@code null}
+     *
+     * @see AutomataOperations#buildMonolithicSystem(Set, Set)
+     */
+    Automaton buildMonolithicSystem(Set<Automaton> plants, Set<Automaton> specs) {
+
+        Components specComponents = new Components(specs);
+        Automaton compositeSpecTwinPlant = twinPlants.get(specComponents);
+        if (compositeSpecTwinPlant != null) {
+            nHits++;
+        } else {
+            nMisses++;
+            compositeSpecTwinPlant = compose(specComponents).generateTwinPlant();
+            twinPlants.put(specComponents, compositeSpecTwinPlant);
+        }
+
+        if (plants.isEmpty())
+            return compositeSpecTwinPlant;
+
+        Automaton combinedSys = AutomataOperations.union(compositeSpecTwinPlant, compose(new Components(plants)));
+        combinedSys.renumberStates();
+        AutomataOperations.relabelStates(combinedSys);
+        return combinedSys;
+
+    }
+
+    /**
+     * Returns the product of the specified components, extending the longest
+     * prefix of the components whose product has been cached.
+     *
+     * @param components a non-empty sequence of components
+     * @return the product of the components
+     *
+     * @throws IllegalArgumentException if there are no components
+     */
+    private Automaton compose(Components components) {
+
+        Automaton[] array = components.array();
+        if (array.length == 0)
+            throw new IllegalArgumentException("No components to compose");
+        else if (array.length == 1)
+            return array[0];
+
+        Automaton product = products.get(components);
+        if (product != null) {
+            nHits++;
+            return product;
+        }
+        nMisses++;
+
+        // Find the longest prefix whose product has been cached
+        int length = array.length - 1;
+        product = null;
+        while (length > 1 && (product = products.get(new Components(Arrays.copyOf(array, length)))) == null)
+            length--;
+        if (product == null)
+            product = array[0];
+
+        // Add the remaining components one at a time
+        for (; length < array.length; length++) {
+            product = AutomataOperations.intersection(product, array[length]);
+            products.put(new Components(Arrays.copyOf(array, length + 1)), product);
+        }
+
+        return product;
+
+    }
+
+    /**
+     * Returns the number of products and twin plants that were found in this
+     * cache since the statistics were last reset.
+     *
+     * @return the number of cache hits
+     */
+    int getHits() {
+        return nHits;
+    }
+
+    /**
+     * Returns the number of products and twin plants that had to be built since
+     * the statistics were last reset.
+     *
+     * @return the number of cache misses
+     */
+    int getMisses() {
+        return nMisses;
+    }
+
+    /**
+     * Logs the number of cache hits and misses, then resets them.
+     *
+     * @param description what the statistics are about
+     */
+    void logAndResetStatistics(String description) {
+        logger.debug(description + ": " + nHits + " composition cache hits, " + nMisses + " misses ("
+                + products.size() + " products cached)");
+        nHits = 0;
+        nMisses = 0;
+    }
+
+    /**
+     * A sequence of components, identified by reference.
+     *
+     * @param array the components
+     */
+    private static record Components(Automaton[] array) {
+
+        /**
+         * Constructs a sequence of the components in the specified set, in the order
+         * that the set returns them.
+         *
+         * @param components a set of components
+         */
+        Components(Set<Automaton> components) {
+            this(components.toArray(new Automaton[0]));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Components other) || array.length != other.array.length)
+                return false;
+            for (int i = 0; i < array.length; i++)
+                if (array[i] != other.array[i])
+                    return false;
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (Automaton component : array)
+                hash = 31 * hash + System.identityHashCode(component);
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Components[" + array.length + "]";
+        }
+    }
+}
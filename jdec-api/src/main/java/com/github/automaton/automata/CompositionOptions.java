@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options for building U-Structures by
+ * {@link AutomataOperations#synchronizedComposition(Automaton, CompositionOptions)
+ * synchronized composition}.
+ * <p>
+ * In parallel mode, the U-Structure is explored level by level: the
+ * successors of all states in the current level are computed concurrently,
+ * and are then added to the U-Structure in a deterministic order. The
+ * resulting U-Structure is isomorphic to the one built sequentially, but its
+ * states may be numbered differently.
+ * <p>
+ * These options also control whether
+ * {@linkplain UStructureOperations#subsetConstructions(UStructure, CompositionOptions, int...)
+ * subset constructions for multiple controllers} are built concurrently, and
+ * whether candidate components are checked concurrently during
+ * {@linkplain AutomataOperations#testIncrementalObservability(java.util.Set, java.util.Set, com.github.automaton.automata.incremental.CounterexampleHeuristics, com.github.automaton.automata.incremental.FilteredComponentIterableGenerator, CompositionOptions)
+ * incremental observability testing}.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @since 2.2.0
+ */
+public final class CompositionOptions {
+
+    /** Options for building U-Structures sequentially. */
+    private static final CompositionOptions SEQUENTIAL = new CompositionOptions(false, 0);
+
+    /** Whether the U-Structure is explored in parallel */
+    private final boolean parallel;
+    /** Number of worker threads, or {@code 0} to use the common pool */
+    private final int parallelism;
+
+    /**
+     * Private constructor.
+     *
+     * @param parallel    whether the U-Structure is explored in parallel
+     * @param parallelism number of worker threads, or {@code 0} to use the
+     *                    common pool
+     */
+    private CompositionOptions(boolean parallel, int parallelism) {
+        this.parallel = parallel;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the options for building U-Structures sequentially.
+     *
+     * @return the options for sequential composition
+     */
+    public static CompositionOptions sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the options for building U-Structures in parallel using the
+     * {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @return the options for parallel composition
+     */
+    public static CompositionOptions parallel() {
+        return new CompositionOptions(true, 0);
+    }
+
+    /**
+     * Returns the options for building U-Structures in parallel using the
+     * specified number of worker threads.
+     *
+     * @param parallelism the number of worker threads
+     * @return the options for parallel composition
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public static CompositionOptions parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        return new CompositionOptions(true, parallelism);
+    }
+
+    /**
+     * Checks whether U-Structures are explored in parallel.
+     *
+     * @return {@code true} if U-Structures are explored in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Returns the number of worker threads used in parallel mode.
+     *
+     * @return the number of worker threads, or {@code 0} if the common pool is
+     *         used
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public String toString() {
+        if (!parallel)
+            return "CompositionOptions[sequential]";
+        return "CompositionOptions[parallel, parallelism=" + (parallelism > 0 ? parallelism : "common") + "]";
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+import org.apache.commons.collections4.list.SetUniqueList;
+
+import com.github.automaton.automata.incremental.*;
+
+/**
+ * Extracts counterexamples to observability from a U-Structure.
+ * <p>
+ * A single breadth-first search from the initial state of the U-Structure
+ * records, for every reachable state, the transition through which the state
+ * was first reached. Each counterexample is then built by walking these
+ * transitions backwards from an illegal configuration to the initial state,
+ * which yields a shortest path to every illegal configuration without trimming
+ * the U-Structure once per illegal configuration.
+ * <p>
+ * The U-Structure must not be modified while an extractor is in use.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#testIncrementalObservability(Set, Set,
+ *      CounterexampleHeuristics, FilteredComponentIterableGenerator)
+ * @since 2.2.0
+ */
+final class CounterexampleExtractor {
+
+    /** The U-Structure to extract counterexamples from */
+    private final UStructure uStructure;
+    /**
+     * Source state ID of the transition through which each state was first
+     * reached, by state ID. This is {@code 0} for the initial state and for
+     * unreachable states.
+     */
+    private final long[] parents;
+    /** Event ID of the transition through which each state was first reached */
+    private final int[] parentEvents;
+    /** Whether each state is reachable from the initial state */
+    private final boolean[] reached;
+
+    /**
+     * Constructs a new extractor, by searching the specified U-Structure.
+     *
+     * @param uStructure a U-Structure, whose states are numbered consecutively
+     *                   from {@code 1}
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    CounterexampleExtractor(UStructure uStructure) {
+        this.uStructure = Objects.requireNonNull(uStructure);
+        int nStates = uStructure.getNumberOfStates();
+        this.parents = new long[nStates + 1];
+        this.parentEvents = new int[nStates + 1];
+        this.reached = new boolean[nStates + 1];
+
+        if (uStructure.getState(uStructure.getInitialStateID()) == null)
+            return;
+
+        int[] queue = new int[nStates];
+        int head = 0, tail = 0;
+        queue[tail++] = (int) uStructure.getInitialStateID();
+        reached[queue[0]] = true;
+        while (head < tail) {
+            int source = queue[head++];
+            for (Transition t : uStructure.getState(source).getTransitions()) {
+                int target = (int) t.getTargetStateID();
+                if (!reached[target]) {
+                    reached[target] = true;
+                    parents[target] = source;
+                    parentEvents[target] = t.getEvent().getID();
+                    queue[tail++] = target;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a counterexample for every illegal configuration of every
+     * controllable event in the specified system that is not also an enablement
+     * state, and sorts them with the specified heuristic.
+     *
+     * @param system    the system that the U-Structure was built from
+     * @param heuristic the heuristic to sort the counterexamples with
+     * @return the distinct counterexamples, in the order of the heuristic
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    List<Counterexample> extractAll(Automaton system, CounterexampleHeuristics heuristic) {
+        Objects.requireNonNull(heuristic);
+        List<Counterexample> counterexamples = SetUniqueList.setUniqueList(new ArrayList<>());
+        for (Event controllableEvent : system.getControllableEvents()) {
+            Set<State> enablementStates = uStructure.getEnablementStates(controllableEvent.getLabel());
+            for (State illegalConfig : uStructure.getIllegalConfigStates(controllableEvent.getLabel())) {
+                if (!enablementStates.contains(illegalConfig) && reached[(int) illegalConfig.getID()])
+                    counterexamples.add(extract(controllableEvent, illegalConfig.getID()));
+            }
+        }
+        List<Counterexample> sorted = new ArrayList<>(counterexamples);
+        sorted.sort(heuristic);
+        return sorted;
+    }
+
+    /**
+     * Builds the counterexample that corresponds to a shortest path from the
+     * initial state to the specified state.
+     *
+     * @param event   the event that the counterexample is for
+     * @param stateID the ID of a reachable state
+     * @return a counterexample
+     */
+    Counterexample extract(Event event, long stateID) {
+
+        Deque<Integer> eventIDs = new ArrayDeque<>();
+        for (int s = (int) stateID; parents[s] != 0; s = (int) parents[s])
+            eventIDs.push(parentEvents[s]);
+
+        List<List<String>> labels = new ArrayList<>();
+        for (int i = 0; i <= uStructure.nControllers; i++)
+            labels.add(new ArrayList<>(eventIDs.size()));
+        for (int eventID : eventIDs) {
+            LabelVector lv = uStructure.getEvent(eventID).getVector();
+            for (int i = 0; i <= uStructure.nControllers; i++)
+                labels.get(i).add(lv.getLabelAtIndex(i));
+        }
+
+        List<Word> words = new ArrayList<>();
+        for (List<String> list : labels)
+            words.add(new Word(list));
+        return new Counterexample(event, words);
+
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+/**
+ * The observer of an automaton with respect to a single controller, which is
+ * built as words are queried.
+ * <p>
+ * Each state of the observer is a set of states of the automaton that the
+ * controller cannot tell apart, closed under the transitions that the
+ * controller cannot observe. Bad transitions are ignored. The successors of
+ * an observer state are computed the first time they are needed, and are
+ * stored in a table indexed by event ID, so that a word that only visits
+ * known observer states is checked with one table lookup per event.
+ * <p>
+ * An observer is a snapshot of its automaton; it must be discarded when the
+ * automaton is modified. An observer is thread-safe.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see Automaton#recognizesWord(int, Word)
+ * @since 2.2.0
+ */
+final class LazyObserver {
+
+    /** Successor that has not been computed yet */
+    private static final int UNKNOWN = -2;
+    /** Successor of an event that cannot occur in an observer state */
+    private static final int DEAD = -1;
+
+    /** The automaton being observed */
+    private final Automaton automaton;
+    /** The index of the controller, starting at {@code 0} */
+    private final int controllerIndex;
+    /** Sets of states of the automaton, by observer state */
+    private final List<long[]> stateSets;
+    /** Observer states, by their sets of states */
+    private final Map<StateSetKey, Integer> stateIndices;
+    /** Successor of each observer state, by event ID */
+    private final List<int[]> successors;
+
+    /**
+     * A set of state IDs, sorted in ascending order.
+     *
+     * @param ids the state IDs
+     */
+    private static record StateSetKey(long[] ids) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StateSetKey other && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ids);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(ids);
+        }
+    }
+
+    /**
+     * Constructs the observer of the specified automaton.
+     *
+     * @param automaton  an automaton with an initial state
+     * @param controller the controller, starting at {@code 1}
+     */
+    LazyObserver(Automaton automaton, int controller) {
+        this.automaton = automaton;
+        this.controllerIndex = controller - 1;
+        this.stateSets = new ArrayList<>();
+        this.stateIndices = new HashMap<>();
+        this.successors = new ArrayList<>();
+        indexOf(closure(List.of(automaton.getState(automaton.getInitialStateID()))));
+    }
+
+    /**
+     * Checks whether the controller can observe the specified word, that is,
+     * whether the word is the projection of a path from the initial state.
+     *
+     * @param word a word
+     * @return {@code true} if the controller can observe the word
+     */
+    synchronized boolean accepts(Word word) {
+        int current = 0;
+        for (int i = 0; i < word.length(); i++) {
+            Event event = automaton.getEvent(word.getEventAt(i));
+            if (event == null || !event.isObservable(controllerIndex))
+                return false;
+            int[] next = successors.get(current);
+            if (next[event.getID()] == UNKNOWN)
+                next[event.getID()] = computeSuccessor(current, event);
+            current = next[event.getID()];
+            if (current == DEAD)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes the successor of an observer state.
+     *
+     * @param current the observer state
+     * @param event   an event that the controller can observe
+     * @return the successor, or {@link #DEAD} if no state in the observer state
+     *         has a transition with the event
+     */
+    private int computeSuccessor(int current, Event event) {
+        List<State> targets = new ArrayList<>();
+        for (long id : stateSets.get(current)) {
+            State s = automaton.getState(id);
+            for (Transition t : s.getTransitions()) {
+                State target = automaton.getState(t.getTargetStateID());
+                if (t.getEvent().getID() == event.getID() && !automaton.isBadTransition(s, t.getEvent(), target))
+                    targets.add(target);
+            }
+        }
+        return targets.isEmpty() ? DEAD : indexOf(closure(targets));
+    }
+
+    /**
+     * Computes the set of states that can be reached from the specified states
+     * through transitions that the controller cannot observe.
+     *
+     * @param states states of the automaton
+     * @return the IDs of the reachable states, sorted in ascending order
+     */
+    private long[] closure(List<State> states) {
+        Set<Long> visited = new HashSet<>();
+        Deque<State> stack = new ArrayDeque<>();
+        for (State s : states) {
+            if (visited.add(s.getID()))
+                stack.push(s);
+        }
+        while (!stack.isEmpty()) {
+            State s = stack.pop();
+            for (Transition t : s.getTransitions()) {
+                if (t.getEvent().isObservable(controllerIndex) || visited.contains(t.getTargetStateID()))
+                    continue;
+                State target = automaton.getState(t.getTargetStateID());
+                if (!automaton.isBadTransition(s, t.getEvent(), target)) {
+                    visited.add(target.getID());
+                    stack.push(target);
+                }
+            }
+        }
+        long[] ids = visited.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns the observer state with the specified set of states, adding it
+     * if it does not exist.
+     *
+     * @param ids the IDs of states of the automaton, sorted in ascending order
+     * @return the observer state
+     */
+    private int indexOf(long[] ids) {
+        return stateIndices.computeIfAbsent(new StateSetKey(ids), key -> {
+            stateSets.add(ids);
+            int[] next = new int[automaton.getNumberOfEvents() + 1];
+            Arrays.fill(next, UNKNOWN);
+            successors.add(next);
+            return stateSets.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the number of observer states that have been built so far.
+     *
+     * @return the number of observer states
+     */
+    synchronized int getNumberOfStates() {
+        return stateSets.size();
+    }
+}
@@ -0,0 +1,746 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.commons.collections4.*;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.*;
+
+/**
+ * The shared intermediate results of inference observability analysis for a
+ * single system.
+ * <p>
+ * Testing inference observability, calculating ambiguity levels and
+ * generating bipartite graphs all start from the same relabeled U-Structure,
+ * the same subset constructions (one for each controller) and the same
+ * partitions of the U-Structure into indistinguishable states. An
+ * {@code ObservabilityAnalysis} computes these once, when they are first
+ * needed, and answers all of those queries from them.
+ * <p>
+ * Analyses are obtained with {@link #of(Automaton)}, which caches recently
+ * used analyses by a SHA-256 digest of the contents of the system. An analysis
+ * is a snapshot: if the system is modified afterwards, its digest changes and
+ * a new analysis is built for it. Neither the system nor a copy of it is kept
+ * in the cache. Cached
+ * analyses are only softly reachable, so they never keep the memory of their
+ * U-Structures from being reclaimed, and the analysis of a system that is no
+ * longer needed can be discarded with {@link #evict(Automaton)}.
+ * <p>
+ * Analyses hand out their U-Structures and subset constructions without
+ * copying them, so this class is internal to the package. Callers outside
+ * the package go through {@link AutomataOperations}, which only returns
+ * results that the caller owns.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#testObservability(Automaton, boolean)
+ * @see AutomataOperations#generateLocalControlDecisions(Automaton, boolean)
+ * @see AutomataOperations#generateBipartiteGraph(Automaton)
+ * @since 2.2.0
+ */
+final class ObservabilityAnalysis {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Maximum number of analyses that are kept in {@link #cache} */
+    private static final int CACHE_CAPACITY = 8;
+
+    /** Recently used analyses, in access order */
+    private static final Map<Fingerprint, SoftReference<ObservabilityAnalysis>> cache = new LinkedHashMap<>(16,
+            0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Fingerprint, SoftReference<ObservabilityAnalysis>> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    /** Number of controllers in the system */
+    private final int nControllers;
+    /** Controllable events of the system */
+    private final List<Event> controllableEvents;
+    /** The U-Structure of the system, with configuration states relabeled */
+    private final UStructure uStructure;
+    /**
+     * Subset construction of {@link #uStructure} for each controller, or
+     * {@code null} if they have not been built yet
+     */
+    private SubsetConstruction[] subsetConstructions;
+    /** Sets of states that each controller cannot distinguish, by controller */
+    private List<List<List<State>>> indistinguishableStates;
+    /**
+     * For each controller, the indices of the sets in
+     * {@link #indistinguishableStates} that contain each state
+     */
+    private List<Map<State, int[]>> blockIndices;
+
+    /** Whether the system is inference observable and its inference level */
+    private Pair<Boolean, OptionalInt> observability;
+    /** Local control decisions, indexed by whether enablement is the default */
+    private final List<List<AmbiguityData>> controlDecisions;
+
+    /**
+     * Identifies the contents of a system.
+     *
+     * @param digest0      the first 64 bits of the digest of the system
+     * @param digest1      the next 64 bits of the digest of the system
+     * @param digest2      the next 64 bits of the digest of the system
+     * @param digest3      the last 64 bits of the digest of the system
+     * @param nControllers the number of controllers
+     * @param nStates      the number of states
+     * @param nEvents      the number of events
+     */
+    private static record Fingerprint(long digest0, long digest1, long digest2, long digest3, int nControllers,
+            long nStates, int nEvents) {
+    }
+
+    /**
+     * Constructs the analysis of the specified system. The subset
+     * constructions are built when they are first needed.
+     *
+     * @param automaton  a system
+     * @param uStructure the U-Structure of the system, with configuration
+     *                   states relabeled
+     */
+    private ObservabilityAnalysis(Automaton automaton, UStructure uStructure) {
+        nControllers = automaton.nControllers;
+        controllableEvents = findControllableEvents(automaton);
+        this.uStructure = uStructure;
+        controlDecisions = new ArrayList<>(Collections.nCopies(2, null));
+    }
+
+    /**
+     * Builds the subset constructions and the partitions into
+     * indistinguishable states, unless they have already been built. They are
+     * built sequentially, on the calling thread.
+     *
+     * @param explored subset constructions that have already been built, by
+     *                 controller, or {@code null}. Constructions that are
+     *                 {@code null} are built here.
+     */
+    private synchronized void buildSubsetConstructions(SubsetConstruction[] explored) {
+
+        if (subsetConstructions != null)
+            return;
+
+        StopWatch sw = StopWatch.createStarted();
+
+        SubsetConstruction[] constructions = explored != null ? explored : new SubsetConstruction[nControllers];
+        int[] missing = IntStream.rangeClosed(1, nControllers).filter(i -> constructions[i - 1] == null).toArray();
+        List<SubsetConstruction> built = UStructureOperations.subsetConstructions(uStructure,
+                CompositionOptions.sequential(), missing);
+        for (int j = 0; j < missing.length; j++)
+            constructions[missing[j] - 1] = built.get(j);
+
+        List<List<List<State>>> partitions = new ArrayList<>(nControllers);
+        List<Map<State, int[]>> indices = new ArrayList<>(nControllers);
+        for (int i = 0; i < nControllers; i++) {
+            List<List<State>> partition = new ArrayList<>();
+            for (State indistinguishable : constructions[i].states.values()) {
+                partition.add(uStructure.getStatesFromLabel(new LabelVector(indistinguishable.getLabel())));
+            }
+            partitions.add(Collections.unmodifiableList(partition));
+            indices.add(buildBlockIndex(partition));
+        }
+
+        indistinguishableStates = partitions;
+        blockIndices = indices;
+        subsetConstructions = constructions;
+
+        logger.debug("Built observability analysis in " + sw.getTime(TimeUnit.MILLISECONDS) + " ms ("
+                + (nControllers - missing.length) + " subset constructions reused)");
+    }
+
+    /**
+     * Maps each state to the indices of the sets of indistinguishable states
+     * that contain it.
+     *
+     * @param partition sets of indistinguishable states
+     * @return the indices of the sets that contain each state, in ascending
+     *         order
+     */
+    private static Map<State, int[]> buildBlockIndex(List<List<State>> partition) {
+        Map<State, List<Integer>> blocks = new HashMap<>();
+        for (int b = 0; b < partition.size(); b++) {
+            for (State s : partition.get(b)) {
+                if (s == null)
+                    continue;
+                List<Integer> blocksOfState = blocks.computeIfAbsent(s, k -> new ArrayList<>(1));
+                if (blocksOfState.isEmpty() || blocksOfState.get(blocksOfState.size() - 1) != b)
+                    blocksOfState.add(b);
+            }
+        }
+        Map<State, int[]> blockIndex = new HashMap<>(blocks.size() * 2);
+        for (Map.Entry<State, List<Integer>> entry : blocks.entrySet()) {
+            blockIndex.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return blockIndex;
+    }
+
+    /**
+     * Returns the analysis of the specified system, reusing a cached analysis
+     * if the system has not changed since it was last analyzed.
+     *
+     * @param automaton a system
+     * @return the analysis of the specified system
+     *
+     * @throws NoInitialStateException if the system has no initial state
+     * @throws NullPointerException    if argument is {@code null}
+     */
+    static ObservabilityAnalysis of(Automaton automaton) {
+        Objects.requireNonNull(automaton);
+        Fingerprint key = fingerprint(automaton);
+        ObservabilityAnalysis analysis = lookup(key);
+        if (analysis != null) {
+            logger.debug("Reusing cached observability analysis");
+            return analysis;
+        }
+        return store(key, new ObservabilityAnalysis(automaton, buildUStructure(automaton)));
+    }
+
+    /**
+     * Constructs the analysis of the specified system, without caching it.
+     *
+     * @param automaton a system
+     * @return a new analysis of the specified system
+     *
+     * @throws NoInitialStateException if the system has no initial state
+     * @throws NullPointerException    if argument is {@code null}
+     */
+    static ObservabilityAnalysis analyze(Automaton automaton) {
+        return new ObservabilityAnalysis(Objects.requireNonNull(automaton), buildUStructure(automaton));
+    }
+
+    /**
+     * Returns the cached analysis of the system with the specified fingerprint.
+     *
+     * @param key the fingerprint of a system
+     * @return the cached analysis, or {@code null} if the system has not been
+     *         analyzed or its analysis has been discarded
+     */
+    private static ObservabilityAnalysis lookup(Fingerprint key) {
+        synchronized (cache) {
+            SoftReference<ObservabilityAnalysis> ref = cache.get(key);
+            ObservabilityAnalysis cached = ref != null ? ref.get() : null;
+            if (cached == null)
+                cache.remove(key);
+            return cached;
+        }
+    }
+
+    /**
+     * Caches the analysis of the system with the specified fingerprint, unless
+     * another thread has cached one in the meantime.
+     *
+     * @param key      the fingerprint of a system
+     * @param analysis the analysis of the system
+     * @return the analysis that is cached for the system
+     */
+    private static ObservabilityAnalysis store(Fingerprint key, ObservabilityAnalysis analysis) {
+        synchronized (cache) {
+            ObservabilityAnalysis existing = lookup(key);
+            if (existing != null)
+                return existing;
+            cache.put(key, new SoftReference<>(analysis));
+            return analysis;
+        }
+    }
+
+    /**
+     * Tests whether the specified system is inference observable, without
+     * calculating the level of inferencing required.
+     * <p>
+     * Unless the subset constructions of the system have already been built,
+     * they are first built on the fly, looking for a pair of an enablement
+     * state and a disablement state of some event that every controller of
+     * that event confuses. Neither state of such a pair can ever be
+     * distinguished by inferencing, so the system is reported to be not
+     * inference observable as soon as one is found. Otherwise, the analysis
+     * goes on from the subset constructions that have been built. Either way,
+     * the verdict is cached along with the {@linkplain #of(Automaton) analysis}
+     * of the system.
+     *
+     * @param automaton a system
+     * @return whether the system is inference observable
+     *
+     * @throws NoInitialStateException if the system has no initial state
+     * @throws NullPointerException    if argument is {@code null}
+     *
+     * @see #testObservability(boolean)
+     */
+    static boolean testObservability(Automaton automaton) {
+        Objects.requireNonNull(automaton);
+        Fingerprint key = fingerprint(automaton);
+        ObservabilityAnalysis analysis = lookup(key);
+        if (analysis == null)
+            analysis = store(key, new ObservabilityAnalysis(automaton, buildUStructure(automaton)));
+        else
+            logger.debug("Reusing cached observability analysis");
+        return analysis.isObservable();
+    }
+
+    /**
+     * Tests whether the system is inference observable, stopping as soon as
+     * states that no controller can distinguish are found if the subset
+     * constructions have not been built yet.
+     *
+     * @return whether the system is inference observable
+     *
+     * @see #testObservability(Automaton)
+     */
+    synchronized boolean isObservable() {
+        if (observability == null && subsetConstructions == null) {
+            SubsetConstruction[] explored = exploreSubsetConstructions();
+            if (explored == null) {
+                logger.debug("Found states that no controller can distinguish");
+                observability = Pair.of(false, OptionalInt.empty());
+            } else {
+                buildSubsetConstructions(explored);
+            }
+        }
+        return testObservability(false).getLeft();
+    }
+
+    /**
+     * Takes the U-Structure of the specified system, then relabels states as
+     * needed.
+     *
+     * @param automaton a system
+     * @return the U-Structure of the system, with configuration states
+     *         relabeled
+     *
+     * @throws NoInitialStateException if the system has no initial state
+     */
+    private static UStructure buildUStructure(Automaton automaton) {
+        return UStructureOperations.relabelConfigurationStates(AutomataOperations.synchronizedComposition(automaton));
+    }
+
+    /**
+     * Finds the events of the specified system that at least one controller can
+     * control.
+     *
+     * @param automaton a system
+     * @return the controllable events of the system
+     */
+    private static List<Event> findControllableEvents(Automaton automaton) {
+        List<Event> controllableEvents = new ArrayList<>();
+        for (Event e : automaton.events) {
+            if (BooleanUtils.or(e.isControllable()))
+                controllableEvents.add(e);
+        }
+        return controllableEvents;
+    }
+
+    /**
+     * Builds the subset constructions on the fly, looking for an enablement
+     * state and a disablement state of some controllable event that are
+     * indistinguishable to every controller of that event. Such a pair is
+     * adjacent in the bipartite graph of the event for every controller, so
+     * neither of them can ever be removed from the graph.
+     * <p>
+     * The subset constructions are built one controller at a time. The pairs
+     * that the controllers built so far confuse are kept as candidates, and
+     * the search stops as soon as the last controller of an event confuses a
+     * candidate pair. Controllers that have no events left to check are
+     * skipped.
+     *
+     * @return the subset constructions that have been built, by controller,
+     *         or {@code null} if such a pair was found, in which case the
+     *         system is not inference observable
+     */
+    private SubsetConstruction[] exploreSubsetConstructions() {
+
+        int nEvents = controllableEvents.size();
+        List<Set<State>> enablementStates = new ArrayList<>(nEvents);
+        List<Set<State>> disablementStates = new ArrayList<>(nEvents);
+        int[] lastController = new int[nEvents];
+        /* Candidate pairs of each event, or null if every pair is a candidate */
+        List<Set<Pair<State, State>>> candidates = new ArrayList<>(Collections.nCopies(nEvents, null));
+        boolean[] resolved = new boolean[nEvents];
+
+        for (int k = 0; k < nEvents; k++) {
+            Event e = controllableEvents.get(k);
+            enablementStates.add(uStructure.getEnablementStates(e.getLabel()));
+            disablementStates.add(uStructure.getDisablementStates(e.getLabel()));
+            for (int i = 1; i <= nControllers; i++) {
+                if (e.isControllable(i - 1))
+                    lastController[k] = i;
+            }
+            resolved[k] = enablementStates.get(k).isEmpty() || disablementStates.get(k).isEmpty();
+        }
+
+        SubsetConstruction[] constructions = new SubsetConstruction[nControllers];
+
+        for (int i = 1; i <= nControllers; i++) {
+
+            List<Integer> events = new ArrayList<>();
+            List<Set<Pair<State, State>>> confused = new ArrayList<>(Collections.nCopies(nEvents, null));
+            for (int k = 0; k < nEvents; k++) {
+                if (resolved[k] || !controllableEvents.get(k).isControllable(i - 1))
+                    continue;
+                events.add(k);
+                if (lastController[k] != i)
+                    confused.set(k, new HashSet<>());
+            }
+            if (events.isEmpty())
+                continue;
+
+            constructions[i - 1] = new SubsetConstruction(uStructure, i, null,
+                    block -> !confusesCandidate(block.getSet(), events, enablementStates, disablementStates,
+                            candidates, confused));
+            if (!constructions[i - 1].isComplete())
+                return null;
+
+            for (int k : events) {
+                candidates.set(k, confused.get(k));
+                resolved[k] = confused.get(k) == null || confused.get(k).isEmpty();
+            }
+        }
+
+        return constructions;
+    }
+
+    /**
+     * Records the pairs of enablement and disablement states of each event
+     * that the specified set of indistinguishable states contains.
+     *
+     * @param block             a set of states that a controller cannot
+     *                          distinguish
+     * @param events            the indices of the events to check
+     * @param enablementStates  the enablement states of each event
+     * @param disablementStates the disablement states of each event
+     * @param candidates        the candidate pairs of each event, or
+     *                          {@code null} if every pair is a candidate
+     * @param confused          the candidate pairs of each event that the
+     *                          controller confuses, or {@code null} if the
+     *                          controller is the last controller of the event
+     * @return {@code true} if the controller is the last controller of an
+     *         event and confuses a candidate pair of that event
+     */
+    private static boolean confusesCandidate(Set<State> block, List<Integer> events,
+            List<Set<State>> enablementStates, List<Set<State>> disablementStates,
+            List<Set<Pair<State, State>>> candidates, List<Set<Pair<State, State>>> confused) {
+        for (int k : events) {
+            List<State> enablement = new ArrayList<>();
+            List<State> disablement = new ArrayList<>();
+            for (State s : block) {
+                if (enablementStates.get(k).contains(s))
+                    enablement.add(s);
+                if (disablementStates.get(k).contains(s))
+                    disablement.add(s);
+            }
+            Set<Pair<State, State>> candidatesOfEvent = candidates.get(k);
+            Set<Pair<State, State>> confusedOfEvent = confused.get(k);
+            for (State v : enablement) {
+                for (State w : disablement) {
+                    Pair<State, State> pair = Pair.of(v, w);
+                    if (candidatesOfEvent != null && !candidatesOfEvent.contains(pair))
+                        continue;
+                    // The last controller of the event also confuses the pair
+                    if (confusedOfEvent == null)
+                        return true;
+                    confusedOfEvent.add(pair);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Discards the cached analysis of the specified system, if there is one.
+     *
+     * @param automaton a system
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    static void evict(Automaton automaton) {
+        Fingerprint key = fingerprint(Objects.requireNonNull(automaton));
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Discards all cached analyses.
+     */
+    static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the contents of the specified system. The
+     * fingerprint covers everything that the U-Structure is built from, and is
+     * computed without copying the system.
+     *
+     * @param automaton a system
+     * @return the fingerprint of the system
+     */
+    private static Fingerprint fingerprint(Automaton automaton) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            out.writeLong(automaton.initialState);
+            out.writeInt(automaton.events.size());
+            for (Event e : automaton.events) {
+                out.writeInt(e.getID());
+                writeString(out, e.getLabel());
+                writeBooleans(out, e.isObservable());
+                writeBooleans(out, e.isControllable());
+            }
+            out.writeInt(automaton.states.size());
+            for (State s : automaton.states.values()) {
+                out.writeLong(s.getID());
+                writeString(out, s.getLabel());
+                out.writeBoolean(s.isMarked());
+                for (Event e : automaton.events)
+                    out.writeByte(configurationOf(s, e));
+                out.writeInt(s.getNumberOfTransitions());
+                for (Transition t : s.getTransitions()) {
+                    writeString(out, t.getEvent().getLabel());
+                    out.writeLong(t.getTargetStateID());
+                }
+            }
+            out.writeInt(automaton.getBadTransitions().size());
+            for (TransitionData data : automaton.getBadTransitions()) {
+                out.writeLong(data.initialStateID);
+                out.writeInt(data.eventID);
+                out.writeLong(data.targetStateID);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new Fingerprint(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong(), automaton.nControllers,
+                automaton.states.size(), automaton.events.size());
+    }
+
+    /**
+     * Writes a string, preceded by its length, or {@code -1} if it is
+     * {@code null}.
+     *
+     * @param out    the stream to write to
+     * @param string a string, or {@code null}
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(string.length());
+            out.writeChars(string);
+        }
+    }
+
+    /**
+     * Writes an array of booleans, preceded by its length.
+     *
+     * @param out    the stream to write to
+     * @param values an array of booleans
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeBooleans(DataOutputStream out, boolean[] values) throws IOException {
+        out.writeInt(values.length);
+        for (boolean value : values)
+            out.writeBoolean(value);
+    }
+
+    /**
+     * Encodes whether the specified state is an enablement state, a
+     * disablement state or an illegal configuration of the specified event.
+     *
+     * @param s a state
+     * @param e an event
+     * @return the configurations of the state, as a bit mask
+     */
+    private static int configurationOf(State s, Event e) {
+        return (s.isEnablementStateOf(e.getLabel()) ? 1 : 0)
+                | (s.isDisablementStateOf(e.getLabel()) ? 2 : 0)
+                | (s.isIllegalConfigurationOf(e.getLabel()) ? 4 : 0);
+    }
+
+    /**
+     * Returns the U-Structure of the system, with configuration states
+     * relabeled. The returned U-Structure is shared and must not be modified.
+     *
+     * @return the U-Structure of the system
+     */
+    UStructure getUStructure() {
+        return uStructure;
+    }
+
+    /**
+     * Returns the subset construction of the U-Structure with respect to the
+     * specified controller. The returned subset construction is shared and must
+     * not be modified.
+     *
+     * @param controller the index of a controller (1-based)
+     * @return the subset construction with respect to the specified controller
+     *
+     * @throws IndexOutOfBoundsException if {@code controller} is out of bounds
+     */
+    SubsetConstruction getSubsetConstruction(int controller) {
+        buildSubsetConstructions(null);
+        return subsetConstructions[Objects.checkIndex(controller - 1, nControllers)];
+    }
+
+    /**
+     * Returns the sets of states of the U-Structure that the specified
+     * controller cannot distinguish.
+     *
+     * @param controller the index of a controller (1-based)
+     * @return an unmodifiable list of sets of indistinguishable states
+     *
+     * @throws IndexOutOfBoundsException if {@code controller} is out of bounds
+     */
+    List<List<State>> getIndistinguishableStates(int controller) {
+        buildSubsetConstructions(null);
+        return indistinguishableStates.get(Objects.checkIndex(controller - 1, nControllers));
+    }
+
+    /**
+     * Tests whether the system is inference observable.
+     *
+     * @param showInferenceLevel whether the level of inferencing required should
+     *                           be returned
+     * @return whether the system is inference observable and the level of
+     *         inferencing required
+     */
+    synchronized Pair<Boolean, OptionalInt> testObservability(boolean showInferenceLevel) {
+        if (observability == null)
+            observability = computeObservability();
+        if (showInferenceLevel || !observability.getRight().isPresent())
+            return observability;
+        return Pair.of(observability.getLeft(), OptionalInt.empty());
+    }
+
+    /**
+     * Calculates the local control decisions for the system. The returned
+     * decisions refer to copies of the states of the U-Structure, and may be
+     * modified by the caller.
+     *
+     * @param enablement whether to use "enable by default (EBD)" framework for
+     *                   generating local control decisions
+     * @return the local control decisions
+     *
+     * @throws IllegalArgumentException if the system is not inference observable
+     */
+    synchronized List<AmbiguityData> generateLocalControlDecisions(boolean enablement) {
+        int index = enablement ? 1 : 0;
+        if (controlDecisions.get(index) == null)
+            controlDecisions.set(index, computeLocalControlDecisions(enablement));
+        Map<State, State> copies = new IdentityHashMap<>();
+        List<AmbiguityData> decisions = new ArrayList<>(controlDecisions.get(index).size());
+        for (AmbiguityData data : controlDecisions.get(index)) {
+            decisions.add(new AmbiguityData(copies.computeIfAbsent(data.state(), State::clone), data.event(),
+                    data.controller(), data.isEnablement(), data.ambLevel()));
+        }
+        return decisions;
+    }
+
+    /**
+     * Generates the bipartite graph of each controllable event of the system.
+     * The returned graphs are newly built from copies of the states of the
+     * U-Structure, and may be modified by the caller.
+     *
+     * @return the bipartite graphs, keyed by event
+     */
+    Map<Event, ListValuedMap<State, Set<State>>> generateBipartiteGraph() {
+        Map<State, State> copies = new IdentityHashMap<>();
+        Map<Event, ListValuedMap<State, Set<State>>> bipartiteGraphs = new HashMap<>();
+        for (Event e : controllableEvents) {
+            ListValuedMap<State, Set<State>> graph = MultiMapUtils.newListValuedHashMap();
+            for (Map.Entry<State, Set<State>> entry : buildBipartiteGraph(e).toNeighborMap().entries()) {
+                Set<State> adjacent = new LinkedHashSet<>();
+                for (State s : entry.getValue())
+                    adjacent.add(copies.computeIfAbsent(s, State::clone));
+                graph.put(copies.computeIfAbsent(entry.getKey(), State::clone), adjacent);
+            }
+            bipartiteGraphs.put(e, graph);
+        }
+        return bipartiteGraphs;
+    }
+
+    /**
+     * Builds the bipartite graph of the specified event.
+     *
+     * @param e a controllable event
+     * @return the bipartite graph of the event
+     */
+    BipartiteConflictGraph buildBipartiteGraph(Event e) {
+        buildSubsetConstructions(null);
+        int[] nBlocks = new int[nControllers];
+        for (int i = 0; i < nControllers; i++)
+            nBlocks[i] = indistinguishableStates.get(i).size();
+        return new BipartiteConflictGraph(e, uStructure.getEnablementStates(e.getLabel()),
+                uStructure.getDisablementStates(e.getLabel()), blockIndices, nBlocks);
+    }
+
+    /**
+     * Tests whether the system is inference observable, and calculates the
+     * level of inferencing required.
+     *
+     * @return whether the system is inference observable and the level of
+     *         inferencing required
+     */
+    private Pair<Boolean, OptionalInt> computeObservability() {
+
+        OptionalInt n = OptionalInt.empty();
+
+        for (Event e : controllableEvents) {
+            OptionalInt level = buildBipartiteGraph(e).computeInferenceLevel();
+            if (level.isEmpty())
+                return Pair.of(false, OptionalInt.empty());
+            if (n.isEmpty() || level.getAsInt() > n.getAsInt())
+                n = level;
+        }
+
+        return Pair.of(true, n);
+    }
+
+    /**
+     * Calculates the local control decisions for the system.
+     *
+     * @param enablement whether to use "enable by default (EBD)" framework for
+     *                   generating local control decisions
+     * @return the local control decisions
+     *
+     * @throws IllegalArgumentException if the system is not inference observable
+     */
+    private List<AmbiguityData> computeLocalControlDecisions(boolean enablement) {
+
+        Pair<Boolean, OptionalInt> obsResult = testObservability(true);
+
+        if (!obsResult.getLeft())
+            throw new IllegalArgumentException("System is not inference observable");
+
+        List<AmbiguityData> retList = new ArrayList<>();
+
+        for (Event e : controllableEvents) {
+            buildBipartiteGraph(e).collectControlDecisions(enablement, obsResult.getRight().getAsInt(), retList);
+        }
+
+        return retList;
+    }
+}
@@ -0,0 +1,606 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+/**
+ * Applies communication protocols to a U-Structure without copying it.
+ * <p>
+ * The transitions of the U-Structure, as well as the transitions of its
+ * inverse, are indexed once, when a pruner is constructed. Applying a protocol
+ * does not modify the U-Structure; instead, the transitions that would be
+ * pruned are marked as removed, and are recorded in an undo log so that they
+ * can be restored with {@link #rollback(int)}. This way, many protocols can be
+ * checked for feasibility one after another, each time starting from the
+ * original U-Structure.
+ * <p>
+ * States are indexed in increasing order of their IDs, so the IDs of the states
+ * do not need to be consecutive.
+ * <p>
+ * Transitions are pruned in the same order as
+ * {@link PrunedUStructure#prune(Set, LabelVector, long, int)} prunes them, so
+ * applying a protocol removes exactly the same transitions as
+ * {@link UStructureOperations#applyProtocol(UStructure, Set, boolean)}. Special
+ * transitions are assumed to annotate transitions of the U-Structure.
+ * <p>
+ * A pruner is not thread-safe, but pruners that are constructed with
+ * {@link #ProtocolPruner(ProtocolPruner)} share the index of the U-Structure,
+ * and can be used concurrently. The U-Structure must not be modified while
+ * any of them are in use.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see ProtocolSearch
+ * @since 2.2.0
+ */
+final class ProtocolPruner {
+
+    /* SHARED INDEX */
+
+    /** The U-Structure that protocols are applied to */
+    private final UStructure uStructure;
+    /** Number of controllers in the U-Structure */
+    private final int nControllers;
+    /** ID of each state, by state index, in increasing order (index 0 is unused) */
+    private final long[] stateIDs;
+    /** Index of the first outgoing transition of each state, by state index */
+    private final int[] outStart;
+    /** Event ID of each transition */
+    private final int[] eventIDs;
+    /** Source state index of each transition */
+    private final int[] sources;
+    /** Target state index of each transition */
+    private final int[] targets;
+    /** Index of the first incoming transition of each state, by state index */
+    private final int[] inStart;
+    /** Incoming transitions, grouped by target state in the order of the inverse */
+    private final int[] incoming;
+    /** Event vector of each event, by event ID */
+    private final LabelVector[] vectors;
+    /**
+     * Controllers that cannot observe each event, by event ID. Bit {@code i} is
+     * set if the event is unobservable to controller {@code i}.
+     */
+    private final int[] unobservableMasks;
+    /**
+     * Masks of the events that are compatible with each communication event, by
+     * event ID. This is {@code null} for events that are not communications.
+     *
+     * @see #compatibleMasksOf(LabelVector)
+     */
+    private final int[][] compatibleMasks;
+
+    /* STATE OF THIS PRUNER */
+
+    /** Whether each transition has been removed */
+    private final boolean[] removed;
+    /** Whether each transition is part of the protocol being applied */
+    private final boolean[] chosen;
+    /** Transitions that have been removed, in the order they were removed */
+    private int[] undoLog;
+    /** Number of entries in the undo log */
+    private int undoLogSize;
+    /** Whether each state is accessible after the protocol is applied */
+    private final boolean[] accessible;
+    /** Working memory for traversals */
+    private final TraversalScratch scratch;
+
+    /**
+     * Constructs a new pruner for the specified U-Structure.
+     *
+     * @param uStructure a U-Structure
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    ProtocolPruner(UStructure uStructure) {
+
+        this.uStructure = Objects.requireNonNull(uStructure);
+        this.nControllers = uStructure.getNumberOfControllers();
+
+        /* Index the states */
+
+        this.stateIDs = new long[uStructure.getStates().size() + 1];
+        int nStates = 0;
+        for (State state : uStructure.getStates())
+            stateIDs[++nStates] = state.getID();
+        Arrays.sort(stateIDs, 1, stateIDs.length);
+
+        /* Index the transitions */
+
+        int nTransitions = 0;
+        for (int s = 1; s <= nStates; s++)
+            nTransitions += uStructure.getState(stateIDs[s]).getNumberOfTransitions();
+
+        this.outStart = new int[nStates + 2];
+        this.eventIDs = new int[nTransitions];
+        this.sources = new int[nTransitions];
+        this.targets = new int[nTransitions];
+        int t = 0;
+        for (int s = 1; s <= nStates; s++) {
+            outStart[s] = t;
+            for (Transition transition : uStructure.getState(stateIDs[s]).getTransitions()) {
+                eventIDs[t] = transition.getEvent().getID();
+                sources[t] = s;
+                targets[t] = indexOfState(transition.getTargetStateID());
+                t++;
+            }
+        }
+        outStart[nStates + 1] = t;
+
+        // Incoming transitions are ordered by source state, just like the
+        // transitions of the inverse (see AutomataOperations#invert)
+        this.inStart = new int[nStates + 2];
+        for (int target : targets)
+            inStart[target + 1]++;
+        for (int s = 1; s <= nStates + 1; s++)
+            inStart[s] += inStart[s - 1];
+        this.incoming = new int[nTransitions];
+        int[] next = Arrays.copyOf(inStart, nStates + 1);
+        for (t = 0; t < nTransitions; t++)
+            incoming[next[targets[t]]++] = t;
+
+        /* Index the events */
+
+        this.vectors = new LabelVector[uStructure.getNumberOfEvents() + 1];
+        this.unobservableMasks = new int[vectors.length];
+        for (Event e : uStructure.getEvents()) {
+            vectors[e.getID()] = e.getVector();
+            for (int i = 0; i <= nControllers; i++)
+                if (e.getVector().isUnobservableToController(i))
+                    unobservableMasks[e.getID()] |= 1 << i;
+        }
+
+        this.compatibleMasks = new int[vectors.length][];
+        for (CommunicationData data : uStructure.getPotentialAndNashCommunications())
+            if (compatibleMasks[data.eventID] == null)
+                compatibleMasks[data.eventID] = compatibleMasksOf(vectors[data.eventID]);
+
+        /* Set up the state of this pruner */
+
+        this.removed = new boolean[nTransitions];
+        this.chosen = new boolean[nTransitions];
+        this.undoLog = new int[16];
+        this.accessible = new boolean[nStates + 1];
+        this.scratch = new TraversalScratch(nStates);
+
+    }
+
+    /**
+     * Constructs a new pruner that shares the index of the U-Structure with the
+     * specified pruner. The new pruner starts from the original U-Structure,
+     * regardless of which transitions have been removed by the other pruner.
+     *
+     * @param other the pruner to share the index with
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    ProtocolPruner(ProtocolPruner other) {
+
+        this.uStructure = other.uStructure;
+        this.nControllers = other.nControllers;
+        this.stateIDs = other.stateIDs;
+        this.outStart = other.outStart;
+        this.eventIDs = other.eventIDs;
+        this.sources = other.sources;
+        this.targets = other.targets;
+        this.inStart = other.inStart;
+        this.incoming = other.incoming;
+        this.vectors = other.vectors;
+        this.unobservableMasks = other.unobservableMasks;
+        this.compatibleMasks = other.compatibleMasks;
+
+        this.removed = new boolean[other.removed.length];
+        this.chosen = new boolean[other.chosen.length];
+        this.undoLog = new int[16];
+        this.accessible = new boolean[other.accessible.length];
+        this.scratch = new TraversalScratch(other.accessible.length - 1);
+
+    }
+
+    /* FEASIBILITY */
+
+    /**
+     * Checks whether a protocol is feasible. This gives the same result as
+     * applying the protocol (discarding unused communications) to a copy of the
+     * U-Structure, and checking the copy. The transitions removed by this check
+     * are restored before this method returns.
+     *
+     * @param protocol                    The protocol
+     * @param mustAlsoSolveControlProblem Whether or not the protocol must also
+     *                                    solve the control problem
+     * @return whether or not the protocol is feasible
+     *
+     * @see UStructure#isFeasibleProtocol(Set, boolean)
+     */
+    boolean isFeasible(Set<CommunicationData> protocol, boolean mustAlsoSolveControlProblem) {
+
+        int mark = mark();
+
+        try {
+
+            discardUnusedCommunications(protocol);
+            prune(protocol);
+            findAccessibleStates();
+
+            // If it must also solve the control problem, but there are still violations,
+            // then return false
+            if (mustAlsoSolveControlProblem) {
+                for (TransitionData data : uStructure.getUnconditionalViolations())
+                    if (isRemaining(data))
+                        return false;
+                for (TransitionData data : uStructure.getConditionalViolations())
+                    if (isRemaining(data))
+                        return false;
+            }
+
+            // If there was a change in the number of communications after pruning, then it
+            // is clearly not feasible
+            List<CommunicationData> communications = uStructure.getPotentialAndNashCommunications();
+            int nRemaining = 0;
+            for (CommunicationData data : communications)
+                if (isRemaining(data))
+                    nRemaining++;
+            if (nRemaining != protocol.size())
+                return false;
+
+            // Any strict subset of a communication's event vector which is found at an
+            // indistinguishable state indicates that there used to be a communication
+            // there (before the protocol was applied), but that it should have been part
+            // of the protocol, meaning this protocol is not feasible
+            for (CommunicationData data : communications)
+                if (isRemaining(data) && hasIndistinguishableSubVector(data))
+                    return false;
+
+            return true;
+
+        } finally {
+            rollback(mark);
+        }
+
+    }
+
+    /**
+     * Checks whether a transition is still in the accessible part of the
+     * U-Structure after a protocol is applied.
+     *
+     * @param data a transition
+     * @return {@code true} if the transition remains
+     */
+    private boolean isRemaining(TransitionData data) {
+        int t = indexOf(data);
+        return t >= 0 && !removed[t] && accessible[sources[t]];
+    }
+
+    /**
+     * Checks whether a transition whose event vector is a strict sub-vector of
+     * the event vector of a communication leads out from a state that the sender
+     * of the communication cannot distinguish from its initial state.
+     *
+     * @param data a communication
+     * @return {@code true} if such a transition exists
+     */
+    private boolean hasIndistinguishableSubVector(CommunicationData data) {
+
+        final int controllerMask = 1 << (data.getIndexOfSender() + 1);
+        final LabelVector eventVector = vectors[data.eventID];
+
+        int nFound = findStates(indexOfState(data.initialStateID), controllerMask, true);
+        for (int i = 0; i < nFound; i++) {
+            int s = scratch.getFound(i);
+            for (int t = outStart[s]; t < outStart[s + 1]; t++)
+                if (!removed[t] && LabelVector.isStrictSubVector(vectors[eventIDs[t]], eventVector))
+                    return true;
+        }
+
+        return false;
+
+    }
+
+    /* PRUNING */
+
+    /**
+     * Removes the invalid communications, as well as the potential and Nash
+     * communications that are not part of the specified protocol.
+     *
+     * @param protocol the chosen protocol
+     */
+    void discardUnusedCommunications(Set<? extends CommunicationData> protocol) {
+
+        for (TransitionData data : uStructure.getInvalidCommunications())
+            remove(indexOf(data));
+
+        for (CommunicationData data : uStructure.getPotentialAndNashCommunications())
+            if (!protocol.contains(data))
+                remove(indexOf(data));
+
+    }
+
+    /**
+     * Prunes away the transitions that the communications in the specified
+     * protocol make unnecessary, one communication at a time, in the order the
+     * protocol's iterator returns them.
+     *
+     * @param protocol the chosen protocol (which must be feasible)
+     *
+     * @see PrunedUStructure#prune(Set, LabelVector, long, int)
+     */
+    void prune(Set<? extends CommunicationData> protocol) {
+
+        // We do not want to prune any of the chosen communications directly
+        for (CommunicationData data : protocol) {
+            int t = indexOf(data);
+            if (t >= 0)
+                chosen[t] = true;
+        }
+
+        try {
+            for (CommunicationData data : protocol) {
+                int[] masks = compatibleMasks[data.eventID];
+                if (masks == null)
+                    masks = compatibleMasksOf(vectors[data.eventID]);
+                int controllerMask = 1 << (data.getIndexOfSender() + 1);
+
+                // The states are pruned in increasing order of their IDs, just like
+                // PrunedUStructure#prune prunes them
+                int initialState = indexOfState(data.initialStateID);
+                if (initialState < 0)
+                    continue;
+                findStates(initialState, controllerMask, false);
+                for (int s = scratch.nextVisited(1); s >= 0; s = scratch.nextVisited(s + 1))
+                    pruneHelper(masks, 0, s, 0);
+            }
+        } finally {
+            for (CommunicationData data : protocol) {
+                int t = indexOf(data);
+                if (t >= 0)
+                    chosen[t] = false;
+            }
+        }
+
+    }
+
+    /**
+     * Helper method used to prune the U-Structure. Like
+     * {@link PrunedUStructure}, the transitions leading from the current state
+     * are tried in order, skipping any that are pruned by recursive calls in the
+     * meantime.
+     *
+     * @param masks          Masks of the events that are compatible with the
+     *                       communication, by event ID
+     * @param found          Mask of the vector elements that have already been
+     *                       found
+     * @param currentState   The index of the state that we are currently on
+     * @param depth          The current depth of the recursion (first iteration
+     *                       has a depth of 0)
+     */
+    private void pruneHelper(int[] masks, int found, int currentState, int depth) {
+
+        /* Base case */
+
+        if (depth == nControllers)
+            return;
+
+        /* Recursive case */
+
+        // Try all transitions leading from this state
+        for (int t = outStart[currentState]; t < outStart[currentState + 1]; t++) {
+
+            // We do not want to prune any of the chosen communications, nor any
+            // transitions that are incompatible with what we've found so far
+            int eventMask = masks[eventIDs[t]];
+            if (removed[t] || (depth == 0 && chosen[t]) || eventMask < 0 || (found & eventMask) != 0)
+                continue;
+
+            // Prune this transition
+            remove(t);
+
+            // Recursive call to the state where this transition leads
+            pruneHelper(masks, found | eventMask, targets[t], depth + 1);
+
+        }
+
+    }
+
+    /**
+     * Returns the masks of the vector elements of each event that match the
+     * corresponding elements of a communication.
+     *
+     * @param communication the event vector of a communication
+     * @return masks of the non-empty elements of each event, by event ID, or
+     *         {@code -1} for events that are incompatible with the communication
+     */
+    private int[] compatibleMasksOf(LabelVector communication) {
+
+        int[] masks = new int[vectors.length];
+
+        for (int id = 1; id < vectors.length; id++) {
+            LabelVector vector = vectors[id];
+            for (int j = 0; j < vector.getSize(); j++) {
+                String element = vector.getLabelAtIndex(j);
+                if (!element.equals(Event.EPSILON)) {
+                    if (!element.equals(communication.getLabelAtIndex(j))) {
+                        masks[id] = -1;
+                        break;
+                    }
+                    masks[id] |= 1 << j;
+                }
+            }
+        }
+
+        return masks;
+
+    }
+
+    /* TRAVERSALS */
+
+    /**
+     * Finds the states that are connected to the specified state through
+     * remaining transitions which are unobservable to a controller, in either
+     * direction.
+     *
+     * @param initialState     the index of the state to start from
+     * @param controllerMask   mask of the controller
+     * @param accessibleOnly   whether to only follow incoming transitions from
+     *                         accessible states
+     * @return the number of connected states, which are then found in
+     *         {@link #scratch} in depth-first pre-order
+     *
+     * @see UStructure#findConnectingStates(UStructure, UStructure, long, int, TraversalScratch)
+     */
+    private int findStates(int initialState, int controllerMask, boolean accessibleOnly) {
+
+        scratch.clear();
+        scratch.visit(initialState);
+        scratch.addFound(initialState);
+        scratch.push(initialState);
+
+        while (!scratch.isEmpty()) {
+
+            int s = scratch.peek();
+            int nOut = outStart[s + 1] - outStart[s];
+            int nIn = inStart[s + 1] - inStart[s];
+            int next = 0;
+            int cursor;
+
+            // Outgoing transitions come first, then incoming ones
+            while (next == 0 && (cursor = scratch.advance()) < nOut + nIn) {
+                int t;
+                int neighbour;
+                if (cursor < nOut) {
+                    t = outStart[s] + cursor;
+                    neighbour = targets[t];
+                } else {
+                    t = incoming[inStart[s] + cursor - nOut];
+                    neighbour = sources[t];
+                    if (accessibleOnly && !accessible[neighbour])
+                        continue;
+                }
+                if (!removed[t] && (unobservableMasks[eventIDs[t]] & controllerMask) != 0
+                        && scratch.visit(neighbour))
+                    next = neighbour;
+            }
+
+            if (next == 0) {
+                scratch.pop();
+            } else {
+                scratch.addFound(next);
+                scratch.push(next);
+            }
+
+        }
+
+        return scratch.getNumberOfFound();
+
+    }
+
+    /**
+     * Finds the states that are reachable from the initial state through
+     * remaining transitions.
+     */
+    private void findAccessibleStates() {
+
+        Arrays.fill(accessible, false);
+        int initialState = indexOfState(uStructure.getInitialStateID());
+        if (initialState < 0)
+            return;
+
+        scratch.clear();
+        accessible[initialState] = true;
+        scratch.push(initialState);
+        while (!scratch.isEmpty()) {
+            int s = scratch.pop();
+            for (int t = outStart[s]; t < outStart[s + 1]; t++)
+                if (!removed[t] && !accessible[targets[t]]) {
+                    accessible[targets[t]] = true;
+                    scratch.push(targets[t]);
+                }
+        }
+
+    }
+
+    /* UNDO LOG */
+
+    /**
+     * Returns a mark that the removed transitions can later be restored to.
+     *
+     * @return the current position in the undo log
+     */
+    int mark() {
+        return undoLogSize;
+    }
+
+    /**
+     * Restores the transitions that have been removed since the specified mark.
+     *
+     * @param mark a mark returned by {@link #mark()}
+     */
+    void rollback(int mark) {
+        while (undoLogSize > mark)
+            removed[undoLog[--undoLogSize]] = false;
+    }
+
+    /**
+     * Returns the transitions that have been removed since the specified mark,
+     * in the order they were removed.
+     *
+     * @param mark a mark returned by {@link #mark()}
+     * @return the removed transitions
+     */
+    List<TransitionData> removedSince(int mark) {
+        List<TransitionData> list = new ArrayList<>(undoLogSize - mark);
+        for (int i = mark; i < undoLogSize; i++) {
+            int t = undoLog[i];
+            list.add(new TransitionData(stateIDs[sources[t]], eventIDs[t], stateIDs[targets[t]]));
+        }
+        return list;
+    }
+
+    /**
+     * Removes a transition, unless it has already been removed.
+     *
+     * @param t the index of the transition, or {@code -1} if it does not exist
+     */
+    private void remove(int t) {
+        if (t < 0 || removed[t])
+            return;
+        removed[t] = true;
+        if (undoLogSize == undoLog.length)
+            undoLog = Arrays.copyOf(undoLog, undoLogSize * 2);
+        undoLog[undoLogSize++] = t;
+    }
+
+    /**
+     * Returns the index of the specified transition.
+     *
+     * @param data a transition
+     * @return the index of the transition, or {@code -1} if it does not exist
+     */
+    private int indexOf(TransitionData data) {
+        int s = indexOfState(data.initialStateID);
+        if (s < 0)
+            return -1;
+        for (int t = outStart[s]; t < outStart[s + 1]; t++)
+            if (eventIDs[t] == data.eventID && stateIDs[targets[t]] == data.targetStateID)
+                return t;
+        return -1;
+    }
+
+    /**
+     * Returns the index of the state with the specified ID.
+     *
+     * @param stateID the ID of a state
+     * @return the index of the state, or {@code -1} if it does not exist
+     */
+    private int indexOfState(long stateID) {
+        // Without gaps in the state IDs, each state's index is the same as its ID
+        if (stateID > 0 && stateID < stateIDs.length && stateIDs[(int) stateID] == stateID)
+            return (int) stateID;
+        int s = Arrays.binarySearch(stateIDs, 1, stateIDs.length, stateID);
+        return s < 0 ? -1 : s;
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.*;
+
+import com.github.automaton.automata.util.PowerSetIterator;
+
+/**
+ * Searches for feasible communication protocols of a U-Structure.
+ * <p>
+ * Candidate protocols are generated in order of increasing size, and are
+ * checked for feasibility in batches. In parallel mode, the candidates in a
+ * batch are checked concurrently. Candidates are applied to the U-Structure
+ * without copying it, by pruners that share a single index of the U-Structure
+ * and its inverse; each thread uses its own pruner. Feasible protocols are
+ * reported in the same order regardless of the mode: protocols with fewer
+ * communications appear first, and protocols of the same size appear in the
+ * order that {@link PowerSetIterator} generates them.
+ * <p>
+ * Feasible protocols can be received as soon as each batch is checked, by
+ * passing a listener to the search methods. A search can be stopped from
+ * another thread with {@link #cancel()}, or by interrupting the thread that
+ * performs it.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see CompositionOptions
+ * @since 2.2.0
+ */
+public final class ProtocolSearch {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Number of candidate protocols per worker thread in each batch */
+    private static final int BATCH_SIZE_PER_THREAD = 16;
+
+    /** The U-Structure to search in */
+    private final UStructure uStructure;
+    /** Whether candidates are checked in parallel, and by how many threads */
+    private final CompositionOptions options;
+    /** The pruner that the other pruners share their index with */
+    private final ProtocolPruner pruner;
+    /** Pruners that are not being used by any thread */
+    private final Queue<ProtocolPruner> idlePruners;
+    /** Whether this search has been cancelled */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a new protocol search.
+     *
+     * @param uStructure the U-Structure to search in, which must not be modified
+     *                   while it is being searched
+     * @param options    whether candidate protocols are checked in parallel
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public ProtocolSearch(UStructure uStructure, CompositionOptions options) {
+        this.uStructure = Objects.requireNonNull(uStructure);
+        this.options = Objects.requireNonNull(options);
+        this.pruner = new ProtocolPruner(uStructure);
+        this.idlePruners = new ConcurrentLinkedQueue<>(List.of(pruner));
+    }
+
+    /**
+     * Finds all feasible protocols that consist of the specified communications.
+     *
+     * @param <T>                         The type of communication data
+     * @param communications              The communications to be considered
+     *                                    (which should be a subset of the potential
+     *                                    communications of the U-Structure)
+     * @param mustAlsoSolveControlProblem Whether or not the protocols must also
+     *                                    solve the control problem
+     * @param listener                    Receives each feasible protocol as soon as
+     *                                    it is found, or {@code null}
+     * @return The feasible protocols, sorted smallest to largest
+     *
+     * @throws CancellationException if this search is cancelled
+     * @throws NullPointerException  if {@code communications} is {@code null}
+     *
+     * @see UStructure#generateAllFeasibleProtocols(List, boolean)
+     */
+    public <T extends CommunicationData> List<Set<T>> findAllFeasibleProtocols(List<T> communications,
+            boolean mustAlsoSolveControlProblem, Consumer<? super Set<T>> listener) {
+        return search(new PowerSetIterator<>(communications), mustAlsoSolveControlProblem, false, listener);
+    }
+
+    /**
+     * Finds the smallest feasible protocols (in terms of the number of
+     * communications) that consist of the specified communications. The search
+     * stops as soon as all protocols of the smallest feasible size have been
+     * checked.
+     *
+     * @param communications The communications to be considered (which should be a
+     *                       subset of the potential communications of the
+     *                       U-Structure)
+     * @param listener       Receives each feasible protocol as soon as it is
+     *                       found, or {@code null}
+     * @return The smallest feasible protocols
+     *
+     * @throws CancellationException if this search is cancelled
+     * @throws NullPointerException  if {@code communications} is {@code null}
+     *
+     * @see UStructure#generateSmallestFeasibleProtocols(List)
+     */
+    public List<Set<CommunicationData>> findSmallestFeasibleProtocols(List<CommunicationData> communications,
+            Consumer<? super Set<CommunicationData>> listener) {
+        return search(new PowerSetIterator<>(communications), false, true, listener);
+    }
+
+    /**
+     * Finds all feasible protocols which contain each communication in the
+     * requested protocol.
+     *
+     * @param requestedProtocol The protocol that is being made feasible
+     * @param listener          Receives each feasible protocol as soon as it is
+     *                          found, or {@code null}
+     * @return The feasible protocols, sorted smallest to largest
+     *
+     * @throws CancellationException    if this search is cancelled
+     * @throws IllegalArgumentException if the requested protocol contains
+     *                                  communications that are not in the
+     *                                  U-Structure
+     * @throws NullPointerException     if {@code requestedProtocol} is
+     *                                  {@code null}
+     *
+     * @see UStructure#makeProtocolFeasible(Set)
+     */
+    public List<Set<CommunicationData>> findFeasibleProtocolsContaining(Set<CommunicationData> requestedProtocol,
+            Consumer<? super Set<CommunicationData>> listener) {
+        return search(new PowerSetIterator<>(uStructure.getPotentialAndNashCommunications(), requestedProtocol),
+                false, false, listener);
+    }
+
+    /**
+     * Cancels this search. Candidate protocols that are being checked are
+     * allowed to finish, after which the search throws a
+     * {@link CancellationException}. Cancelling a search that has finished has
+     * no effect on its result.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether this search has been cancelled.
+     *
+     * @return {@code true} if this search has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks the candidate protocols for feasibility, one batch at a time. Every
+     * batch consists of candidates of the same size.
+     *
+     * @param <T>                         The type of communication data
+     * @param candidates                  The candidate protocols
+     * @param mustAlsoSolveControlProblem Whether or not the protocols must also
+     *                                    solve the control problem
+     * @param smallestOnly                Whether to stop after the smallest size
+     *                                    that has a feasible protocol
+     * @param listener                    Receives each feasible protocol, or
+     *                                    {@code null}
+     * @return The feasible protocols
+     *
+     * @throws CancellationException if this search is cancelled
+     */
+    private <T extends CommunicationData> List<Set<T>> search(PowerSetIterator<T> candidates,
+            boolean mustAlsoSolveControlProblem, boolean smallestOnly, Consumer<? super Set<T>> listener) {
+
+        ForkJoinPool pool = null;
+        int batchSize = BATCH_SIZE_PER_THREAD;
+        if (options.isParallel()) {
+            pool = options.getParallelism() == 0 ? ForkJoinPool.commonPool()
+                    : new ForkJoinPool(options.getParallelism());
+            batchSize *= pool.getParallelism();
+        }
+
+        try {
+
+            List<Set<T>> feasibleProtocols = new ArrayList<>();
+            List<Set<T>> batch = new ArrayList<>(batchSize);
+            Set<T> next = null;
+            int nChecked = 0;
+
+            while (next != null || candidates.hasNext()) {
+
+                checkCancelled();
+
+                /* Fill the batch with candidates of the same size */
+
+                batch.clear();
+                if (next == null)
+                    next = candidates.next();
+                int size = next.size();
+                while (next != null && next.size() == size && batch.size() < batchSize) {
+                    // Ignore the protocol with no communications (doesn't make sense in our
+                    // context)
+                    if (size > 0)
+                        batch.add(next);
+                    next = candidates.hasNext() ? candidates.next() : null;
+                }
+
+                /* Check the batch */
+
+                boolean[] feasible = check(batch, mustAlsoSolveControlProblem, pool);
+                checkCancelled();
+                nChecked += batch.size();
+
+                for (int i = 0; i < batch.size(); i++) {
+                    if (feasible[i]) {
+                        feasibleProtocols.add(batch.get(i));
+                        if (listener != null)
+                            listener.accept(batch.get(i));
+                    }
+                }
+
+                // We only want the smallest feasible protocols
+                if (smallestOnly && !feasibleProtocols.isEmpty() && (next == null || next.size() > size))
+                    break;
+
+            }
+
+            logger.debug("Checked " + nChecked + " candidate protocols, of which " + feasibleProtocols.size()
+                    + " are feasible");
+            return feasibleProtocols;
+
+        } finally {
+            if (pool != null && options.getParallelism() > 0)
+                pool.shutdown();
+        }
+
+    }
+
+    /**
+     * Checks the specified candidate protocols for feasibility.
+     *
+     * @param <T>                         The type of communication data
+     * @param batch                       The candidate protocols
+     * @param mustAlsoSolveControlProblem Whether or not the protocols must also
+     *                                    solve the control problem
+     * @param pool                        The pool to check the candidates in, or
+     *                                    {@code null} to check them sequentially
+     * @return whether each candidate is feasible
+     *
+     * @throws CancellationException if the current thread is interrupted while
+     *                               waiting for the candidates to be checked
+     */
+    private <T extends CommunicationData> boolean[] check(List<Set<T>> batch, boolean mustAlsoSolveControlProblem,
+            ForkJoinPool pool) {
+
+        boolean[] feasible = new boolean[batch.size()];
+        if (pool == null || batch.size() < 2) {
+            for (int i = 0; i < batch.size() && !isStopped(); i++)
+                feasible[i] = isFeasible(batch.get(i), mustAlsoSolveControlProblem);
+            return feasible;
+        }
+
+        Future<?> task = pool.submit(() -> IntStream.range(0, batch.size()).parallel().forEach(i -> {
+            if (!cancelled)
+                feasible[i] = isFeasible(batch.get(i), mustAlsoSolveControlProblem);
+        }));
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Protocol search was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new CompletionException(e.getCause());
+        }
+        return feasible;
+
+    }
+
+    /**
+     * Checks whether a protocol is feasible.
+     *
+     * @param <T>                         The type of communication data
+     * @param protocol                    The protocol
+     * @param mustAlsoSolveControlProblem Whether or not the protocol must also
+     *                                    solve the control problem
+     * @return whether or not the protocol is feasible
+     */
+    private <T extends CommunicationData> boolean isFeasible(Set<T> protocol, boolean mustAlsoSolveControlProblem) {
+        ProtocolPruner idlePruner = idlePruners.poll();
+        if (idlePruner == null)
+            idlePruner = new ProtocolPruner(pruner);
+        try {
+            return idlePruner.isFeasible(new HashSet<CommunicationData>(protocol), mustAlsoSolveControlProblem);
+        } finally {
+            idlePruners.offer(idlePruner);
+        }
+    }
+
+    /**
+     * Checks whether this search has been cancelled, or the current thread has
+     * been interrupted.
+     *
+     * @return {@code true} if this search should stop
+     */
+    private boolean isStopped() {
+        if (Thread.currentThread().isInterrupted())
+            cancel();
+        return cancelled;
+    }
+
+    /**
+     * Throws an exception if this search should stop.
+     *
+     * @throws CancellationException if this search should stop
+     */
+    private void checkCancelled() {
+        if (isStopped())
+            throw new CancellationException("Protocol search was cancelled");
+    }
+}
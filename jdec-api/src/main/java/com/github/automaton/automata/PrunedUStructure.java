@@ -52,6 +52,20 @@ public class PrunedUStructure extends UStructure {
         super(jsonObject);
     }
 
+    /**
+     * Constructs a deep copy of the specified pruned U-Structure.
+     * 
+     * @param other the pruned U-Structure to copy
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @see #clone()
+     * @since 2.2.0
+     */
+    protected PrunedUStructure(PrunedUStructure other) {
+        super(other);
+    }
+
     /* AUTOMATA OPERATIONS */
 
     @Override
@@ -61,30 +75,35 @@ public class PrunedUStructure extends UStructure {
 
     /**
      * Using recursion, starting at a given state, prune away all necessary
-     * transitions.
+     * transitions. The states that the sender cannot distinguish from the given
+     * state are pruned in increasing order of their IDs.
      * 
      * @param <T>            The type of communication data
      * @param protocol       The chosen protocol (which must be feasible)
      * @param communication  The event vector representing the chosen communication
      * @param initialStateID The ID of the state where the pruning begins at
      * @param indexOfSender  The index of the sender
+     * 
+     * @revised 2.2.0
      **/
     public <T extends CommunicationData> void prune(Set<T> protocol,
             LabelVector communication,
             long initialStateID,
             int indexOfSender) {
 
-        Set<Long> indistinguishableStates = new HashSet<Long>();
-        findConnectingStates(this, this.invert(), indistinguishableStates, initialStateID, indexOfSender);
+        TraversalScratch scratch = new TraversalScratch(getNumberOfStates());
+        findConnectingStates(this, this.invert(), initialStateID, indexOfSender, scratch);
         // System.out.println("communication: " + communication + ", index of sender: "
         // + indexOfSender);
-        for (long s : indistinguishableStates)
+        for (int s = scratch.nextVisited(0); s >= 0; s = scratch.nextVisited(s + 1))
             pruneHelper(protocol, communication, new boolean[communication.getSize()], getState(s), 0);
 
     }
 
     /**
-     * Helper method used to prune the U-Structure.
+     * Helper method used to prune the U-Structure. The transitions leading from
+     * the current state are tried in the order they were in when this method was
+     * called, skipping any that are pruned by recursive calls in the meantime.
      * 
      * @param <T>                 The type of communication data
      * @param protocol            The chosen protocol (which must be feasible)
@@ -110,9 +129,11 @@ public class PrunedUStructure extends UStructure {
         /* Recursive case */
 
         // Try all transitions leading from this state
-        outer: for (int i = 0; i < currentState.getTransitions().size(); i++) {
+        outer: for (Transition t : new ArrayList<Transition>(currentState.getTransitions())) {
 
-            Transition t = currentState.getTransition(i);
+            // Skip transitions that have already been pruned
+            if (!currentState.containsTransition(t))
+                continue;
 
             // We do not want to prune any of the chosen communications
             if (depth == 0) {
@@ -156,7 +177,6 @@ public class PrunedUStructure extends UStructure {
 
             // Prune this transition
             removeTransition(currentState.getID(), t.getEvent().getID(), t.getTargetStateID());
-            i--;
 
             // Recursive call to the state where this transition leads
             pruneHelper(protocol, communication, copy, getState(t.getTargetStateID()), depth + 1);
@@ -167,7 +187,7 @@ public class PrunedUStructure extends UStructure {
 
     @Override
     public PrunedUStructure clone() {
-        return new PrunedUStructure(toJsonObject());
+        return new PrunedUStructure(this);
     }
 
     /* MUTATOR METHODS */
@@ -271,6 +291,9 @@ public class PrunedUStructure extends UStructure {
         for (TransitionData data : list)
             data.eventID = mapping.get(data.eventID);
 
+        if (list instanceof TransitionDataList<?> indexedList)
+            indexedList.reindex();
+
     }
 
 }
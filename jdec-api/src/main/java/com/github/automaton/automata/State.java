@@ -67,6 +67,14 @@ public class State implements Cloneable {
     @Deprecated(since = "2.0", forRemoval = true)
     public static final int DISABLEMENT_MASK = 0b00001000;
 
+    /**
+     * Minimum number of transitions for which the per-event transition index
+     * is built. Smaller states are simply scanned.
+     * 
+     * @since 2.2.0
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
     /* INSTANCE VARIABLES */
 
     private String label;
@@ -92,6 +100,20 @@ public class State implements Cloneable {
      * @since 2.1.0
      */
     private Set<String> illegalConfigEvents;
+    /**
+     * Index from events to the transitions triggered by them, in list order.
+     * It is built lazily once this state has enough transitions, and discarded
+     * whenever a transition is removed.
+     * 
+     * @implNote Events are compared by label, so this index remains valid when
+     *           event IDs are renumbered. The index is fully built before it
+     *           is published, so that threads that only read this state can
+     *           build and use it concurrently.
+     * 
+     * @see #getTransitionsWithEvent(Event)
+     * @since 2.2.0
+     */
+    private transient volatile Map<Event, List<Transition>> transitionIndex;
 
     /* CONSTRUCTORS */
 
@@ -401,9 +423,13 @@ public class State implements Cloneable {
      * @revised 2.0
      **/
     public boolean addTransition(Transition transition) {
-        if (transitions.contains(transition))
+        if (containsTransition(transition))
             return false;
-        return transitions.add(transition);
+        transitions.add(transition);
+        Map<Event, List<Transition>> index = transitionIndex;
+        if (index != null)
+            index.computeIfAbsent(transition.getEvent(), e -> new ArrayList<>(1)).add(transition);
+        return true;
     }
 
     /**
@@ -413,7 +439,10 @@ public class State implements Cloneable {
      * @return Whether or not the removal was successful
      **/
     public boolean removeTransition(Transition transition) {
-        return transitions.remove(transition);
+        if (!transitions.remove(transition))
+            return false;
+        transitionIndex = null;
+        return true;
     }
 
     /**
@@ -423,6 +452,7 @@ public class State implements Cloneable {
      */
     public void clearTransitions() {
         transitions.clear();
+        transitionIndex = null;
     }
 
     /* ACCESSOR METHODS */
@@ -560,6 +590,102 @@ public class State implements Cloneable {
         return Collections.unmodifiableList(transitions);
     }
 
+    /**
+     * Checks whether this state has the specified transition.
+     * 
+     * @param transition a transition
+     * @return {@code true} if this state has the specified transition
+     * 
+     * @since 2.2.0
+     */
+    public boolean containsTransition(Transition transition) {
+        if (transition == null)
+            return false;
+        else if (transitions.size() < INDEX_THRESHOLD)
+            return transitions.contains(transition);
+        return getTransitionIndex().getOrDefault(transition.getEvent(), Collections.emptyList())
+                .contains(transition);
+    }
+
+    /**
+     * Returns the transitions leading out from this state that are triggered by
+     * the specified event, in the order they were added. The returned list is
+     * {@link Collections#unmodifiableList(List) unmodifiable}.
+     * 
+     * @param event an event
+     * @return the transitions triggered by the specified event
+     * 
+     * @since 2.2.0
+     */
+    public List<Transition> getTransitionsWithEvent(Event event) {
+        if (transitions.size() < INDEX_THRESHOLD) {
+            List<Transition> matches = new ArrayList<>(1);
+            for (Transition t : transitions) {
+                if (Objects.equals(t.getEvent(), event))
+                    matches.add(t);
+            }
+            return Collections.unmodifiableList(matches);
+        }
+        List<Transition> matches = getTransitionIndex().get(event);
+        return matches == null ? Collections.emptyList() : Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * Checks whether this state has a transition triggered by the specified
+     * event.
+     * 
+     * @param event an event
+     * @return {@code true} if this state has a transition triggered by the
+     *         specified event
+     * 
+     * @since 2.2.0
+     */
+    public boolean hasTransitionWithEvent(Event event) {
+        if (transitions.size() < INDEX_THRESHOLD) {
+            for (Transition t : transitions) {
+                if (Objects.equals(t.getEvent(), event))
+                    return true;
+            }
+            return false;
+        }
+        return getTransitionIndex().containsKey(event);
+    }
+
+    /**
+     * Returns the transitions leading out from this state, grouped by the
+     * events that trigger them, if this state has enough transitions to be
+     * indexed. The returned map is a view of the per-event transition index,
+     * which is built once and then shared by all callers; neither the map nor
+     * its lists may be modified.
+     * 
+     * @return the transitions grouped by event, or {@code null} if this state
+     *         has too few transitions to be indexed
+     * 
+     * @see #getTransitionsWithEvent(Event)
+     * @since 2.2.0
+     */
+    Map<Event, List<Transition>> getIndexedTransitions() {
+        if (transitions.size() < INDEX_THRESHOLD)
+            return null;
+        return Collections.unmodifiableMap(getTransitionIndex());
+    }
+
+    /**
+     * Returns the per-event transition index, building it if necessary.
+     * 
+     * @return the per-event transition index
+     */
+    private Map<Event, List<Transition>> getTransitionIndex() {
+        Map<Event, List<Transition>> index = transitionIndex;
+        if (index == null) {
+            index = new HashMap<>();
+            for (Transition t : transitions)
+                index.computeIfAbsent(t.getEvent(), e -> new ArrayList<>(1)).add(t);
+            transitionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Get the number of transitions leading out from this state.
      * 
@@ -587,7 +713,7 @@ public class State implements Cloneable {
         for (Transition orig : transitions) {
             clonedTransitions.add(ObjectUtils.clone(orig));
         }
-        return new State(label, id, marked, clonedTransitions, new LinkedHashSet<>(enablementEvents),
+        return new State(getLabel(), id, marked, clonedTransitions, new LinkedHashSet<>(enablementEvents),
                 new LinkedHashSet<>(disablementEvents), new LinkedHashSet<>(illegalConfigEvents));
     }
 
@@ -600,7 +726,7 @@ public class State implements Cloneable {
     public String toString() {
         return "(" /*
                     * + "\""
-                    */ + Objects.toString(label) /*
+                    */ + Objects.toString(getLabel()) /*
                                                   * + "\",ID:"
                                                   * + id + ","
                                                   * + (marked ? "Marked" : "Unmarked") + ","
@@ -612,7 +738,7 @@ public class State implements Cloneable {
     /** {@inheritDoc} */
     @Override
     public int hashCode() {
-        return Objects.hash(label, id);
+        return Objects.hash(getLabel(), id);
     }
 
     /**
@@ -626,7 +752,7 @@ public class State implements Cloneable {
         if (this == other)
             return true;
         else if (other instanceof State s) {
-            return Objects.equals(this.label, s.label) && this.id == s.id;
+            return Objects.equals(this.getLabel(), s.getLabel()) && this.id == s.id;
         } else
             return false;
     }
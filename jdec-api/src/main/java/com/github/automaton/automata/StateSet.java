@@ -9,19 +9,27 @@ import java.util.*;
 
 import org.apache.commons.collections4.*;
 import org.apache.commons.collections4.multimap.*;
-import org.apache.commons.lang3.ObjectUtils;
 
 /**
  * A set of states.
+ * <p>
+ * A {@code StateSet} is immutable once constructed. Its members are stored as
+ * an array sorted by state ID, so that its hash code, ID, and equality can be
+ * computed without building intermediate collections.
  * 
  * @author Sung Ho Yoon
  * @since 2.0
+ * @revised 2.2.0
  */
 public class StateSet extends State {
-    /** Set of states */
-    private transient SortedSet<State> set;
+    /** States in this set, sorted by ID */
+    private transient State[] members;
+    /** IDs of the states in this set, in ascending order */
+    private transient long[] memberIDs;
     /** Maximum value of the IDs */
     private transient long maxID;
+    /** Precomputed 64-bit hash of {@link #memberIDs} */
+    private transient long hash;
 
     /** Private constructor */
     private StateSet() {
@@ -33,21 +41,34 @@ public class StateSet extends State {
      * 
      * @param set set of states that forms this {@code StateSet}
      * @param maxID the maximum value of the IDs in the specified set
+     * 
+     * @revised 2.2.0
      */
     public StateSet(Set<State> set, long maxID) {
         this();
         this.maxID = maxID;
-        this.set = new TreeSet<State>((o1, o2) -> {
-            if (Objects.equals(o1, o2)) {
-                return 0;
-            } else {
-                return Long.compare(o1.getID(), o2.getID());
+        State[] sorted = set.toArray(State[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(State::getID));
+        int n = 0;
+        for (State s : sorted) {
+            if (n == 0 || sorted[n - 1].getID() != s.getID()) {
+                sorted[n++] = s;
             }
-        });
-        this.set.addAll(set);
-        StateVector sv = toStateVector();
-        setID(sv.getID());
-        buildLabel();
+        }
+        this.members = n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+        this.memberIDs = new long[n];
+        long combinedID = 0;
+        long h = 1;
+        for (int i = 0; i < n; i++) {
+            long id = members[i].getID();
+            memberIDs[i] = id;
+            /* Same as IDUtil.combineBigIDs(...).longValue(), without BigInteger */
+            combinedID = combinedID * (maxID + 1) + id;
+            h = 31 * h + (id ^ (id >>> 32));
+            h ^= h >>> 29;
+        }
+        this.hash = h;
+        setID(combinedID);
     }
 
     /**
@@ -62,66 +83,57 @@ public class StateSet extends State {
     }
 
     /**
-     * Adds a state to this state set.
+     * {@inheritDoc}
      * 
-     * @param s the state to add to this set
-     * 
-     * @return {@code true} if the specified state was successfully added
-     * to this {@code StateSet}; {@code false} otherwise
+     * @implNote The label of a {@code StateSet} is built on first access, as
+     *           most sets created during subset construction are discarded
+     *           as duplicates.
      */
-    boolean add(State s) {
-        if (this.set.add(s)) {
+    @Override
+    public String getLabel() {
+        String label = super.getLabel();
+        if (label == null) {
             buildLabel();
-            return true;
-        } else return false;
+            label = super.getLabel();
+        }
+        return label;
     }
 
     /**
-     * Removes a state from this state set.
-     * 
-     * @param s the state to remove from this set
-     * @return {@code true} if the specified state was successfully removed
-     * from this {@code StateSet}; {@code false} otherwise
+     * Builds label for this {@code StateSet}.
      */
-    boolean remove(State s) {
-        if (this.set.remove(s)) {
-            buildLabel();
-            return true;
-        } else return false;
+    private void buildLabel() {
+        List<String> labels = new ArrayList<>(members.length);
+        for (State s : members) {
+            labels.add(s.getLabel());
+        }
+        super.setLabel(new LabelVector(labels).toString());
     }
 
     /**
-     * Removes a state with the matching label from this state set.
+     * Returns the number of states in this set.
      * 
-     * @param label the label of the state to remove from this set
-     * @return {@code true} if there was a state with the matching label
-     * to remove from this {@code StateSet}; {@code false} otherwise
+     * @return the number of states in this set
+     * 
+     * @since 2.2.0
      */
-    boolean removeByLabel(String label) {
-        if (Objects.requireNonNull(label).isEmpty()) {
-            throw new IllegalArgumentException();
-        }
-        Iterator<State> stateIterator = set.iterator();
-        while (stateIterator.hasNext()) {
-            State s = stateIterator.next();
-            String origLabel = s.getLabel().split("-")[0];
-            if (Objects.equals(label, origLabel)) {
-                stateIterator.remove();
-                return true;
-            }
-        }
-        return false;
+    public int size() {
+        return members.length;
     }
 
     /**
-     * Builds label for this {@code StateSet}.
+     * Returns the position of the state with the specified ID in this set.
+     * States are positioned in ascending order of their IDs, which is the
+     * order that {@link #getSet()} iterates over them in.
+     * 
+     * @param id a state ID
+     * @return the position of the state with the specified ID, or {@code -1}
+     *         if there is no such state in this set
+     * 
+     * @since 2.2.0
      */
-    private void buildLabel() {
-        List<String> labels = new ArrayList<>();
-        for (State s : set) {
-            labels.add(s.getLabel());
-        }
-        super.setLabel(new LabelVector(labels).toString());
+    int indexOf(long id) {
+        return Math.max(Arrays.binarySearch(memberIDs, id), -1);
     }
 
     /**
@@ -160,7 +172,7 @@ public class StateSet extends State {
      * @return a {@link StateVector} representation of this {@code StateSet}
      */
     public StateVector toStateVector() {
-        return new StateVector(Arrays.asList(set.toArray(State[]::new)), maxID);
+        return new StateVector(Arrays.asList(members.clone()), maxID);
     }
 
     /**
@@ -177,7 +189,7 @@ public class StateSet extends State {
         StateSetTransitionIterator(int controller) {
             if (controller < 0) throw new IndexOutOfBoundsException(controller);
             this.controller = controller;
-            stateIterator = StateSet.this.set.iterator();
+            stateIterator = Arrays.asList(StateSet.this.members).iterator();
             uniqueTransitions = new LinkedHashSet<>();
             this.transitionIterator = IteratorUtils.<Transition>emptyIterator();
             while (stateIterator.hasNext()) {
@@ -213,7 +225,7 @@ public class StateSet extends State {
     /** {@inheritDoc} */
     @Override
     public int hashCode() {
-        return toStateVector().hashCode();
+        return (int) (hash ^ (hash >>> 32));
     }
 
     /**
@@ -229,18 +241,32 @@ public class StateSet extends State {
      * @see Set#containsAll(Collection)
      */
     public boolean containsAll(StateSet other) {
-        return set.containsAll(other.set);
+        long[] ids = other.memberIDs;
+        if (ids.length > memberIDs.length) {
+            return false;
+        }
+        int i = 0;
+        for (long id : ids) {
+            while (i < memberIDs.length && memberIDs[i] < id) {
+                i++;
+            }
+            if (i == memberIDs.length || memberIDs[i] != id) {
+                return false;
+            }
+            i++;
+        }
+        return true;
     }
 
     /** {@inheritDoc} */
     @Override
     public StateSet clone() {
         StateSet ss = new StateSet();
-        ss.set = ObjectUtils.clone(this.set);
+        ss.members = this.members;
+        ss.memberIDs = this.memberIDs;
         ss.maxID = this.maxID;
-        StateVector sv = ss.toStateVector();
-        ss.setID(sv.getID());
-        ss.buildLabel();
+        ss.hash = this.hash;
+        ss.setID(this.getID());
         for (Transition orig : this.getTransitions()) {
             ss.addTransition(orig.clone());
         }
@@ -253,7 +279,7 @@ public class StateSet extends State {
      * @return the {@link Set} view of this {@code StateSet}
      */
     Set<State> getSet() {
-        return Collections.unmodifiableSet(set);
+        return new MemberView();
     }
 
     /**
@@ -269,7 +295,33 @@ public class StateSet extends State {
         } else if (!(other instanceof StateSet ss)) {
             return super.equals(other);
         } else {
-            return this.set.containsAll(ss.set) && ss.set.containsAll(this.set);
+            return this.hash == ss.hash && Arrays.equals(this.memberIDs, ss.memberIDs);
+        }
+    }
+
+    /**
+     * Unmodifiable {@link Set} view of the members of a {@code StateSet}.
+     * 
+     * @since 2.2.0
+     */
+    private class MemberView extends AbstractSet<State> {
+
+        @Override
+        public Iterator<State> iterator() {
+            return IteratorUtils.arrayIterator(members);
+        }
+
+        @Override
+        public int size() {
+            return members.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof State s)) {
+                return false;
+            }
+            return Arrays.binarySearch(memberIDs, s.getID()) >= 0;
         }
     }
 
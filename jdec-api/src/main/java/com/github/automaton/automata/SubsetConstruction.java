@@ -6,6 +6,7 @@
 package com.github.automaton.automata;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 import org.apache.commons.collections4.*;
 
@@ -24,11 +25,35 @@ public class SubsetConstruction extends Automaton {
     private transient final UStructure source;
     /** The controller that the subset construction is built with. */
     private final int controller;
+    /** Whether every state set of this subset construction has been added. */
+    private transient final boolean complete;
 
     SubsetConstruction(JsonObject obj) {
         super(obj);
         source = null;
         controller = -1;
+        complete = true;
+    }
+
+    /**
+     * Constructs a deep copy of the specified subset construction. The copy is
+     * built from the same U-Structure as the original.
+     * 
+     * @param other the subset construction to copy
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @see #clone()
+     * @since 2.2.0
+     */
+    protected SubsetConstruction(SubsetConstruction other) {
+        super(other);
+        this.source = other.source;
+        this.controller = other.controller;
+        this.complete = other.complete;
+        // Subset constructions imported from JSON do not have state sets
+        if (source != null)
+            super.states = MapUtils.predicatedMap(super.states, Objects::nonNull, StateSet.class::isInstance);
     }
 
     /**
@@ -41,6 +66,47 @@ public class SubsetConstruction extends Automaton {
      * @throws NullPointerException      if {@code source} is {@code null}
      */
     SubsetConstruction(UStructure source, int controller) {
+        this(source, controller, null);
+    }
+
+    /**
+     * Builds a new subset construction with precomputed unobservable events.
+     * 
+     * @param source     the U-Structure to build this subset construction with
+     * @param controller the controller to build this subset construction with
+     * @param nullEvents IDs of the events that are unobservable to the
+     *                   controller (as returned by
+     *                   {@link SubsetExplorer#findNullEvents(UStructure, int)}), or
+     *                   {@code null} to find them here. This set is only read.
+     * 
+     * @throws IndexOutOfBoundsException if {@code controller} is out of bounds
+     * @throws NullPointerException      if {@code source} is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    SubsetConstruction(UStructure source, int controller, BitSet nullEvents) {
+        this(source, controller, nullEvents, null);
+    }
+
+    /**
+     * Builds a new subset construction, passing each state set to the
+     * specified visitor as it is added. If the visitor rejects a state set,
+     * the construction stops, and the resulting subset construction is
+     * {@linkplain #isComplete() incomplete}.
+     * 
+     * @param source     the U-Structure to build this subset construction with
+     * @param controller the controller to build this subset construction with
+     * @param nullEvents IDs of the events that are unobservable to the
+     *                   controller, or {@code null} to find them here
+     * @param visitor    the visitor that decides whether the construction
+     *                   continues after each state set, or {@code null}
+     * 
+     * @throws IndexOutOfBoundsException if {@code controller} is out of bounds
+     * @throws NullPointerException      if {@code source} is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    SubsetConstruction(UStructure source, int controller, BitSet nullEvents, Predicate<StateSet> visitor) {
         super(Objects.requireNonNull(source).nControllers);
         this.source = source;
         if (controller < 0 || controller > source.nControllers) {
@@ -49,7 +115,8 @@ public class SubsetConstruction extends Automaton {
         this.controller = controller;
         super.states = MapUtils.predicatedMap(new LinkedHashMap<Long, State>(), Objects::nonNull,
                 StateSet.class::isInstance);
-        buildSubsetConstruction();
+        this.complete = buildSubsetConstruction(
+                nullEvents != null ? nullEvents : SubsetExplorer.findNullEvents(source, controller), visitor);
     }
 
     /**
@@ -70,105 +137,65 @@ public class SubsetConstruction extends Automaton {
         return this.controller;
     }
 
+    /**
+     * Checks whether every state set of this subset construction has been
+     * added, i.e. whether its construction was not stopped by a visitor.
+     * 
+     * @return {@code true} if this subset construction is complete
+     * 
+     * @since 2.2.0
+     */
+    final boolean isComplete() {
+        return this.complete;
+    }
+
     /**
      * Runs subset construction w.r.t. the specified controller
      * 
-     * @param controller the controller to perform subset construction with
+     * @param nullEvents IDs of the events that are unobservable to the
+     *                   controller
+     * @param visitor    the visitor that decides whether the construction
+     *                   continues after each state set, or {@code null}
+     * @return {@code false} if the visitor stopped the construction
+     * 
+     * @revised 2.2.0
      */
-    private void buildSubsetConstruction() {
+    private boolean buildSubsetConstruction(BitSet nullEvents, Predicate<StateSet> visitor) {
 
         this.addAllEvents(source.events);
 
-        Queue<StateSet> stateQueue = new ArrayDeque<>();
-        Set<StateSet> addedStates = new HashSet<>();
-
-        {
-            StateSet initialState = nullClosure(source.getState(source.initialState));
-            this.addStateAt(initialState, true);
-            stateQueue.add(initialState);
-            addedStates.add(initialState);
-        }
+        SubsetExplorer explorer = new SubsetExplorer(source, nullEvents);
+        boolean isInitialState = true;
 
-        while (!stateQueue.isEmpty()) {
-            StateSet u = stateQueue.remove();
-            MultiValuedMap<Event, Long> observableTransitions = u.groupAndGetObservableTransitions(controller);
-            for (Event e : observableTransitions.keys()) {
-                List<State> targetStates = new ArrayList<>();
-                for (long targetStateID : observableTransitions.get(e)) {
-                    targetStates.add(source.getState(targetStateID));
-                }
-                StateSet ss = nullClosure(targetStates);
-                if (!addedStates.contains(ss)) {
-                    this.addStateAt(ss, false);
-                    addedStates.add(ss);
-                }
-                if (!containsTransition(u, e, ss.getID())) {
-                    this.addTransition(u, e.getLabel(), ss);
-                    stateQueue.add(ss);
-                }
+        while (explorer.hasNext()) {
+            StateSet u = explorer.next();
+            this.addStateAt(u, isInitialState);
+            isInitialState = false;
+            for (Map.Entry<Event, StateSet> successor : explorer.getSuccessors().entrySet()) {
+                this.addTransition(u, successor.getKey().getLabel(), successor.getValue());
             }
+            if (visitor != null && !visitor.test(u))
+                return false;
         }
 
         /* Re-number states (by removing empty ones) */
 
         this.renumberStates();
 
-    }
+        return true;
 
-    /**
-     * Performs null closure w.r.t. the specified controller.
-     * 
-     * @param state      state to perform null closure with
-     * @param controller the controller to perform subset construction with
-     */
-    private StateSet nullClosure(State state) {
-        Set<State> indistinguishableStates = new HashSet<>();
-        nullClosure(indistinguishableStates, state);
-        return new StateSet(indistinguishableStates, source.getNumberOfStates());
     }
 
     /**
-     * Performs null closure w.r.t. the specified controller.
+     * Creates and returns a (deep) copy of this subset construction.
      * 
-     * @param states     a list of states that share the same triggering event
-     * @param controller the controller to perform subset construction with
-     */
-    private StateSet nullClosure(List<State> states) {
-        Set<State> indistinguishableStates = new HashSet<>();
-        for (State s : states) {
-            Set<State> tempSet = new HashSet<>();
-            nullClosure(tempSet, s);
-            indistinguishableStates.addAll(tempSet);
-        }
-        return new StateSet(indistinguishableStates, source.getNumberOfStates());
-    }
-
-    /**
-     * Recursively generate set of indistinguishable state.
+     * @return a copy of this subset construction
      * 
-     * @param stateSet   set of states containing indistinguishable states
-     * @param curr       state to process
-     * @param controller the controller to perform subset construction with
+     * @since 2.2.0
      */
-    private void nullClosure(Set<State> stateSet, State curr) {
-        stateSet.add(curr);
-        Iterator<Transition> nullTransitions = IteratorUtils.filteredIterator(
-                curr.getTransitions().iterator(),
-                t -> {
-                    if (t.getEvent().getVector().getLabelAtIndex(controller).equals(Event.EPSILON)) {
-                        return true;
-                    } else if (controller == 0) {
-                        return false;
-                    }
-                    return !t.getEvent().isObservable(controller - 1);
-                });
-        while (nullTransitions.hasNext()) {
-            Transition t = nullTransitions.next();
-            State targetState = source.getState(t.getTargetStateID());
-            if (!stateSet.contains(targetState)) {
-                nullClosure(stateSet, targetState);
-            }
-        }
+    @Override
+    public SubsetConstruction clone() {
+        return new SubsetConstruction(this);
     }
 
     /**
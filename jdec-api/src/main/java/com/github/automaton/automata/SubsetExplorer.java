@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import org.apache.commons.collections4.MultiValuedMap;
+import org.apache.commons.collections4.multimap.HashSetValuedHashMap;
+
+/**
+ * Explores the state sets of the subset construction of a U-Structure on
+ * demand, in breadth-first order.
+ * <p>
+ * Each call to {@link #next()} returns a state set that has not been returned
+ * before, and computes its successors, which can be obtained with
+ * {@link #getSuccessors()}. A {@link SubsetConstruction} is built by
+ * exhausting an explorer, while queries that only need to inspect the state
+ * sets can stop as soon as they have an answer.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see SubsetConstruction
+ * @since 2.2.0
+ */
+final class SubsetExplorer implements Iterator<StateSet> {
+
+    /** The U-Structure to explore */
+    private final UStructure source;
+    /** IDs of the events that are unobservable to the controller */
+    private final BitSet nullEvents;
+    /**
+     * Null closures of states in {@link #source}, indexed by state ID. A closure
+     * is computed at most once per state.
+     */
+    private final Map<Long, State[]> closures;
+    /** State sets that have been discovered so far */
+    private final Set<StateSet> discovered;
+    /** State sets that have been discovered but not returned yet */
+    private final Queue<StateSet> queue;
+    /** Successors of the state set most recently returned by {@link #next()} */
+    private Map<Event, StateSet> successors;
+
+    /**
+     * Constructs a new explorer.
+     *
+     * @param source     the U-Structure to explore
+     * @param nullEvents IDs of the events that are unobservable to the
+     *                   controller, as returned by
+     *                   {@link #findNullEvents(UStructure, int)}. This set is
+     *                   only read.
+     *
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    SubsetExplorer(UStructure source, BitSet nullEvents) {
+        this.source = Objects.requireNonNull(source);
+        this.nullEvents = Objects.requireNonNull(nullEvents);
+        this.closures = new HashMap<>();
+        this.discovered = new HashSet<>();
+        this.queue = new ArrayDeque<>();
+        discover(nullClosure(List.of(source.getState(source.initialState))));
+    }
+
+    /**
+     * Finds the events of a U-Structure that are unobservable to the specified
+     * controller, i.e. the events whose transitions are followed by null
+     * closure.
+     *
+     * @param source     a U-Structure
+     * @param controller the controller
+     * @return IDs of the events that are unobservable to the controller
+     */
+    static BitSet findNullEvents(UStructure source, int controller) {
+        BitSet nullEvents = new BitSet();
+        for (Event e : source.events) {
+            if (e.getVector().getLabelAtIndex(controller).equals(Event.EPSILON)
+                    || (controller > 0 && !e.isObservable(controller - 1))) {
+                nullEvents.set(e.getID());
+            }
+        }
+        return nullEvents;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    /**
+     * Returns the next state set, and computes its successors. The first state
+     * set returned is the initial one.
+     *
+     * @return the next state set
+     *
+     * @throws NoSuchElementException if all state sets have been returned
+     */
+    @Override
+    public StateSet next() {
+        StateSet u = queue.remove();
+        successors = new LinkedHashMap<>();
+        MultiValuedMap<Event, Long> observableTransitions = groupObservableTransitions(u);
+        for (Event e : observableTransitions.keySet()) {
+            List<State> targetStates = new ArrayList<>();
+            for (long targetStateID : observableTransitions.get(e)) {
+                targetStates.add(source.getState(targetStateID));
+            }
+            StateSet ss = nullClosure(targetStates);
+            discover(ss);
+            successors.put(e, ss);
+        }
+        return u;
+    }
+
+    /**
+     * Returns the successors of the state set most recently returned by
+     * {@link #next()}.
+     *
+     * @return map of events to the state sets that they lead to
+     *
+     * @throws IllegalStateException if {@link #next()} has not been called
+     */
+    Map<Event, StateSet> getSuccessors() {
+        if (successors == null)
+            throw new IllegalStateException();
+        return Collections.unmodifiableMap(successors);
+    }
+
+    /**
+     * Queues the specified state set if it has not been discovered yet.
+     *
+     * @param ss a state set
+     */
+    private void discover(StateSet ss) {
+        if (discovered.add(ss))
+            queue.add(ss);
+    }
+
+    /**
+     * Groups the outgoing transitions of the specified state set that are
+     * observable to the controller by their events.
+     *
+     * @param stateSet a state set
+     * @return map of events triggering transitions to the IDs of their target
+     *         states
+     *
+     * @see StateSet#groupAndGetObservableTransitions(int)
+     */
+    private MultiValuedMap<Event, Long> groupObservableTransitions(StateSet stateSet) {
+        MultiValuedMap<Event, Long> groupedTransitions = new HashSetValuedHashMap<>();
+        for (State s : stateSet.getSet()) {
+            forEachTransition(s, false, t -> groupedTransitions.put(t.getEvent(), t.getTargetStateID()));
+        }
+        return groupedTransitions;
+    }
+
+    /**
+     * Performs the specified action on each transition leading out from the
+     * specified state whose event is observable or unobservable to the
+     * controller.
+     * <p>
+     * The transitions of a state with many transitions are read from its
+     * {@linkplain State#getIndexedTransitions() per-event index}, so that the
+     * observability of each event is checked once per state rather than once
+     * per transition. The index of a state is built once and shared by the
+     * explorers of all controllers.
+     *
+     * @param s            a state
+     * @param unobservable whether to visit the transitions whose events are
+     *                     unobservable to the controller, rather than the
+     *                     observable ones
+     * @param action       the action to perform on each transition
+     */
+    private void forEachTransition(State s, boolean unobservable, Consumer<Transition> action) {
+        Map<Event, List<Transition>> index = s.getIndexedTransitions();
+        if (index == null) {
+            for (Transition t : s.getTransitions()) {
+                if (nullEvents.get(t.getEvent().getID()) == unobservable)
+                    action.accept(t);
+            }
+            return;
+        }
+        for (Map.Entry<Event, List<Transition>> group : index.entrySet()) {
+            if (nullEvents.get(group.getKey().getID()) == unobservable)
+                group.getValue().forEach(action);
+        }
+    }
+
+    /**
+     * Performs null closure on the specified states.
+     *
+     * @param states a list of states that share the same triggering event
+     * @return the set of states that are indistinguishable from them
+     */
+    private StateSet nullClosure(List<State> states) {
+        Set<State> indistinguishableStates = new HashSet<>();
+        for (State s : states) {
+            Collections.addAll(indistinguishableStates, nullClosureOf(s));
+        }
+        return new StateSet(indistinguishableStates, source.getNumberOfStates());
+    }
+
+    /**
+     * Returns the set of states reachable from the specified state via
+     * transitions that are unobservable to the controller, including the
+     * state itself. Closures are memoized, and closures computed earlier are
+     * reused when they are reached.
+     *
+     * @param state state to perform null closure with
+     * @return the null closure of the specified state
+     */
+    private State[] nullClosureOf(State state) {
+        State[] closure = closures.get(state.getID());
+        if (closure != null) {
+            return closure;
+        }
+        Set<State> stateSet = new HashSet<>();
+        Deque<State> stack = new ArrayDeque<>();
+        stack.push(state);
+        while (!stack.isEmpty()) {
+            State curr = stack.pop();
+            if (!stateSet.add(curr)) {
+                continue;
+            }
+            State[] known = curr == state ? null : closures.get(curr.getID());
+            if (known != null) {
+                Collections.addAll(stateSet, known);
+                continue;
+            }
+            forEachTransition(curr, true, t -> {
+                State targetState = source.getState(t.getTargetStateID());
+                if (!stateSet.contains(targetState)) {
+                    stack.push(targetState);
+                }
+            });
+        }
+        closure = stateSet.toArray(State[]::new);
+        closures.put(state.getID(), closure);
+        return closure;
+    }
+}
@@ -0,0 +1,707 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.logging.log4j.*;
+
+/**
+ * Builds the U-Structure of a {@link CompactAutomaton} by synchronized
+ * composition.
+ * <p>
+ * Each state of the U-Structure is a tuple of states of the automaton. During
+ * the exploration, tuples are handled as {@code int} arrays that are packed
+ * into a single {@code long} key (in mixed radix, whenever the number of
+ * possible tuples fits in a {@code long}), and the label vector of each event
+ * of the U-Structure is only built once. {@link State} objects and their
+ * labels are only created for tuples that are added to the U-Structure.
+ * <p>
+ * The successors of each state are first computed without modifying any
+ * shared data, and are then added to the U-Structure. This allows the
+ * successors of all states in a level to be computed concurrently when
+ * {@linkplain CompositionOptions#parallel() parallel mode} is selected.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see AutomataOperations#synchronizedComposition(CompactAutomaton)
+ * @since 2.2.0
+ */
+final class SynchronizedComposition {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Minimum number of states in a level for it to be explored in parallel */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /** Flag for successors that are reached by a conditional violation */
+    private static final int CONDITIONAL_VIOLATION = 1;
+    /** Flag for successors that are reached by an unconditional violation */
+    private static final int UNCONDITIONAL_VIOLATION = 2;
+    /** Flag for successors whose source is an illegal configuration */
+    private static final int ILLEGAL_CONFIG = 4;
+
+    /** The automaton to build the U-Structure from */
+    private final CompactAutomaton automaton;
+    /** Number of controllers */
+    private final int nControllers;
+    /** Number of components in each tuple */
+    private final int width;
+    /** The U-Structure being built */
+    private final UStructure uStructure;
+
+    /** Index of the discovered tuples, or {@code null} if tuples cannot be packed */
+    private final LongIntMap packedIndices;
+    /** Index of the discovered tuples, used if tuples cannot be packed */
+    private final Map<StateTuple, Integer> tupleIndices;
+    /** Components of the discovered tuples, stored contiguously */
+    private int[] tuples;
+    /** The U-Structure states, indexed by tuple index */
+    private final List<State> states = new ArrayList<>();
+
+    /** Indices of the tuples that are yet to be explored */
+    private int[] stack = new int[16];
+    /** Number of elements in the stack */
+    private int stackSize = 0;
+
+    /** Scratch space for a tuple of states */
+    private final int[] targets;
+
+    /**
+     * IDs of the U-Structure events for each observable transition, indexed by
+     * event index ({@code 0} if the event has not been added yet)
+     */
+    private final int[] observableEventIDs;
+    /**
+     * IDs of the U-Structure events for each unobservable transition, indexed by
+     * event index and controller ({@code 0} if the event has not been added yet)
+     */
+    private final int[] unobservableEventIDs;
+
+    /**
+     * A tuple of state indices that identifies a state in the U-Structure. This
+     * is only used if the tuples cannot be packed into a {@code long}.
+     *
+     * @param states the state indices
+     */
+    private record StateTuple(int[] states) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StateTuple other && Arrays.equals(states, other.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(states);
+        }
+    }
+
+    /**
+     * The successors of a state in the U-Structure. The tuple of the
+     * {@code k}-th successor is stored in {@code targets}, starting from
+     * {@code k * width}.
+     */
+    private static final class Successors {
+        /** Number of components in each tuple */
+        private final int width;
+        /** Number of successors */
+        private int size = 0;
+        /** Tuples of the successors */
+        private int[] targets;
+        /**
+         * Events of the successors: an event index for observable transitions, or
+         * {@code -(1 + e * nControllers + i)} for unobservable transitions with
+         * the event index {@code e} in the controller {@code i}
+         */
+        private int[] events = new int[4];
+        /** Violation flags of the successors */
+        private int[] flags = new int[4];
+
+        /**
+         * Constructs a new empty {@code Successors}.
+         *
+         * @param width the number of components in each tuple
+         */
+        Successors(int width) {
+            this.width = width;
+            this.targets = new int[4 * width];
+        }
+
+        /**
+         * Reserves space for the next successor.
+         *
+         * @return the offset of the tuple of the next successor
+         */
+        int next() {
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+                targets = Arrays.copyOf(targets, size * 2 * width);
+            }
+            return size * width;
+        }
+
+        /**
+         * Adds the successor whose tuple has been written at the offset returned
+         * by {@link #next()}.
+         *
+         * @param event the event of the successor
+         * @param flag  the violation flags of the successor
+         */
+        void commit(int event, int flag) {
+            events[size] = event;
+            flags[size] = flag;
+            size++;
+        }
+    }
+
+    /**
+     * Constructs a new {@code SynchronizedComposition}.
+     *
+     * @param automaton the automaton to build the U-Structure from
+     */
+    private SynchronizedComposition(CompactAutomaton automaton) {
+        this.automaton = automaton;
+        this.nControllers = automaton.getNumberOfControllers();
+        this.width = nControllers + 1;
+        this.uStructure = new UStructure(nControllers);
+        this.tuples = new int[16 * width];
+        this.targets = new int[width];
+        this.observableEventIDs = new int[automaton.getEvents().size()];
+        this.unobservableEventIDs = new int[automaton.getEvents().size() * nControllers];
+        if (canPack(automaton.getNumberOfStates(), width)) {
+            this.packedIndices = new LongIntMap();
+            this.tupleIndices = null;
+        } else {
+            this.packedIndices = null;
+            this.tupleIndices = new HashMap<>();
+        }
+    }
+
+    /**
+     * Applies the synchronized composition algorithm to the specified automaton.
+     *
+     * @param automaton a compact automaton
+     * @return the U-Structure
+     *
+     * @throws NoInitialStateException if there was no starting state
+     * @throws NullPointerException    if argument is {@code null}
+     */
+    static UStructure build(CompactAutomaton automaton) {
+        return build(automaton, CompositionOptions.sequential());
+    }
+
+    /**
+     * Applies the synchronized composition algorithm to the specified automaton
+     * with the specified options.
+     *
+     * @param automaton a compact automaton
+     * @param options   the options
+     * @return the U-Structure
+     *
+     * @throws NoInitialStateException if there was no starting state
+     * @throws NullPointerException    if any argument is {@code null}
+     */
+    static UStructure build(CompactAutomaton automaton, CompositionOptions options) {
+
+        Objects.requireNonNull(options);
+        if (Objects.requireNonNull(automaton).getInitialState() < 0) {
+            throw new NoInitialStateException("No starting state");
+        }
+
+        SynchronizedComposition composition = new SynchronizedComposition(automaton);
+        if (!options.isParallel())
+            composition.explore();
+        else if (options.getParallelism() == 0)
+            composition.explore(ForkJoinPool.commonPool());
+        else {
+            ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+            try {
+                composition.explore(pool);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return composition.finish();
+    }
+
+    /**
+     * Checks whether every tuple of the specified width can be packed into a
+     * non-negative {@code long}.
+     *
+     * @param nStates the number of states
+     * @param width   the number of components in each tuple
+     * @return {@code true} if the tuples can be packed
+     */
+    private static boolean canPack(int nStates, int width) {
+        long combinations = 1;
+        for (int i = 0; i < width; i++) {
+            if (combinations > Long.MAX_VALUE / Math.max(nStates, 1))
+                return false;
+            combinations *= Math.max(nStates, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the initial state to the U-Structure and to the stack.
+     */
+    private void addInitialState() {
+        Arrays.fill(targets, automaton.getInitialState());
+        uStructure.addStateAt(states.get(getOrAddState(targets, 0)), true);
+    }
+
+    /**
+     * Explores the U-Structure depth-first.
+     */
+    private void explore() {
+
+        addInitialState();
+
+        /* Continue until the stack is empty */
+
+        while (stackSize > 0) {
+            int index = stack[--stackSize];
+            addSuccessors(index, computeSuccessors(index));
+        }
+
+    }
+
+    /**
+     * Explores the U-Structure level by level, computing the successors of the
+     * states in each level in parallel.
+     *
+     * @param pool the pool to compute the successors in
+     */
+    private void explore(ForkJoinPool pool) {
+
+        addInitialState();
+
+        /* The stack holds the states of the next level, in order of discovery */
+
+        while (stackSize > 0) {
+
+            int[] level = Arrays.copyOf(stack, stackSize);
+            stackSize = 0;
+
+            Successors[] successors = new Successors[level.length];
+            if (level.length < PARALLEL_THRESHOLD) {
+                for (int i = 0; i < level.length; i++)
+                    successors[i] = computeSuccessors(level[i]);
+            } else {
+                // Tuples are only read while the successors are being computed
+                pool.submit(() -> IntStream.range(0, level.length).parallel()
+                        .forEach(i -> successors[i] = computeSuccessors(level[i]))).join();
+            }
+
+            for (int i = 0; i < level.length; i++)
+                addSuccessors(level[i], successors[i]);
+
+        }
+
+    }
+
+    /**
+     * Removes the dump state and renumbers the states of the U-Structure.
+     *
+     * @return the U-Structure
+     */
+    private UStructure finish() {
+
+        /* Filter dump state */
+
+        for (int s = 0; s < automaton.getNumberOfStates(); s++) {
+            if (Objects.equals(automaton.getLabel(s), Automaton.DUMP_STATE_LABEL)) {
+                Arrays.fill(targets, s);
+                int dumpIndex = indexOf(targets, 0);
+                if (dumpIndex >= 0)
+                    uStructure.removeState(states.get(dumpIndex).getID());
+                break;
+            }
+        }
+
+        /* Re-number states (by removing empty ones) */
+
+        uStructure.renumberStates();
+
+        return uStructure;
+
+    }
+
+    /**
+     * Computes the successors of the specified state. This method does not modify
+     * any shared data.
+     *
+     * @param index the index of a tuple
+     * @return the successors of the tuple
+     */
+    private Successors computeSuccessors(int index) {
+
+        int[] curr = Arrays.copyOfRange(tuples, index * width, (index + 1) * width);
+        Successors successors = new Successors(width);
+
+        // For each transition in the system automaton
+        outer: for (int t1 = automaton.outgoingStart(curr[0]); t1 < automaton.outgoingEnd(curr[0]); t1++) {
+
+            int e = automaton.getEventOf(t1);
+            Event event = automaton.getEvent(e);
+
+            int offset = successors.next();
+            int[] buffer = successors.targets;
+            buffer[offset] = automaton.getTarget(t1);
+
+            // For each controller
+            for (int i = 0; i < nControllers; i++) {
+
+                // Observable events by this controller
+                if (event.isObservable(i)) {
+
+                    // If the event is observable, but not possible at this current time, then we
+                    // can skip this altogether
+                    int target = -1;
+                    for (int t2 = automaton.outgoingStart(curr[i + 1]); t2 < automaton.outgoingEnd(curr[i + 1]); t2++)
+                        if (automaton.getEventOf(t2) == e)
+                            target = automaton.getTarget(t2);
+                    if (target < 0)
+                        continue outer;
+
+                    buffer[offset + i + 1] = target;
+
+                // Unobservable events by this controller
+                } else {
+                    buffer[offset + i + 1] = curr[i + 1];
+                }
+
+            }
+
+            /*
+             * Check control configurations: a violation requires a controllable event
+             * that every controller can execute in its current state
+             */
+            boolean isViolation = BooleanUtils.or(event.isControllable());
+            for (int i = 1; isViolation && i <= nControllers; i++)
+                if (!automaton.hasTransitionWithEvent(curr[i], e))
+                    isViolation = false;
+
+            int flag = 0;
+            if (isViolation && automaton.isBadTransition(t1)) {
+                flag = UNCONDITIONAL_VIOLATION | ILLEGAL_CONFIG;
+                for (int i = 1; (flag & ILLEGAL_CONFIG) != 0 && i <= nControllers; i++)
+                    if (automaton.hasBadTransitionWithEvent(curr[i], e))
+                        flag &= ~ILLEGAL_CONFIG;
+            } else if (isViolation) {
+                flag = CONDITIONAL_VIOLATION | ILLEGAL_CONFIG;
+                for (int i = 1; (flag & ILLEGAL_CONFIG) != 0 && i <= nControllers; i++)
+                    if (!automaton.hasBadTransitionWithEvent(curr[i], e))
+                        flag &= ~ILLEGAL_CONFIG;
+            }
+
+            successors.commit(e, flag);
+
+        }
+
+        // For each unobservable transition in the each of the controllers
+        for (int i = 0; i < nControllers; i++) {
+
+            for (int t = automaton.outgoingStart(curr[i + 1]); t < automaton.outgoingEnd(curr[i + 1]); t++) {
+
+                int e = automaton.getEventOf(t);
+                if (automaton.getEvent(e).isObservable(i))
+                    continue;
+
+                int offset = successors.next();
+                System.arraycopy(curr, 0, successors.targets, offset, width);
+                successors.targets[offset + i + 1] = automaton.getTarget(t);
+                successors.commit(-(1 + e * nControllers + i), 0);
+
+            }
+
+        }
+
+        return successors;
+
+    }
+
+    /**
+     * Adds the specified successors of the specified state to the U-Structure.
+     *
+     * @param index      the index of a tuple
+     * @param successors the successors of the tuple
+     */
+    private void addSuccessors(int index, Successors successors) {
+
+        State currState = states.get(index);
+
+        for (int k = 0; k < successors.size; k++) {
+
+            int event = successors.events[k];
+
+            // Unobservable transition
+            if (event < 0) {
+                int code = -event - 1;
+                int eventID = getUnobservableEventID(code / nControllers, code % nControllers);
+                State targetState = states.get(getOrAddState(successors.targets, k * width));
+                if (addTransition(currState, eventID, targetState) == 0)
+                    logger.error("Failed to add transition.");
+                continue;
+            }
+
+            int eventID = getObservableEventID(event);
+            State targetState = states.get(getOrAddState(successors.targets, k * width));
+            eventID = addTransition(currState, eventID, targetState);
+
+            String label = automaton.getEvent(event).getLabel();
+            int flag = successors.flags[k];
+            if ((flag & UNCONDITIONAL_VIOLATION) != 0) {
+                uStructure.addUnconditionalViolation(currState.getID(), eventID, targetState.getID());
+                currState.setDisablementOf(label);
+            }
+            if ((flag & CONDITIONAL_VIOLATION) != 0) {
+                uStructure.addConditionalViolation(currState.getID(), eventID, targetState.getID());
+                currState.setEnablementOf(label);
+            }
+            if ((flag & ILLEGAL_CONFIG) != 0)
+                currState.setIllegalConfigOf(label);
+
+        }
+
+    }
+
+    /**
+     * Returns the ID of the U-Structure event for the observable transitions
+     * with the specified event, adding it to the U-Structure if necessary.
+     *
+     * @param e an event index
+     * @return the ID of the U-Structure event
+     */
+    private int getObservableEventID(int e) {
+        if (observableEventIDs[e] == 0) {
+            Event event = automaton.getEvent(e);
+            String[] combinedEvent = new String[width];
+            combinedEvent[0] = event.getLabel();
+            boolean[] observable = new boolean[nControllers];
+            boolean[] controllable = new boolean[nControllers];
+            for (int i = 0; i < nControllers; i++) {
+                observable[i] = event.isObservable(i);
+                controllable[i] = observable[i] && event.isControllable(i);
+                combinedEvent[i + 1] = observable[i] ? event.getLabel() : Event.EPSILON;
+            }
+            observableEventIDs[e] = addEvent(combinedEvent, observable, controllable);
+        }
+        return observableEventIDs[e];
+    }
+
+    /**
+     * Returns the ID of the U-Structure event for the unobservable transitions
+     * with the specified event in the specified controller, adding it to the
+     * U-Structure if necessary.
+     *
+     * @param e          an event index
+     * @param controller a controller
+     * @return the ID of the U-Structure event
+     */
+    private int getUnobservableEventID(int e, int controller) {
+        int index = e * nControllers + controller;
+        if (unobservableEventIDs[index] == 0) {
+            Event event = automaton.getEvent(e);
+            String[] combinedEvent = new String[width];
+            Arrays.fill(combinedEvent, Event.EPSILON);
+            combinedEvent[controller + 1] = event.getLabel();
+            boolean[] observable = new boolean[nControllers];
+            boolean[] controllable = new boolean[nControllers];
+            controllable[controller] = event.isControllable(controller);
+            unobservableEventIDs[index] = addEvent(combinedEvent, observable, controllable);
+        }
+        return unobservableEventIDs[index];
+    }
+
+    /**
+     * Adds the event with the specified label vector to the U-Structure if it
+     * does not already exist.
+     *
+     * @param combinedEvent the components of the label vector
+     * @param observable    whether the event is observable by each controller
+     * @param controllable  whether the event is controllable by each controller
+     * @return the ID of the event
+     */
+    private int addEvent(String[] combinedEvent, boolean[] observable, boolean[] controllable) {
+        return Math.abs(uStructure.addEventIfNonExisting(new LabelVector(combinedEvent), observable, controllable));
+    }
+
+    /**
+     * Adds a transition to the U-Structure.
+     *
+     * @param source  the source state
+     * @param eventID the ID of the event
+     * @param target  the target state
+     * @return {@code eventID}, or {@code 0} if the addition was unsuccessful
+     */
+    private int addTransition(State source, int eventID, State target) {
+        return uStructure.addTransition(source.getID(), eventID, target.getID()) ? eventID : 0;
+    }
+
+    /**
+     * Packs the specified tuple into a {@code long}.
+     *
+     * @param buffer an array that contains a tuple of state indices
+     * @param offset the offset of the tuple in the array
+     * @return the packed tuple
+     */
+    private long pack(int[] buffer, int offset) {
+        long key = 0;
+        for (int i = offset; i < offset + width; i++)
+            key = key * automaton.getNumberOfStates() + buffer[i];
+        return key;
+    }
+
+    /**
+     * Returns the index of the specified tuple.
+     *
+     * @param buffer an array that contains a tuple of state indices
+     * @param offset the offset of the tuple in the array
+     * @return the index of the tuple, or {@code -1} if it has not been discovered
+     */
+    private int indexOf(int[] buffer, int offset) {
+        if (packedIndices != null)
+            return packedIndices.get(pack(buffer, offset));
+        return tupleIndices.getOrDefault(new StateTuple(Arrays.copyOfRange(buffer, offset, offset + width)), -1);
+    }
+
+    /**
+     * Returns the index of the specified tuple. If the tuple has not been
+     * discovered yet, its state is added to the U-Structure and its index is
+     * pushed onto the stack.
+     *
+     * @param buffer an array that contains a tuple of state indices
+     * @param offset the offset of the tuple in the array
+     * @return the index of the tuple
+     *
+     * @throws OperationFailedException if the state could not be added
+     */
+    private int getOrAddState(int[] buffer, int offset) {
+
+        int index = indexOf(buffer, offset);
+        if (index >= 0)
+            return index;
+
+        index = states.size();
+        if (packedIndices != null)
+            packedIndices.put(pack(buffer, offset), index);
+        else
+            tupleIndices.put(new StateTuple(Arrays.copyOfRange(buffer, offset, offset + width)), index);
+
+        if ((index + 1) * width > tuples.length)
+            tuples = Arrays.copyOf(tuples, tuples.length * 2);
+        System.arraycopy(buffer, offset, tuples, index * width, width);
+
+        State state = createState(index, index + 1L);
+        states.add(state);
+        // The initial state is added by the caller so that it can be flagged as such
+        if (index > 0 && !uStructure.addStateAt(state, false)) {
+            throw new OperationFailedException("Failed to add state");
+        }
+
+        if (stackSize == stack.length)
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = index;
+
+        return index;
+    }
+
+    /**
+     * Creates a new U-Structure state for the specified tuple.
+     *
+     * @param index the index of a tuple
+     * @param id    the ID of the new state
+     * @return the new state
+     */
+    private State createState(int index, long id) {
+        StringBuilder labelBuilder = new StringBuilder();
+        for (int i = index * width; i < (index + 1) * width; i++) {
+            labelBuilder.append('_');
+            labelBuilder.append(automaton.getLabel(tuples[i]));
+        }
+        labelBuilder.deleteCharAt(0);
+        return new State(labelBuilder.toString(), id, false);
+    }
+
+    /**
+     * A hash map from {@code long} keys to non-negative {@code int} values, using
+     * open addressing with linear probing.
+     *
+     * @since 2.2.0
+     */
+    private static final class LongIntMap {
+
+        private long[] keys = new long[64];
+        private int[] values = new int[64];
+        private int size = 0;
+
+        /** Constructs a new empty map. */
+        LongIntMap() {
+            Arrays.fill(values, -1);
+        }
+
+        /**
+         * Returns the slot where the specified key is or would be stored.
+         *
+         * @param key a key
+         * @return the slot
+         */
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (values[slot] >= 0 && keys[slot] != key)
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        /**
+         * Returns the value associated with the specified key.
+         *
+         * @param key a key
+         * @return the associated value, or {@code -1} if there is none
+         */
+        int get(long key) {
+            return values[slot(key)];
+        }
+
+        /**
+         * Associates the specified value with the specified key.
+         *
+         * @param key   a key
+         * @param value a non-negative value
+         */
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length)
+                resize();
+            int slot = slot(key);
+            if (values[slot] < 0)
+                size++;
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /** Doubles the capacity of this map. */
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(values, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
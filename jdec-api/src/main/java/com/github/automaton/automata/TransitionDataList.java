@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+/**
+ * A list of special transitions that is indexed by hash and by initial state.
+ * <p>
+ * Elements are kept in insertion order, so that the list is serialized exactly
+ * as a plain {@link ArrayList} would be. In addition, this list maintains a
+ * hash index of its elements, so that {@link #contains(Object)} and
+ * {@link #remove(Object)} on absent elements run in constant time, and an index
+ * from initial state IDs to the transitions that start there. Elements that are
+ * removed are looked up through the latter, and then located in the list by
+ * identity, so only the transitions from the same state are compared with
+ * {@code equals}.
+ * <p>
+ * {@link TransitionData} is mutable. If an element is modified in place while
+ * it is in this list (e.g. when states are renumbered), {@link #reindex()}
+ * must be called afterwards.
+ *
+ * @param <T> type of transition data
+ *
+ * @author Sung Ho Yoon
+ *
+ * @since 2.2.0
+ */
+public final class TransitionDataList<T extends TransitionData> extends AbstractList<T> implements RandomAccess {
+
+    /** The elements, in insertion order */
+    private final ArrayList<T> elements;
+    /** Number of occurrences of each element */
+    private final Map<T, Integer> counts;
+    /** Elements grouped by initial state ID, each group in list order */
+    private final Map<Long, List<T>> bySource;
+
+    /**
+     * Constructs an empty list.
+     */
+    public TransitionDataList() {
+        elements = new ArrayList<>();
+        counts = new HashMap<>();
+        bySource = new HashMap<>();
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection, in
+     * the order they are returned by its iterator.
+     *
+     * @param c the collection whose elements are to be placed into this list
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public TransitionDataList(Collection<? extends T> c) {
+        elements = new ArrayList<>(c);
+        counts = new HashMap<>();
+        bySource = new HashMap<>();
+        reindex();
+    }
+
+    @Override
+    public T get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return counts.containsKey(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return contains(o) ? elements.indexOf(o) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return contains(o) ? elements.lastIndexOf(o) : -1;
+    }
+
+    @Override
+    public boolean add(T e) {
+        Objects.requireNonNull(e);
+        elements.add(e);
+        counts.merge(e, 1, Integer::sum);
+        bySource.computeIfAbsent(e.initialStateID, k -> new ArrayList<>()).add(e);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, T e) {
+        Objects.requireNonNull(e);
+        if (index == elements.size()) {
+            add(e);
+            return;
+        }
+        elements.add(index, e);
+        counts.merge(e, 1, Integer::sum);
+        rebuildSource(e.initialStateID);
+        modCount++;
+    }
+
+    @Override
+    public T set(int index, T e) {
+        Objects.requireNonNull(e);
+        T old = elements.set(index, e);
+        decrementCount(old);
+        counts.merge(e, 1, Integer::sum);
+        rebuildSource(old.initialStateID);
+        rebuildSource(e.initialStateID);
+        return old;
+    }
+
+    @Override
+    public T remove(int index) {
+        T old = elements.remove(index);
+        unindex(old);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o))
+            return false;
+        // The first equal element in the group of its initial state is also the
+        // first equal element in this list
+        for (T e : getBySource(((TransitionData) o).initialStateID)) {
+            if (e.equals(o)) {
+                remove(indexOfInstance(e));
+                return true;
+            }
+        }
+        throw new IllegalStateException("Index is out of date");
+    }
+
+    /**
+     * Removes all elements that represent the same transition as the specified
+     * transition data, regardless of their type. Unlike {@link #remove(Object)},
+     * this also removes subclass instances such as {@link CommunicationData},
+     * which are never equal to a plain {@link TransitionData}.
+     *
+     * @param data the transition to remove
+     * @return {@code true} if any element was removed
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public boolean removeTransition(TransitionData data) {
+        Set<T> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (T e : getBySource(data.initialStateID)) {
+            if (e.eventID == data.eventID && e.targetStateID == data.targetStateID)
+                matches.add(e);
+        }
+        if (matches.isEmpty())
+            return false;
+        if (matches.size() == 1)
+            elements.remove(indexOfInstance(matches.iterator().next()));
+        else
+            elements.removeIf(matches::contains);
+        for (T e : matches)
+            unindex(e);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        counts.clear();
+        bySource.clear();
+        modCount++;
+    }
+
+    /**
+     * Returns the transitions in this list that start from the specified state,
+     * in list order.
+     *
+     * @param initialStateID the ID of the initial state
+     * @return an unmodifiable list of transitions from the specified state
+     */
+    public List<T> getBySource(long initialStateID) {
+        List<T> group = bySource.get(initialStateID);
+        return group == null ? Collections.emptyList() : Collections.unmodifiableList(group);
+    }
+
+    /**
+     * Checks whether this list contains a transition from the specified state
+     * that is triggered by the specified event.
+     *
+     * @param initialStateID the ID of the initial state
+     * @param eventID        the ID of the event
+     * @return {@code true} if such a transition is in this list
+     */
+    public boolean containsFrom(long initialStateID, int eventID) {
+        for (T data : getBySource(initialStateID)) {
+            if (data.eventID == eventID)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of this list in which every element is
+     * {@linkplain TransitionData#clone() cloned}.
+     *
+     * @return a deep copy of this list
+     */
+    @SuppressWarnings("unchecked")
+    TransitionDataList<T> deepCopy() {
+        TransitionDataList<T> copy = new TransitionDataList<>();
+        copy.elements.ensureCapacity(elements.size());
+        for (T e : elements)
+            copy.add((T) e.clone());
+        return copy;
+    }
+
+    /**
+     * Rebuilds the indices of this list. This must be called after any element
+     * has been modified in place.
+     */
+    public void reindex() {
+        counts.clear();
+        bySource.clear();
+        for (T e : elements) {
+            counts.merge(e, 1, Integer::sum);
+            bySource.computeIfAbsent(e.initialStateID, k -> new ArrayList<>()).add(e);
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element,
+     * comparing by identity instead of {@link TransitionData#equals(Object)}.
+     *
+     * @param e an element of this list
+     * @return the index of the element
+     *
+     * @throws IllegalStateException if the element is not in {@link #elements},
+     *                               which means the indices are out of date
+     */
+    private int indexOfInstance(T e) {
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) == e)
+                return i;
+        }
+        throw new IllegalStateException("Index is out of date");
+    }
+
+    /**
+     * Removes a single occurrence of an element from the indices.
+     *
+     * @param e the element that has been removed from {@link #elements}
+     */
+    private void unindex(T e) {
+        decrementCount(e);
+        List<T> group = bySource.get(e.initialStateID);
+        if (group != null) {
+            group.remove(e);
+            if (group.isEmpty())
+                bySource.remove(e.initialStateID);
+        }
+    }
+
+    /**
+     * Decrements the number of occurrences of an element.
+     *
+     * @param e an element
+     */
+    private void decrementCount(T e) {
+        counts.computeIfPresent(e, (k, v) -> v == 1 ? null : v - 1);
+    }
+
+    /**
+     * Rebuilds the group of transitions that start from the specified state, so
+     * that it follows list order.
+     *
+     * @param initialStateID the ID of the initial state
+     */
+    private void rebuildSource(long initialStateID) {
+        List<T> group = new ArrayList<>();
+        for (T e : elements) {
+            if (e.initialStateID == initialStateID)
+                group.add(e);
+        }
+        if (group.isEmpty())
+            bySource.remove(initialStateID);
+        else
+            bySource.put(initialStateID, group);
+    }
+}
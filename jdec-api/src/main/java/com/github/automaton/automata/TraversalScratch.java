@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata;
+
+import java.util.*;
+
+/**
+ * Reusable working memory for depth-first traversals over the states of an
+ * automaton, by state ID.
+ * <p>
+ * A scratch holds the set of visited states, an explicit stack of states
+ * each of which has a cursor that marks how many of its transitions have been
+ * traversed, and the list of states that the traversal has found. Traversals
+ * that use a scratch do not recurse, so their depth is not limited by the size
+ * of the call stack, and traversals that reuse a scratch do not allocate memory
+ * once it has grown large enough.
+ * <p>
+ * A scratch is not thread-safe.
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see ProtocolPruner
+ * @since 2.2.0
+ */
+final class TraversalScratch {
+
+    /** The visited states */
+    private final BitSet visited;
+    /** States on the stack */
+    private int[] states;
+    /** Cursor of each state on the stack */
+    private int[] cursors;
+    /** Number of states on the stack */
+    private int size;
+    /** States that have been found, in the order they were found */
+    private int[] found;
+    /** Number of states that have been found */
+    private int nFound;
+
+    /**
+     * Constructs a new scratch.
+     *
+     * @param nStates the expected number of states
+     *
+     * @throws NegativeArraySizeException if argument is negative
+     */
+    TraversalScratch(int nStates) {
+        this.visited = new BitSet(nStates + 1);
+        this.states = new int[Math.max(16, nStates + 1)];
+        this.cursors = new int[states.length];
+        this.found = new int[states.length];
+    }
+
+    /**
+     * Prepares this scratch for a new traversal, by forgetting all visited and
+     * found states and emptying the stack.
+     */
+    void clear() {
+        visited.clear();
+        size = 0;
+        nFound = 0;
+    }
+
+    /**
+     * Marks a state as visited.
+     *
+     * @param stateID the ID of a state
+     * @return {@code true} if the state had not been visited before
+     */
+    boolean visit(int stateID) {
+        if (visited.get(stateID))
+            return false;
+        visited.set(stateID);
+        return true;
+    }
+
+    /**
+     * Checks whether a state has been visited.
+     *
+     * @param stateID the ID of a state
+     * @return {@code true} if the state has been visited
+     */
+    boolean isVisited(int stateID) {
+        return visited.get(stateID);
+    }
+
+    /**
+     * Returns the visited state with the smallest ID that is greater than or
+     * equal to the specified ID.
+     *
+     * @param fromStateID the ID to start from
+     * @return the ID of the visited state, or {@code -1} if there is no such state
+     */
+    int nextVisited(int fromStateID) {
+        return visited.nextSetBit(fromStateID);
+    }
+
+    /**
+     * Pushes a state onto the stack, with its cursor at {@code 0}.
+     *
+     * @param stateID the ID of a state
+     */
+    void push(int stateID) {
+        if (size == states.length) {
+            states = Arrays.copyOf(states, size * 2);
+            cursors = Arrays.copyOf(cursors, size * 2);
+        }
+        states[size] = stateID;
+        cursors[size++] = 0;
+    }
+
+    /**
+     * Removes the state on top of the stack.
+     *
+     * @return the ID of the state that was removed
+     *
+     * @throws ArrayIndexOutOfBoundsException if the stack is empty
+     */
+    int pop() {
+        return states[--size];
+    }
+
+    /**
+     * Returns the state on top of the stack.
+     *
+     * @return the ID of the state on top of the stack
+     *
+     * @throws ArrayIndexOutOfBoundsException if the stack is empty
+     */
+    int peek() {
+        return states[size - 1];
+    }
+
+    /**
+     * Advances the cursor of the state on top of the stack.
+     *
+     * @return the cursor before it was advanced
+     *
+     * @throws ArrayIndexOutOfBoundsException if the stack is empty
+     */
+    int advance() {
+        return cursors[size - 1]++;
+    }
+
+    /**
+     * Adds a state to the states that have been found.
+     *
+     * @param stateID the ID of a state
+     */
+    void addFound(int stateID) {
+        if (nFound == found.length)
+            found = Arrays.copyOf(found, nFound * 2);
+        found[nFound++] = stateID;
+    }
+
+    /**
+     * Returns the number of states that have been found.
+     *
+     * @return the number of states that have been found
+     */
+    int getNumberOfFound() {
+        return nFound;
+    }
+
+    /**
+     * Returns a state that has been found.
+     *
+     * @param index the index of the state, in the order the states were found
+     * @return the ID of the state
+     *
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    int getFound(int index) {
+        return found[index];
+    }
+
+    /**
+     * Checks whether the stack is empty.
+     *
+     * @return {@code true} if the stack is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -11,7 +11,6 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.logging.log4j.*;
 
-import com.github.automaton.automata.util.PowerSetUtils;
 import com.github.automaton.io.json.JsonUtils;
 import com.google.gson.*;
 
@@ -39,12 +38,12 @@ public class UStructure extends Automaton {
     /* INSTANCE VARIABLES */
 
     // Special transitions
-    protected List<TransitionData> unconditionalViolations;
-    protected List<TransitionData> conditionalViolations;
-    protected List<CommunicationData> potentialCommunications;
-    protected List<TransitionData> invalidCommunications;
-    protected List<NashCommunicationData> nashCommunications;
-    protected List<DisablementData> disablementDecisions;
+    protected TransitionDataList<TransitionData> unconditionalViolations;
+    protected TransitionDataList<TransitionData> conditionalViolations;
+    protected TransitionDataList<CommunicationData> potentialCommunications;
+    protected TransitionDataList<TransitionData> invalidCommunications;
+    protected TransitionDataList<NashCommunicationData> nashCommunications;
+    protected TransitionDataList<DisablementData> disablementDecisions;
 
     /* CONSTRUCTORS */
 
@@ -81,12 +80,12 @@ public class UStructure extends Automaton {
 
         super.initializeLists();
 
-        unconditionalViolations = new ArrayList<TransitionData>();
-        conditionalViolations = new ArrayList<TransitionData>();
-        potentialCommunications = new ArrayList<CommunicationData>();
-        invalidCommunications = new ArrayList<TransitionData>();
-        nashCommunications = new ArrayList<NashCommunicationData>();
-        disablementDecisions = new ArrayList<DisablementData>();
+        unconditionalViolations = new TransitionDataList<TransitionData>();
+        conditionalViolations = new TransitionDataList<TransitionData>();
+        potentialCommunications = new TransitionDataList<CommunicationData>();
+        invalidCommunications = new TransitionDataList<TransitionData>();
+        nashCommunications = new TransitionDataList<NashCommunicationData>();
+        disablementDecisions = new TransitionDataList<DisablementData>();
 
     }
 
@@ -152,36 +151,18 @@ public class UStructure extends Automaton {
      * @param mustAlsoSolveControlProblem Whether or not the generated protocols
      *                                    must also solve the control problem
      * @return The feasible protocols, sorted smallest to largest
+     * 
+     * @implNote The candidate protocols are checked sequentially. Use
+     *           {@link ProtocolSearch} to check them in parallel.
+     * 
+     * @see ProtocolSearch
+     * @revised 2.2.0
      **/
     public <T extends CommunicationData> List<Set<T>> generateAllFeasibleProtocols(List<T> communications,
             boolean mustAlsoSolveControlProblem) {
 
-        /* Generate powerset of communication protocols */
-
-        List<Set<T>> protocols = PowerSetUtils.powerSet(communications);
-
-        /* Generate list of feasible protocols */
-
-        List<Set<T>> feasibleProtocols = new ArrayList<Set<T>>();
-        for (Set<T> protocol : protocols) {
-
-            // Ignore the protocol with no communications (doesn't make sense in our
-            // context)
-            if (protocol.size() == 0)
-                continue;
-
-            if (isFeasibleProtocol(new HashSet<CommunicationData>(protocol), mustAlsoSolveControlProblem))
-                feasibleProtocols.add(protocol);
-
-        }
-
-        /*
-         * Sort sets by size (so that protocols with fewer communications appear first)
-         */
-
-        Collections.sort(feasibleProtocols, (set1, set2) -> Integer.compare(set1.size(), set2.size()));
-
-        return feasibleProtocols;
+        return new ProtocolSearch(this, CompositionOptions.sequential()).findAllFeasibleProtocols(communications,
+                mustAlsoSolveControlProblem, null);
 
     }
 
@@ -193,43 +174,17 @@ public class UStructure extends Automaton {
      *                       subset of the {@link #potentialCommunications} list of
      *                       this U-Structure)
      * @return The feasible protocols
+     * 
+     * @implNote The candidate protocols are checked sequentially. Use
+     *           {@link ProtocolSearch} to check them in parallel.
+     * 
+     * @see ProtocolSearch
+     * @revised 2.2.0
      **/
     public List<Set<CommunicationData>> generateSmallestFeasibleProtocols(List<CommunicationData> communications) {
 
-        /* Generate powerset of communication protocols */
-
-        List<Set<CommunicationData>> protocols = PowerSetUtils.powerSet(communications);
-
-        /*
-         * Sort sets by size (so that protocols with fewer communications appear first)
-         */
-
-        Collections.sort(protocols, (set1, set2) -> Integer.compare(set1.size(), set2.size()));
-
-        /* Generate list of feasible protocols */
-
-        List<Set<CommunicationData>> feasibleProtocols = new ArrayList<Set<CommunicationData>>();
-        int minFeasibleSize = Integer.MAX_VALUE;
-        for (Set<CommunicationData> protocol : protocols) {
-
-            // We only want the smallest feasible protocols
-            if (protocol.size() > minFeasibleSize)
-                break;
-
-            // Ignore the protocol with no communications (doesn't make sense in our
-            // context)
-            if (protocol.size() == 0)
-                continue;
-
-            // Add the protocol to the list if it is feasible
-            if (isFeasibleProtocol(protocol, false)) {
-                feasibleProtocols.add(protocol);
-                minFeasibleSize = protocol.size();
-            }
-
-        }
-
-        return feasibleProtocols;
+        return new ProtocolSearch(this, CompositionOptions.sequential()).findSmallestFeasibleProtocols(communications,
+                null);
 
     }
 
@@ -247,6 +202,8 @@ public class UStructure extends Automaton {
         Set<CommunicationData> protocol = new HashSet<CommunicationData>();
 
         UStructure uStructure = this;
+        UStructure inverted = invert();
+        TraversalScratch scratch = new TraversalScratch(getNumberOfStates());
 
         // Continue until no more violations exist
         while (uStructure.unconditionalViolations.size() > 0 || uStructure.conditionalViolations.size() > 0) {
@@ -274,7 +231,7 @@ public class UStructure extends Automaton {
                 logger.error("ERROR : There was an infinite loop detected.");
                 break;
             }
-            protocol.addAll(addCommunicationsToEnsureFeasibility(associatedCommunication));
+            protocol.addAll(addCommunicationsToEnsureFeasibility(associatedCommunication, inverted, scratch));
 
             // System.out.println("communications added. protocol size is now: " +
             // protocol.size());
@@ -301,35 +258,17 @@ public class UStructure extends Automaton {
      * 
      * @param requestedProtocol The protocol that is being made feasible
      * @return All feasible protocols
+     * 
+     * @implNote The candidate protocols are checked sequentially. Use
+     *           {@link ProtocolSearch} to check them in parallel.
+     * 
+     * @see ProtocolSearch
+     * @revised 2.2.0
      **/
     public List<Set<CommunicationData>> makeProtocolFeasible(Set<CommunicationData> requestedProtocol) {
 
-        /* Generate powerset of communication protocols */
-
-        List<Set<CommunicationData>> protocols = PowerSetUtils.powerSetSubset(getPotentialAndNashCommunications(), requestedProtocol);
-
-        /* Generate list of feasible protocols */
-
-        List<Set<CommunicationData>> feasibleProtocols = new ArrayList<Set<CommunicationData>>();
-        for (Set<CommunicationData> protocol : protocols) {
-
-            // Ignore the protocol with no communications (doesn't make sense in our
-            // context)
-            if (protocol.size() == 0)
-                continue;
-
-            if (isFeasibleProtocol(protocol, false))
-                feasibleProtocols.add(protocol);
-
-        }
-
-        /*
-         * Sort sets by size (so that protocols with fewer communications appear first)
-         */
-
-        Collections.sort(feasibleProtocols, (set1, set2) -> Integer.compare(set1.size(), set2.size()));
-
-        return feasibleProtocols;
+        return new ProtocolSearch(this, CompositionOptions.sequential()).findFeasibleProtocolsContaining(requestedProtocol,
+                null);
 
     }
 
@@ -536,12 +475,15 @@ public class UStructure extends Automaton {
      * communication is feasible.
      * 
      * @param initialCommunication The communication
+     * @param inverted             The inverse of this U-Structure
+     * @param scratch              Working memory for finding indistinguishable
+     *                             states
      * @return The feasible protocol
      **/
-    private Set<CommunicationData> addCommunicationsToEnsureFeasibility(CommunicationData initialCommunication) {
+    private Set<CommunicationData> addCommunicationsToEnsureFeasibility(CommunicationData initialCommunication,
+            UStructure inverted, TraversalScratch scratch) {
 
         Set<CommunicationData> feasibleProtocol = new HashSet<CommunicationData>();
-        UStructure inverted = invert();
 
         // Group the communications so that they are accessible by state ID
         // NOTE: We do this to reduce the time complexity of this method
@@ -559,12 +501,12 @@ public class UStructure extends Automaton {
         }
 
         // Find indistinguishable states
-        Set<Long> reachableStates = new HashSet<Long>();
-        findReachableStates(this, inverted, reachableStates, initialCommunication.initialStateID,
-                initialCommunication.getIndexOfSender() + 1);
+        int nReachableStates = findConnectingStates(this, inverted, initialCommunication.initialStateID,
+                initialCommunication.getIndexOfSender() + 1, scratch);
 
         // Add indistinguishable communications
-        for (Long stateID : reachableStates) {
+        for (int i = 0; i < nReachableStates; i++) {
+            long stateID = scratch.getFound(i);
             List<CommunicationData> communications = map.get(stateID);
             if (communications != null)
                 for (Transition transition : getState(stateID).getTransitions())
@@ -728,96 +670,19 @@ public class UStructure extends Automaton {
      *                                    control problem (meaning
      *                                    there are no violations after pruning)
      * @return Whether or not the protocol is feasible
+     * 
+     * @see ProtocolPruner#isFeasible(Set, boolean)
+     * 
+     * @revised 2.2.0
      **/
-    private boolean isFeasibleProtocol(Set<CommunicationData> protocol, boolean mustAlsoSolveControlProblem) {
-
-        UStructure copy = this.clone();
-        copy = copy.applyProtocol(protocol, true);
-
-        // If it must also solve the control problem, but there are still violations,
-        // then return false
-        if (mustAlsoSolveControlProblem)
-            if (copy.conditionalViolations.size() > 0 || copy.unconditionalViolations.size() > 0)
-                return false;
-
-        // If there was a change in the number of communications after pruning, then it
-        // is clearly not feasible
-        if (copy.getSizeOfPotentialAndNashCommunications() != protocol.size())
-            return false;
-
-        UStructure invertedUStructure = copy.invert();
-
-        for (CommunicationData data : copy.getPotentialAndNashCommunications()) {
-
-            // Find indistinguishable states
-            Set<Long> reachableStates = new HashSet<Long>();
-            findReachableStates(copy, invertedUStructure, reachableStates, data.initialStateID,
-                    data.getIndexOfSender() + 1);
-
-            // Any strict subset of this communication's event vector which is found at an
-            // indistinguishable states
-            // indicates that there used to be a communication here (before the protocol was
-            // applied), but that
-            // it should have been part of the protocol, meaning this protocol is not
-            // feasible
-            LabelVector eventVector = copy.getEvent(data.eventID).getVector();
-            for (Long s : reachableStates)
-                for (Transition t : copy.getState(s).getTransitions())
-                    if (LabelVector.isStrictSubVector(t.getEvent().getVector(), eventVector))
-                        return false;
-
-        }
-
-        return true;
-
-    }
-
-    /**
-     * Using recursion, determine which states are reachable through transitions
-     * which are unobservable to the sender.
-     * 
-     * @param uStructure          The relevant U-Structure
-     * @param invertedUStructure  A U-Structure identical to the previous (except
-     *                            all transitions are going the opposite direction)
-     *                            <p>
-     *                            NOTE: There is no need for extra information (such
-     *                            as special transitions) to be in the inverted
-     *                            automaton
-     * @param reachableStates     The set of reachable states that are being built
-     *                            during this recursive process
-     * @param currentStateID      The current state
-     * @param vectorIndexOfSender The index in the event vector which corresponds to
-     *                            the sending controller
-     **/
-    private static void findReachableStates(UStructure uStructure,
-            UStructure invertedUStructure,
-            Set<Long> reachableStates,
-            long currentStateID,
-            int vectorIndexOfSender) {
-
-        // Base case
-        if (reachableStates.contains(currentStateID))
-            return;
-
-        reachableStates.add(currentStateID);
-
-        for (Transition t : uStructure.getState(currentStateID).getTransitions())
-            if (t.getEvent().getVector().isUnobservableToController(vectorIndexOfSender)
-                    && !reachableStates.contains(t.getTargetStateID()))
-                findReachableStates(uStructure, invertedUStructure, reachableStates, t.getTargetStateID(),
-                        vectorIndexOfSender);
-
-        for (Transition t : invertedUStructure.getState(currentStateID).getTransitions())
-            if (t.getEvent().getVector().isUnobservableToController(vectorIndexOfSender)
-                    && !reachableStates.contains(t.getTargetStateID()))
-                findReachableStates(uStructure, invertedUStructure, reachableStates, t.getTargetStateID(),
-                        vectorIndexOfSender);
-
+    boolean isFeasibleProtocol(Set<CommunicationData> protocol, boolean mustAlsoSolveControlProblem) {
+        return new ProtocolPruner(this).isFeasible(protocol, mustAlsoSolveControlProblem);
     }
 
     /**
      * Starting at the specified state, find all indistinguishable states with
-     * respect to a particular controller.
+     * respect to a particular controller. The states are added to the set in
+     * depth-first pre-order.
      * 
      * @param uStructure         The relevant U-Structure
      * @param invertedUStructure The relevant inverted U-Structure
@@ -825,34 +690,68 @@ public class UStructure extends Automaton {
      *                           populated by this method
      * @param currentStateID     The current state ID
      * @param indexOfController  The index of the controller
+     * 
+     * @revised 2.2.0
      **/
     protected static void findConnectingStates(UStructure uStructure, UStructure invertedUStructure, Set<Long> set,
             long currentStateID, int indexOfController) {
+        TraversalScratch scratch = new TraversalScratch(uStructure.getNumberOfStates());
+        int nFound = findConnectingStates(uStructure, invertedUStructure, currentStateID, indexOfController, scratch);
+        for (int i = 0; i < nFound; i++)
+            set.add((long) scratch.getFound(i));
+    }
 
-        /* Base Case */
-
-        if (set.contains(currentStateID))
-            return;
+    /**
+     * Starting at the specified state, find all indistinguishable states with
+     * respect to a particular controller. The states are found in depth-first
+     * pre-order, following transitions leading from a state before transitions
+     * leading to it, and are marked as visited in the scratch.
+     * 
+     * @param uStructure         The relevant U-Structure
+     * @param invertedUStructure The relevant inverted U-Structure
+     * @param initialStateID     The state to start from
+     * @param indexOfController  The index of the controller
+     * @param scratch            Working memory for the traversal, which holds the
+     *                           connected states once this method returns
+     * @return The number of connected states
+     * 
+     * @since 2.2.0
+     **/
+    static int findConnectingStates(UStructure uStructure, UStructure invertedUStructure, long initialStateID,
+            int indexOfController, TraversalScratch scratch) {
 
-        /* Recursive Case */
+        scratch.clear();
+        scratch.visit(Math.toIntExact(initialStateID));
+        scratch.addFound(Math.toIntExact(initialStateID));
+        scratch.push(Math.toIntExact(initialStateID));
 
-        set.add(currentStateID);
+        while (!scratch.isEmpty()) {
 
-        State currentState = uStructure.getState(currentStateID);
+            long currentStateID = scratch.peek();
+            List<Transition> transitions = uStructure.getState(currentStateID).getTransitions();
+            List<Transition> invertedTransitions = invertedUStructure.getState(currentStateID).getTransitions();
+            int cursor = scratch.advance();
 
-        // Find all unobservable events leading from this state, and add the target
-        // states to the set
-        for (Transition t : currentState.getTransitions())
-            if (t.getEvent().getVector().isUnobservableToController(indexOfController))
-                findConnectingStates(uStructure, invertedUStructure, set, t.getTargetStateID(), indexOfController);
+            // Transitions leading from this state come first, then transitions leading to
+            // it (which lead from it in the inverted U-Structure)
+            if (cursor >= transitions.size() + invertedTransitions.size()) {
+                scratch.pop();
+                continue;
+            }
+            Transition t = cursor < transitions.size() ? transitions.get(cursor)
+                    : invertedTransitions.get(cursor - transitions.size());
+
+            // Visit the states that are connected through unobservable events
+            int targetStateID = Math.toIntExact(t.getTargetStateID());
+            if (t.getEvent().getVector().isUnobservableToController(indexOfController)
+                    && scratch.visit(targetStateID)) {
+                scratch.addFound(targetStateID);
+                scratch.push(targetStateID);
+            }
 
-        State currentInvertedState = invertedUStructure.getState(currentStateID);
+        }
 
-        // Find all unobservable events leading to this state, and add those states to
-        // the set
-        for (Transition t : currentInvertedState.getTransitions())
-            if (t.getEvent().getVector().isUnobservableToController(indexOfController))
-                findConnectingStates(uStructure, invertedUStructure, set, t.getTargetStateID(), indexOfController);
+        return scratch.getNumberOfFound();
 
     }
 
@@ -1028,9 +927,32 @@ public class UStructure extends Automaton {
 
     }
 
+    /**
+     * Constructs a deep copy of the specified U-Structure.
+     * 
+     * @param other the U-Structure to copy
+     * 
+     * @throws NullPointerException if argument is {@code null}
+     * 
+     * @see #clone()
+     * @since 2.2.0
+     */
+    protected UStructure(UStructure other) {
+
+        super(other);
+
+        unconditionalViolations = other.unconditionalViolations.deepCopy();
+        conditionalViolations = other.conditionalViolations.deepCopy();
+        potentialCommunications = other.potentialCommunications.deepCopy();
+        invalidCommunications = other.invalidCommunications.deepCopy();
+        nashCommunications = other.nashCommunications.deepCopy();
+        disablementDecisions = other.disablementDecisions.deepCopy();
+
+    }
+
     @Override
     public UStructure clone() {
-        return new UStructure(toJsonObject());
+        return new UStructure(this);
     }
 
     @Override
@@ -1052,15 +974,18 @@ public class UStructure extends Automaton {
 
     @Override
     protected void readSpecialTransitionsFromJsonObject(JsonObject jsonObj) {
-        unconditionalViolations = readTransitionDataFromJsonObject(jsonObj, "unconditionalViolations");
-        conditionalViolations = readTransitionDataFromJsonObject(jsonObj, "conditionalViolations");
-        potentialCommunications = JsonUtils.readListPropertyFromJsonObject(jsonObj, "potentialCommunications",
-                CommunicationData.class);
-        invalidCommunications = readTransitionDataFromJsonObject(jsonObj, "invalidCommunications");
-        nashCommunications = JsonUtils.readListPropertyFromJsonObject(jsonObj, "nashCommunications",
-                NashCommunicationData.class);
-        disablementDecisions = JsonUtils.readListPropertyFromJsonObject(jsonObj, "disablementDecisions",
-                DisablementData.class);
+        unconditionalViolations = new TransitionDataList<>(
+                readTransitionDataFromJsonObject(jsonObj, "unconditionalViolations"));
+        conditionalViolations = new TransitionDataList<>(
+                readTransitionDataFromJsonObject(jsonObj, "conditionalViolations"));
+        potentialCommunications = new TransitionDataList<>(JsonUtils.readListPropertyFromJsonObject(jsonObj,
+                "potentialCommunications", CommunicationData.class));
+        invalidCommunications = new TransitionDataList<>(
+                readTransitionDataFromJsonObject(jsonObj, "invalidCommunications"));
+        nashCommunications = new TransitionDataList<>(JsonUtils.readListPropertyFromJsonObject(jsonObj,
+                "nashCommunications", NashCommunicationData.class));
+        disablementDecisions = new TransitionDataList<>(JsonUtils.readListPropertyFromJsonObject(jsonObj,
+                "disablementDecisions", DisablementData.class));
     }
 
     /* MUTATOR METHODS */
@@ -1074,23 +999,21 @@ public class UStructure extends Automaton {
     @Override
     protected void removeTransitionData(TransitionData data) {
 
-        unconditionalViolations.remove(data);
+        unconditionalViolations.removeTransition(data);
 
-        conditionalViolations.remove(data);
+        conditionalViolations.removeTransition(data);
 
         // Multiple potential communications could exist for the same transition (this
         // happens when there are more than one potential sender)
-        while (potentialCommunications.remove(data))
-            ;
+        potentialCommunications.removeTransition(data);
 
         // Multiple Nash communications could exist for the same transition (this
         // happens when there are more than one potential sender)
-        while (nashCommunications.remove(data))
-            ;
+        nashCommunications.removeTransition(data);
 
-        invalidCommunications.remove(data);
+        invalidCommunications.removeTransition(data);
 
-        disablementDecisions.remove(data);
+        disablementDecisions.removeTransition(data);
 
     }
 
@@ -1217,17 +1140,12 @@ public class UStructure extends Automaton {
      **/
     public TransitionData findUnconditionalViolation(State startingState) {
 
-        // Check each transition
-        for (Transition transition : startingState.getTransitions()) {
-
-            // Return the first violation that matches the state's ID (if one is found)
-            for (TransitionData data : unconditionalViolations)
-                if (data.initialStateID == startingState.getID())
-                    return data;
-
-        }
+        if (startingState.getTransitions().isEmpty())
+            return null;
 
-        return null;
+        // Return the first violation that matches the state's ID (if one is found)
+        List<TransitionData> violations = unconditionalViolations.getBySource(startingState.getID());
+        return violations.isEmpty() ? null : violations.get(0);
 
     }
 
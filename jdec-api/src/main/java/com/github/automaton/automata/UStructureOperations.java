@@ -6,13 +6,14 @@
 package com.github.automaton.automata;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
-import org.apache.commons.collections4.IterableUtils;
-import org.apache.commons.collections4.MultiSet;
-import org.apache.commons.collections4.multiset.HashMultiSet;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Triple;
+import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.*;
 
 import com.google.gson.JsonObject;
@@ -36,6 +37,7 @@ public class UStructureOperations {
      * @return The U-Structure with the added transitions
      * 
      * @since 2.0
+     * @revised 2.2.0
      **/
     public static UStructure addCommunications(UStructure orig) {
 
@@ -70,19 +72,34 @@ public class UStructureOperations {
         } else
             generateLeastUpperBounds(leastUpperBounds);
 
+        // Index the least upper bounds, and the potential communications that match each
+        // of them
+        List<LabelVector> communications = new ArrayList<LabelVector>(leastUpperBounds);
+        List<List<CommunicationLabelVector>> matchingCommunications = new ArrayList<>(communications.size());
+        for (LabelVector vector : communications) {
+            List<CommunicationLabelVector> matches = new ArrayList<CommunicationLabelVector>();
+            for (CommunicationLabelVector data : potentialCommunications)
+                if (vector.equals((LabelVector) data))
+                    matches.add(data);
+            matchingCommunications.add(matches);
+        }
+
+        // NOTE: The search is done in the original U-Structure, which is never modified.
+        // Communications that are added below do not lead to any new destinations, since
+        // they only abbreviate paths that already exist.
+        CommunicationFinder finder = new CommunicationFinder(orig, communications);
+
         UStructure uStructure = orig.clone();
 
         /* Add communications (marking the potential communications) */
 
-        // Map<String, State> memoization = new HashMap<String, State>();
-        for (State startingState : uStructure.getStates()) {
+        for (State startingState : orig.getStates()) {
 
             // Try each least upper bound
-            for (LabelVector vector : leastUpperBounds) {
+            for (int v = 0; v < communications.size(); v++) {
 
-                boolean[] vectorElementsFound = new boolean[vector.getSize()];
-                State destinationState = findWhereCommunicationLeads(uStructure, vector, vectorElementsFound,
-                        startingState/* , memoization */);
+                LabelVector vector = communications.get(v);
+                State destinationState = finder.findDestination(startingState, v);
 
                 if (destinationState != null) {
 
@@ -114,17 +131,14 @@ public class UStructureOperations {
 
                         // There could be more than one potential communication, so we need to mark them
                         // all
-                        boolean found = false;
-                        for (CommunicationLabelVector data : potentialCommunications)
-                            if (vector.equals((LabelVector) data)) {
-                                uStructure.addPotentialCommunication(startingState.getID(), id,
-                                        destinationState.getID(), data.roles);
-                                found = true;
-                            }
+                        List<CommunicationLabelVector> matches = matchingCommunications.get(v);
+                        for (CommunicationLabelVector data : matches)
+                            uStructure.addPotentialCommunication(startingState.getID(), id,
+                                    destinationState.getID(), data.roles);
 
                         // If there were no potential communications, then it must be a invalid
                         // communication
-                        if (!found) {
+                        if (matches.isEmpty()) {
                             if (UStructure.SUPPRESS_INVALID_COMMUNICATIONS)
                                 logger.error("Invalid communication was not suppressed: " + vector);
                             uStructure.addInvalidCommunication(startingState.getID(), id, destinationState.getID());
@@ -142,100 +156,6 @@ public class UStructureOperations {
 
     }
 
-    /**
-     * Using recursion, starting at a given state, determine which state the
-     * specified communication leads to (if it exists).
-     * 
-     * @param communication       The event vector representing the communication
-     * @param vectorElementsFound Indicates which elements of the vector have been
-     *                            found
-     * @param currentState        The state that we are currently on
-     * @return The destination state (or {@code null} if the communication does not
-     *         lead to a state)
-     **/
-    private static State findWhereCommunicationLeads(UStructure uStructure, LabelVector communication,
-            boolean[] vectorElementsFound,
-            State currentState/*
-                               * ,
-                               * Map<String, State> memoization
-                               */) {
-
-        /* Base case */
-
-        // We have found the destination if all vector elements have been found
-        boolean finished = true;
-        for (int i = 0; i < communication.getSize(); i++)
-            if (!communication.getLabelAtIndex(i).equals(Event.EPSILON) && !vectorElementsFound[i]) {
-                finished = false;
-                break;
-            }
-
-        if (finished)
-            return currentState;
-
-        /*
-         * Memoization
-         * 
-         * // NOTE: Memoziation is commented out since it is extremely memory intensive,
-         * and should not be used in the general case
-         * 
-         * String key = encodeString(communication, vectorElementsFound, currentState);
-         * if (memoization.containsKey(key))
-         * return memoization.get(key);
-         * 
-         */
-
-        /* Recursive case */
-
-        // Try all transitions leading from this state
-        outer: for (Transition t : currentState.getTransitions()) {
-
-            boolean[] copy = ArrayUtils.clone(vectorElementsFound);
-
-            // Check to see if the event vector of this transition is compatible with what
-            // we've found so far
-            for (int i = 0; i < t.getEvent().getVector().getSize(); i++) {
-
-                String element = t.getEvent().getVector().getLabelAtIndex(i);
-
-                if (!element.equals(Event.EPSILON)) {
-
-                    // Conflict since we have already found an element for this index (so they
-                    // aren't compatible)
-                    if (copy[i])
-                        continue outer;
-
-                    // Is compatible
-                    else if (element.equals(communication.getLabelAtIndex(i)))
-                        copy[i] = true;
-
-                    // Conflict since the elements do not match (meaning they aren't compatible)
-                    else
-                        continue outer;
-                }
-
-            }
-
-            // Recursive call to the state where this transition leads
-            State destinationState = findWhereCommunicationLeads(uStructure, communication, copy,
-                    uStructure.getState(t.getTargetStateID())/* , memoization */);
-
-            // Return destination if it is found (there will only ever be one destination
-            // for a given communication from a given state, so we can stop as soon as we
-            // find it the first time)
-            if (destinationState != null) {
-                // memoization.put(key, destinationState); // Save the answer (NOTE: Saving the
-                // dead-ends is more important than saving the answers)
-                return destinationState;
-            }
-
-        }
-
-        // memoization.put(key, null); // Indicate that this is a dead-end
-        return null;
-
-    }
-
     /**
      * Given the complete set of least upper bounds (LUBs), return the subset of
      * LUBs which are the event vectors for potential communications.
@@ -451,11 +371,14 @@ public class UStructureOperations {
      * @param discardUnusedCommunications Whether or not the unused communications
      *                                    should be discarded
      * @return the pruned U-Structure that had the specified protocol applied
+     * 
+     * @revised 2.2.0
      **/
     public static <T extends CommunicationData> PrunedUStructure applyProtocol(UStructure uStructure, Set<T> protocol,
             boolean discardUnusedCommunications) {
 
         PrunedUStructure prunedUStructure = duplicateAsPrunedUStructure(uStructure);
+        ProtocolPruner pruner = new ProtocolPruner(uStructure);
 
         /* Remove all communications that are not part of the protocol */
 
@@ -468,13 +391,16 @@ public class UStructureOperations {
                 if (!protocol.contains(data))
                     prunedUStructure.removeTransition(data.initialStateID, data.eventID, data.targetStateID);
 
+            pruner.discardUnusedCommunications(protocol);
+
         }
 
         /* Prune (which removes more transitions) */
 
-        for (CommunicationData data : protocol)
-            prunedUStructure.prune(protocol, uStructure.getEvent(data.eventID).getVector(), data.initialStateID,
-                    data.getIndexOfSender() + 1);
+        int mark = pruner.mark();
+        pruner.prune(protocol);
+        for (TransitionData data : pruner.removedSince(mark))
+            prunedUStructure.removeTransition(data);
 
         /* Get the accessible part of the U-Structure */
 
@@ -488,6 +414,86 @@ public class UStructureOperations {
 
     }
 
+    /**
+     * Runs subset construction on the specified U-Structure w.r.t. every
+     * controller, including controller 0.
+     * 
+     * @param uStructure a U-Structure
+     * @param options    the options that determine whether the constructions
+     *                   are built in parallel
+     * @return list of subset constructions, indexed by controller
+     * 
+     * @throws NullPointerException if any argument is {@code null}
+     * 
+     * @see #subsetConstructions(UStructure, CompositionOptions, int...)
+     * @since 2.2.0
+     */
+    public static List<SubsetConstruction> subsetConstructions(UStructure uStructure, CompositionOptions options) {
+        return subsetConstructions(uStructure, options,
+                IntStream.rangeClosed(0, Objects.requireNonNull(uStructure).nControllers).toArray());
+    }
+
+    /**
+     * Runs subset construction on the specified U-Structure w.r.t. each of the
+     * specified controllers. The unobservable events of all controllers are
+     * found up front, and the constructions are then built on the worker
+     * threads specified by the options. The time taken by each construction
+     * is logged.
+     * 
+     * @param uStructure  a U-Structure
+     * @param options     the options that determine whether the constructions
+     *                    are built in parallel
+     * @param controllers the controllers to perform subset construction with
+     * @return list of subset constructions, in the same order as
+     *         {@code controllers}
+     * 
+     * @throws IndexOutOfBoundsException if any controller is out of bounds
+     * @throws NullPointerException      if any argument is {@code null}
+     * 
+     * @see UStructure#subsetConstruction(int)
+     * @since 2.2.0
+     */
+    public static List<SubsetConstruction> subsetConstructions(UStructure uStructure, CompositionOptions options,
+            int... controllers) {
+
+        Objects.requireNonNull(uStructure);
+        Objects.requireNonNull(options);
+
+        BitSet[] nullEvents = new BitSet[controllers.length];
+        for (int i = 0; i < controllers.length; i++) {
+            if (controllers[i] < 0 || controllers[i] > uStructure.nControllers) {
+                throw new IndexOutOfBoundsException(controllers[i]);
+            }
+            nullEvents[i] = SubsetExplorer.findNullEvents(uStructure, controllers[i]);
+        }
+
+        SubsetConstruction[] subsetConstructions = new SubsetConstruction[controllers.length];
+        IntConsumer task = i -> {
+            StopWatch sw = StopWatch.createStarted();
+            subsetConstructions[i] = new SubsetConstruction(uStructure, controllers[i], nullEvents[i]);
+            logger.debug("Built subset construction for controller " + controllers[i] + " ("
+                    + subsetConstructions[i].getNumberOfStates() + " states) in "
+                    + sw.getTime(TimeUnit.MILLISECONDS) + " ms");
+        };
+
+        if (!options.isParallel() || controllers.length < 2) {
+            for (int i = 0; i < controllers.length; i++)
+                task.accept(i);
+        } else if (options.getParallelism() == 0) {
+            ForkJoinPool.commonPool().submit(() -> IntStream.range(0, controllers.length).parallel().forEach(task))
+                    .join();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(Math.min(options.getParallelism(), controllers.length));
+            try {
+                pool.submit(() -> IntStream.range(0, controllers.length).parallel().forEach(task)).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(subsetConstructions));
+    }
+
     /**
      * Creates a copy of the specified U-Structure that has copies of same state(s)
      * if the state appears in more than one projections.
@@ -495,91 +501,87 @@ public class UStructureOperations {
      * @return a copy of the specified U-Structure with relabeled states
      * 
      * @throws NullPointerException if argument is {@code null}
+     * 
+     * @revised 2.2.0
      */
     public static UStructure relabelConfigurationStates(UStructure uStructure) {
 
         Objects.requireNonNull(uStructure);
 
         SubsetConstruction subsetConstruction = new SubsetConstruction(uStructure, 0);
+        final long nStates = uStructure.getNumberOfStates();
+
+        /* Index state sets and states of the U-Structure */
+        StateSet[] stateSets = new StateSet[subsetConstruction.getNumberOfStates()];
+        Map<Long, Integer> stateSetIndices = new HashMap<>();
+        for (State s : subsetConstruction.getStates()) {
+            stateSetIndices.put(s.getID(), stateSetIndices.size());
+            stateSets[stateSetIndices.size() - 1] = (StateSet) s;
+        }
+        Map<Long, Integer> stateIndices = new HashMap<>();
+        for (State s : uStructure.getStates()) {
+            stateIndices.put(s.getID(), stateIndices.size());
+        }
 
-        /* Collection of counters for occurrences of original states */
-        MultiSet<Long> stateIDMultiSet = new HashMultiSet<>();
-        /* Mapping of state set IDs to their member state IDs */
-        final Map<Long, Map<Long, Long>> relabelMapping = new LinkedHashMap<>();
+        /* Number of copies made of each state of the U-Structure */
+        int[] nCopies = new int[stateIndices.size()];
+        /* IDs of the members of the latest copy of each state set, in member order */
+        long[][] latestCopies = new long[stateSets.length][];
+        /* Marks the state sets on the path being extended */
+        int[] onPath = new int[stateSets.length];
+        int pathMark = 0;
 
         /*
-         * Build a queue for breadth-first traversal of the UStructure
-         * Each entry of the queue consists of the triple of:
-         * 
-         * - ID of the current state of interest
-         * - the sequence of states and events that led to this state
-         * - whether a cycle has been detected
+         * Breadth-first traversal of the paths of the subset construction. Paths
+         * share their prefixes through parent pointers.
          */
-        Queue<Triple<Long, Sequence, Boolean>> combinedStateQueue = new ArrayDeque<>();
-        combinedStateQueue
-                .add(Triple.of(subsetConstruction.initialState, new Sequence(subsetConstruction.initialState), true));
+        Queue<PathNode> queue = new ArrayDeque<>();
+        queue.add(new PathNode(stateSetIndices.get(subsetConstruction.initialState), null, true));
 
         UStructure relabeled = new UStructure(uStructure.getNumberOfControllers());
         relabeled.addAllEvents(uStructure.getEvents());
 
-        while (!combinedStateQueue.isEmpty()) {
-            Triple<Long, Sequence, Boolean> currSequence = combinedStateQueue.remove();
+        while (!queue.isEmpty()) {
+            PathNode node = queue.remove();
+            StateSet ss = stateSets[node.stateSet];
+            long[] currCopy;
 
-            StateSet ss = subsetConstruction.getStateAsStateSet(currSequence.getLeft());
-            Map<Long, Long> currStateSetIDMap = currSequence.getRight() ? new LinkedHashMap<>()
-                    : relabelMapping.get(currSequence.getLeft());
-            if (currSequence.getRight()) {
-                relabelMapping.put(ss.getID(), currStateSetIDMap);
+            if (node.extendable) {
                 /* Calculate new state IDs for relabeling */
+                currCopy = new long[ss.size()];
+                int index = 0;
                 for (State s : ss.getSet()) {
-                    long origID = s.getID();
-                    long modID = origID + uStructure.getNumberOfStates() * stateIDMultiSet.getCount(origID);
-                    currStateSetIDMap.put(s.getID(), modID);
-                    State modState = new State(
-                            s.getLabel() + (stateIDMultiSet.getCount(origID) == 0 ? StringUtils.EMPTY
-                                    : "-" + Integer.toString(stateIDMultiSet.getCount(origID))),
-                            modID, false, s.getEnablementEvents(), s.getDisablementEvents(),
-                            s.getIllegalConfigEvents());
-                    relabeled.addStateAt(modState, false);
-                    stateIDMultiSet.add(origID);
+                    int copy = nCopies[stateIndices.get(s.getID())]++;
+                    currCopy[index++] = s.getID() + nStates * copy;
+                    relabeled.addStateAt(new State(
+                            s.getLabel() + (copy == 0 ? StringUtils.EMPTY : "-" + Integer.toString(copy)),
+                            s.getID() + nStates * copy, false, s.getEnablementEvents(), s.getDisablementEvents(),
+                            s.getIllegalConfigEvents()), false);
                 }
+                latestCopies[node.stateSet] = currCopy;
                 /* Add transitions to states in the same state set */
-                for (State origS : ss.getSet()) {
-                    State modS = relabeled.getState(currStateSetIDMap.get(origS.getID()));
-                    for (Transition t : origS.getTransitions()) {
-                        if (currStateSetIDMap.containsKey(t.getTargetStateID())) {
-                            relabeled.addTransition(modS.getID(), t.getEvent().getLabel(),
-                                    currStateSetIDMap.get(t.getTargetStateID()));
-                        }
-                    }
-                }
+                addTransitionsBetweenCopies(relabeled, ss, currCopy, ss, currCopy);
+            } else {
+                currCopy = latestCopies[node.stateSet];
             }
+
             /* Handle transitions from preceding state set */
-            if (currSequence.getMiddle().getEventArray().length > 0) {
-                long prevStateSetID = currSequence.getMiddle().getState(currSequence.getMiddle().length() - 2);
-                StateSet prevStateSet = subsetConstruction.getStateAsStateSet(prevStateSetID);
-                Map<Long, Long> prevStateSetIDMap = relabelMapping.get(prevStateSetID);
-                for (State prevS : prevStateSet.getSet()) {
-                    for (Transition prevT : prevS.getTransitions()) {
-                        if (currStateSetIDMap.containsKey(prevT.getTargetStateID())) {
-                            relabeled.addTransition(prevStateSetIDMap.get(prevS.getID()), prevT.getEvent().getLabel(),
-                                    currStateSetIDMap.get(prevT.getTargetStateID()));
-                        }
-                    }
-                }
+            if (node.parent != null) {
+                int prev = node.parent.stateSet;
+                addTransitionsBetweenCopies(relabeled, stateSets[prev], latestCopies[prev], ss, currCopy);
             }
 
             /* Detect next entries for breadth-first traversal */
-            for (Transition t : IterableUtils.filteredIterable(
-                    ss.getTransitions(), t -> t.getTargetStateID() != ss.getID())) {
-                if (!currSequence.getMiddle().containsState(t.getTargetStateID()) && currSequence.getRight()) {
-                    /* Next transition found */
-                    combinedStateQueue.add(Triple.of(t.getTargetStateID(),
-                            currSequence.getMiddle().append(t.getEvent().getID(), t.getTargetStateID()), true));
-                } else if (!currSequence.getMiddle().isLastState(t.getTargetStateID()) && currSequence.getRight()) {
-                    /* Cycle detected */
-                    combinedStateQueue.add(Triple.of(t.getTargetStateID(),
-                            currSequence.getMiddle().append(t.getEvent().getID(), t.getTargetStateID()), false));
+            if (node.extendable) {
+                pathMark++;
+                for (PathNode n = node; n != null; n = n.parent)
+                    onPath[n.stateSet] = pathMark;
+                for (Transition t : ss.getTransitions()) {
+                    if (t.getTargetStateID() == ss.getID())
+                        continue;
+                    int next = stateSetIndices.get(t.getTargetStateID());
+                    /* Paths are not extended past a cycle */
+                    queue.add(new PathNode(next, node, onPath[next] != pathMark));
                 }
             }
 
@@ -587,41 +589,113 @@ public class UStructureOperations {
 
         /* Restore violation states in relabeled U-Structure */
         uStructure.copyOverSpecialTransitions(relabeled);
-        for (TransitionData unconditionalTd : uStructure.getUnconditionalViolations()) {
-            long initStateID = unconditionalTd.initialStateID;
-            long targetStateID = unconditionalTd.targetStateID;
-            for (int i = 1; i < stateIDMultiSet.getCount(unconditionalTd.initialStateID); i++) {
-                long relabeledInitStateID = initStateID + uStructure.getNumberOfStates() * i;
-                for (int j = 1; j < stateIDMultiSet.getCount(targetStateID); j++) {
-                    long relabeledTargetStateID = targetStateID + uStructure.getNumberOfStates() * j;
-                    if (relabeled.transitionExists(relabeledInitStateID, unconditionalTd.eventID,
-                            relabeledTargetStateID)) {
-                        relabeled.addUnconditionalViolation(relabeledInitStateID, unconditionalTd.eventID,
-                                relabeledTargetStateID);
-                    }
+        restoreViolations(relabeled, uStructure.getUnconditionalViolations(), stateIndices, nCopies, nStates,
+                relabeled::addUnconditionalViolation);
+        restoreViolations(relabeled, uStructure.getConditionalViolations(), stateIndices, nCopies, nStates,
+                relabeled::addConditionalViolation);
+
+        relabeled.setInitialStateID(uStructure.getInitialStateID());
+
+        relabeled.renumberStates();
+        return relabeled;
+    }
+
+    /**
+     * A path in the subset construction, as traversed by
+     * {@link #relabelConfigurationStates(UStructure)}.
+     * 
+     * @param stateSet   the index of the last state set in the path
+     * @param parent     the path without its last state set, or {@code null}
+     * @param extendable whether the last state set is copied and the path is
+     *                   extended further, i.e. the last state set does not
+     *                   close a cycle
+     * 
+     * @since 2.2.0
+     */
+    private static record PathNode(int stateSet, PathNode parent, boolean extendable) {
+    }
+
+    /**
+     * Adds transitions between copies of two state sets, wherever the original
+     * states have transitions between them.
+     * 
+     * @param relabeled  the U-Structure to add transitions to
+     * @param from       the originating state set
+     * @param fromCopy   the IDs of the copies of the members of {@code from}
+     * @param to         the target state set
+     * @param toCopy     the IDs of the copies of the members of {@code to}
+     * 
+     * @since 2.2.0
+     */
+    private static void addTransitionsBetweenCopies(UStructure relabeled, StateSet from, long[] fromCopy,
+            StateSet to, long[] toCopy) {
+        int index = 0;
+        for (State origS : from.getSet()) {
+            for (Transition t : origS.getTransitions()) {
+                int target = to.indexOf(t.getTargetStateID());
+                if (target >= 0) {
+                    relabeled.addTransition(fromCopy[index], t.getEvent().getLabel(), toCopy[target]);
                 }
             }
+            index++;
         }
-        for (TransitionData conditionalTd : uStructure.getConditionalViolations()) {
-            long initStateID = conditionalTd.initialStateID;
-            long targetStateID = conditionalTd.targetStateID;
-            for (int i = 1; i < stateIDMultiSet.getCount(conditionalTd.initialStateID); i++) {
-                long relabeledInitStateID = initStateID + uStructure.getNumberOfStates() * i;
-                for (int j = 1; j < stateIDMultiSet.getCount(targetStateID); j++) {
-                    long relabeledTargetStateID = targetStateID + uStructure.getNumberOfStates() * j;
-                    if (relabeled.transitionExists(relabeledInitStateID, conditionalTd.eventID,
-                            relabeledTargetStateID)) {
-                        relabeled.addConditionalViolation(relabeledInitStateID, conditionalTd.eventID,
-                                relabeledTargetStateID);
-                    }
+    }
+
+    /**
+     * Marks the transitions between copies of states as violations, wherever
+     * the transitions between the original states are violations. Transitions
+     * between the first copies are not handled, as they have the IDs of the
+     * original transitions.
+     * 
+     * @param relabeled    the relabeled U-Structure
+     * @param violations   the violations in the original U-Structure
+     * @param stateIndices indices of the states of the original U-Structure
+     * @param nCopies      number of copies made of each state
+     * @param nStates      the number of states in the original U-Structure
+     * @param adder        the operation that marks a violation
+     * 
+     * @since 2.2.0
+     */
+    private static void restoreViolations(UStructure relabeled, List<? extends TransitionData> violations,
+            Map<Long, Integer> stateIndices, int[] nCopies, long nStates, ViolationAdder adder) {
+        for (TransitionData td : violations) {
+            Event event = relabeled.getEvent(td.eventID);
+            Integer initIndex = stateIndices.get(td.initialStateID);
+            Integer targetIndex = stateIndices.get(td.targetStateID);
+            if (event == null || initIndex == null || targetIndex == null)
+                continue;
+            long lastTargetID = td.targetStateID + nStates * (nCopies[targetIndex] - 1);
+            for (int i = 1; i < nCopies[initIndex]; i++) {
+                State relabeledInitState = relabeled.getState(td.initialStateID + nStates * i);
+                if (relabeledInitState == null)
+                    continue;
+                long[] targets = relabeledInitState.getTransitionsWithEvent(event).stream()
+                        .mapToLong(Transition::getTargetStateID)
+                        .filter(id -> id > td.targetStateID && id <= lastTargetID
+                                && (id - td.targetStateID) % nStates == 0)
+                        .distinct().sorted().toArray();
+                for (long targetID : targets) {
+                    adder.add(relabeledInitState.getID(), td.eventID, targetID);
                 }
             }
         }
+    }
 
-        relabeled.setInitialStateID(uStructure.getInitialStateID());
-
-        relabeled.renumberStates();
-        return relabeled;
+    /**
+     * Operation that marks a transition as a violation.
+     * 
+     * @since 2.2.0
+     */
+    @FunctionalInterface
+    private static interface ViolationAdder {
+        /**
+         * Marks the specified transition as a violation.
+         * 
+         * @param initialStateID the ID of the initial state
+         * @param eventID        the ID of the event
+         * @param targetStateID  the ID of the target state
+         */
+        void add(long initialStateID, int eventID, long targetStateID);
     }
 
     /** Cached values of factorials */
@@ -6,6 +6,7 @@
 package com.github.automaton.automata.incremental;
 
 import java.util.Collections;
+import java.util.Objects;
 import java.util.Set;
 
 import com.github.automaton.automata.Automaton;
@@ -39,4 +40,40 @@ public interface FilteredComponentIterableGenerator extends ComponentIterableGen
      */
     public ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime, Set<Automaton> hPrime);
 
+    /**
+     * Generates a new component iterable with the specified system components,
+     * for finding a component that rejects the specified counterexample.
+     * By default, the counterexample is ignored.
+     * 
+     * @param plants the set of plants
+     * @param specs the set of specifications
+     * @param gPrime the set of "checked" plants
+     * @param hPrime the set of "checked" specifications
+     * @param counterexample the counterexample to be rejected
+     * 
+     * @return a new component iterable
+     * 
+     * @throws NullPointerException if any one of the arguments is {@code null}
+     * 
+     * @since 2.2.0
+     */
+    public default ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime, Set<Automaton> hPrime, Counterexample counterexample) {
+        Objects.requireNonNull(counterexample);
+        return generate(plants, specs, gPrime, hPrime);
+    }
+
+    /**
+     * Receives the outcome of a search for a component that rejects a counterexample.
+     * By default, the outcome is ignored.
+     * 
+     * @param counterexample the counterexample
+     * @param component the first component that rejected the counterexample,
+     *                  or {@code null} if no component rejected it
+     * @param nChecks the number of components that were checked
+     * 
+     * @since 2.2.0
+     */
+    public default void searchCompleted(Counterexample counterexample, Automaton component, int nChecks) {
+    }
+
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata.incremental;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import org.apache.logging.log4j.*;
+
+import com.github.automaton.automata.*;
+import com.google.gson.*;
+
+/**
+ * A component heuristic that learns which components reject counterexamples.
+ * <p>
+ * Every time a component rejects a counterexample, this heuristic records the
+ * component together with the events that the counterexample involves: the
+ * event that the counterexample is for, and the events of its word for the
+ * system. Components are then ranked by how often they have rejected
+ * counterexamples involving the events of the counterexample at hand, and
+ * components that are ranked the same are ordered by a fallback heuristic.
+ * <p>
+ * The statistics can be {@linkplain #save(Path) saved} to a small JSON file
+ * and {@linkplain #load(Path, FilteredComponentIterableGenerator) loaded}
+ * again, so that they carry over to later runs on similar sets of components.
+ * Components are identified by their {@linkplain Automaton#getStrRepr() custom
+ * string representations}, which are the file names of components that are
+ * loaded from files. Components without one are ranked last, and their
+ * rejections are not recorded.
+ * <p>
+ * This heuristic is thread-safe.
+ *
+ * @author Sung Ho Yoon
+ * @since 2.2.0
+ */
+public final class LearnedComponentHeuristic implements FilteredComponentIterableGenerator {
+
+    private static Logger logger = LogManager.getLogger();
+
+    /** Version of the format of saved statistics */
+    private static final int FORMAT_VERSION = 1;
+
+    /** The heuristic that orders components that are ranked the same */
+    private final FilteredComponentIterableGenerator fallback;
+    /** Number of rejected counterexamples, by component name and event label */
+    private final Map<String, Map<String, Integer>> rejections;
+
+    /**
+     * Constructs a new {@code LearnedComponentHeuristic} with no statistics,
+     * that uses {@linkplain ComponentHeuristics#RANDOM random order} as the
+     * fallback heuristic.
+     */
+    public LearnedComponentHeuristic() {
+        this(ComponentHeuristics.RANDOM);
+    }
+
+    /**
+     * Constructs a new {@code LearnedComponentHeuristic} with no statistics.
+     *
+     * @param fallback the heuristic that orders components that are ranked the
+     *                 same
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public LearnedComponentHeuristic(FilteredComponentIterableGenerator fallback) {
+        this.fallback = Objects.requireNonNull(fallback);
+        this.rejections = new TreeMap<>();
+    }
+
+    /**
+     * Constructs a new {@code LearnedComponentHeuristic} with the statistics
+     * saved in the specified file. If the file does not exist, the heuristic
+     * starts with no statistics.
+     *
+     * @param file     a file that statistics have been saved to
+     * @param fallback the heuristic that orders components that are ranked the
+     *                 same
+     * @return a new {@code LearnedComponentHeuristic}
+     *
+     * @throws IOException          if the file cannot be read, or is not a file
+     *                              of saved statistics
+     * @throws NullPointerException if either one of the arguments is
+     *                              {@code null}
+     */
+    public static LearnedComponentHeuristic load(Path file, FilteredComponentIterableGenerator fallback)
+            throws IOException {
+        LearnedComponentHeuristic heuristic = new LearnedComponentHeuristic(fallback);
+        if (Files.notExists(Objects.requireNonNull(file))) {
+            logger.debug("No component statistics found in " + file);
+            return heuristic;
+        }
+        JsonElement root;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid component statistics in " + file, e);
+        }
+        if (!root.isJsonObject())
+            throw new IOException("Invalid component statistics in " + file + ": not a JSON object");
+        JsonObject jsonObj = root.getAsJsonObject();
+        int version = readNumber(jsonObj.get("version"), "version", file);
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported version of component statistics: " + version);
+        JsonObject components = readObject(jsonObj.get("rejections"), "rejections", file);
+        for (var component : components.entrySet()) {
+            Map<String, Integer> counts = new TreeMap<>();
+            for (var count : readObject(component.getValue(), component.getKey(), file).entrySet())
+                counts.put(count.getKey(), readNumber(count.getValue(), count.getKey(), file));
+            heuristic.rejections.put(component.getKey(), counts);
+        }
+        logger.debug("Loaded statistics of " + heuristic.rejections.size() + " components from " + file);
+        return heuristic;
+    }
+
+    /**
+     * Reads a JSON object from saved statistics.
+     *
+     * @param element the element to read
+     * @param name    the name of the element
+     * @param file    the file that the element was read from
+     * @return the element, as a JSON object
+     *
+     * @throws IOException if the element is missing or is not a JSON object
+     */
+    private static JsonObject readObject(JsonElement element, String name, Path file) throws IOException {
+        if (element == null || !element.isJsonObject())
+            throw new IOException("Invalid component statistics in " + file + ": " + name + " is not a JSON object");
+        return element.getAsJsonObject();
+    }
+
+    /**
+     * Reads a number from saved statistics.
+     *
+     * @param element the element to read
+     * @param name    the name of the element
+     * @param file    the file that the element was read from
+     * @return the element, as an integer
+     *
+     * @throws IOException if the element is missing or is not a number
+     */
+    private static int readNumber(JsonElement element, String name, Path file) throws IOException {
+        if (element == null || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber())
+            throw new IOException("Invalid component statistics in " + file + ": " + name + " is not a number");
+        return element.getAsInt();
+    }
+
+    /**
+     * Saves the statistics of this heuristic to the specified file.
+     *
+     * @param file the file to save to
+     *
+     * @throws IOException          if the file cannot be written
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public synchronized void save(Path file) throws IOException {
+        JsonObject components = new JsonObject();
+        for (var component : rejections.entrySet()) {
+            JsonObject counts = new JsonObject();
+            component.getValue().forEach(counts::addProperty);
+            components.add(component.getKey(), counts);
+        }
+        JsonObject jsonObj = new JsonObject();
+        jsonObj.addProperty("version", FORMAT_VERSION);
+        jsonObj.add("rejections", components);
+        try (Writer writer = Files.newBufferedWriter(Objects.requireNonNull(file), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(jsonObj, writer);
+        }
+    }
+
+    /**
+     * Generates a new component iterable that ranks components by the total
+     * number of counterexamples that they have rejected.
+     *
+     * @param plants the set of plants
+     * @param specs the set of specifications
+     * @param gPrime the set of "checked" plants
+     * @param hPrime the set of "checked" specifications
+     *
+     * @return a new component iterable
+     *
+     * @throws NullPointerException if any one of the arguments is {@code null}
+     */
+    @Override
+    public ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime,
+            Set<Automaton> hPrime) {
+        return new LearnedOrderComponentIterable(plants, specs, gPrime, hPrime, null);
+    }
+
+    /**
+     * Generates a new component iterable that ranks components by the number
+     * of counterexamples involving the events of the specified counterexample
+     * that they have rejected.
+     *
+     * @param plants the set of plants
+     * @param specs the set of specifications
+     * @param gPrime the set of "checked" plants
+     * @param hPrime the set of "checked" specifications
+     * @param counterexample the counterexample to be rejected
+     *
+     * @return a new component iterable
+     *
+     * @throws NullPointerException if any one of the arguments is {@code null}
+     */
+    @Override
+    public ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime,
+            Set<Automaton> hPrime, Counterexample counterexample) {
+        return new LearnedOrderComponentIterable(plants, specs, gPrime, hPrime,
+                eventsOf(Objects.requireNonNull(counterexample)));
+    }
+
+    /**
+     * Records the component that rejected a counterexample.
+     *
+     * @param counterexample the counterexample
+     * @param component the first component that rejected the counterexample,
+     *                  or {@code null} if no component rejected it
+     * @param nChecks the number of components that were checked
+     */
+    @Override
+    public synchronized void searchCompleted(Counterexample counterexample, Automaton component, int nChecks) {
+        if (component == null)
+            return;
+        if (component.getStrRepr() == null) {
+            logger.warn("Rejection by an unnamed component was not recorded");
+            return;
+        }
+        Map<String, Integer> counts = rejections.computeIfAbsent(component.getStrRepr(), k -> new TreeMap<>());
+        for (String event : eventsOf(counterexample))
+            counts.merge(event, 1, Integer::sum);
+    }
+
+    /**
+     * Returns the number of counterexamples involving the specified event that
+     * the specified component has rejected.
+     *
+     * @param component the custom string representation of a component
+     * @param event the label of an event
+     * @return the number of rejected counterexamples
+     */
+    public synchronized int getRejectionCount(String component, String event) {
+        return rejections.getOrDefault(component, Collections.emptyMap()).getOrDefault(event, 0);
+    }
+
+    /**
+     * Computes the rank of a component.
+     *
+     * @param component a component
+     * @param events the events of a counterexample, or {@code null} to rank by
+     *               all rejected counterexamples
+     * @return the rank of the component, where higher ranks come first
+     */
+    private synchronized int rankOf(Automaton component, Set<String> events) {
+        if (component.getStrRepr() == null)
+            return 0;
+        Map<String, Integer> counts = rejections.get(component.getStrRepr());
+        if (counts == null)
+            return 0;
+        int rank = 0;
+        for (var count : counts.entrySet()) {
+            if (events == null || events.contains(count.getKey()))
+                rank += count.getValue();
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the events that the specified counterexample involves.
+     *
+     * @param counterexample a counterexample
+     * @return the event that the counterexample is for, followed by the events
+     *         of its word for the system
+     */
+    private static Set<String> eventsOf(Counterexample counterexample) {
+        Set<String> events = new LinkedHashSet<>();
+        events.add(counterexample.getEvent().getLabel());
+        if (!counterexample.getWords().isEmpty())
+            counterexample.getWords().get(0).forEach(events::add);
+        return events;
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic
+     */
+    @Override
+    public String toString() {
+        return "Learned (" + fallback + ")";
+    }
+
+    /**
+     * An iterable of system components, ordered by rank and then by the
+     * fallback heuristic.
+     */
+    private final class LearnedOrderComponentIterable extends ComponentIterable {
+
+        /**
+         * Constructs a new {@code LearnedOrderComponentIterable}.
+         *
+         * @param plants the set of plants
+         * @param specs the set of specifications
+         * @param gPrime the set of "checked" plants
+         * @param hPrime the set of "checked" specifications
+         * @param events the events of the counterexample to be rejected, or
+         *               {@code null}
+         */
+        LearnedOrderComponentIterable(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime,
+                Set<Automaton> hPrime, Set<String> events) {
+            super(plants, specs, gPrime, hPrime);
+            Map<Automaton, Integer> ranks = new HashMap<>();
+            Map<Automaton, Integer> fallbackOrder = new HashMap<>();
+            for (Automaton component : fallback.generate(plants, specs)) {
+                ranks.put(component, rankOf(component, events));
+                fallbackOrder.put(component, fallbackOrder.size());
+            }
+            setOrdering(Comparator.<Automaton>comparingInt(ranks::get).reversed()
+                    .thenComparingInt(fallbackOrder::get));
+        }
+    }
+}
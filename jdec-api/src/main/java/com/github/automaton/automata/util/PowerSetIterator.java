@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata.util;
+
+import java.util.*;
+
+/**
+ * An iterator over the sets in a power set, in order of increasing size.
+ * <p>
+ * Sets are generated one at a time, so the power set is never held in memory.
+ * Sets of the same size are returned in lexicographic order of the positions
+ * of their elements in the list that this iterator was constructed with, which
+ * is the order that they appear in the lists returned by
+ * {@link PowerSetUtils#powerSet(List)} and
+ * {@link PowerSetUtils#powerSetSubset(List, Set)}.
+ * <p>
+ * Supersets of a set can be excluded from the remaining iteration with
+ * {@link #pruneSupersetsOf(Set)}.
+ *
+ * @param <T> the type of data stored in the sets
+ *
+ * @author Sung Ho Yoon
+ *
+ * @see PowerSetUtils
+ * @since 2.2.0
+ */
+public final class PowerSetIterator<T> implements Iterator<Set<T>> {
+
+    /** Elements that may or may not be included in each set */
+    private final List<T> elements;
+    /** Elements that are included in every set */
+    private final Set<T> requiredElements;
+    /** Positions of elements in {@link #elements} */
+    private final Map<T, Integer> positions;
+    /** Positions of the elements of the sets whose supersets are excluded */
+    private final List<int[]> pruned;
+    /**
+     * Positions of the elements of the current set, in ascending order, or
+     * {@code null} if there are no more sets
+     */
+    private int[] combination;
+    /** Whether each element is in the current set */
+    private final boolean[] chosen;
+    /** Whether the current set is yet to be returned */
+    private boolean pending;
+
+    /**
+     * Constructs an iterator over the power set of a set.
+     *
+     * @param setElements the list of elements in the set
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public PowerSetIterator(List<T> setElements) {
+        this(setElements, Collections.emptySet());
+    }
+
+    /**
+     * Constructs an iterator over the sets in the power set which contain the
+     * required elements.
+     *
+     * @param setElements      the list of elements in the set
+     * @param requiredElements the set of elements which must be included in each
+     *                         generated set
+     *
+     * @throws IllegalArgumentException if {@code requiredElements} is not a subset
+     *                                  of {@code setElements}
+     * @throws NullPointerException     if either one of the arguments is
+     *                                  {@code null}
+     */
+    public PowerSetIterator(List<T> setElements, Set<T> requiredElements) {
+
+        Objects.requireNonNull(setElements);
+        Objects.requireNonNull(requiredElements);
+        for (T required : requiredElements) {
+            if (!setElements.contains(required))
+                throw new IllegalArgumentException("setElements does not contain \"" + required + "\"");
+        }
+
+        this.elements = new ArrayList<>(setElements);
+        this.elements.removeAll(requiredElements);
+        this.requiredElements = new HashSet<>(requiredElements);
+        this.positions = new HashMap<>();
+        for (int i = 0; i < elements.size(); i++)
+            positions.putIfAbsent(elements.get(i), i);
+        this.pruned = new ArrayList<>();
+        this.combination = new int[0];
+        this.chosen = new boolean[elements.size()];
+        this.pending = true;
+
+    }
+
+    /**
+     * Returns {@code true} if there are more sets that have not been pruned.
+     *
+     * @return {@code true} if there are more sets
+     */
+    @Override
+    public boolean hasNext() {
+        while (!pending && combination != null) {
+            advance();
+            pending = combination != null && !isPruned();
+        }
+        return pending;
+    }
+
+    /**
+     * Returns the next set. Every set returned is a new, modifiable set.
+     *
+     * @return the next set
+     *
+     * @throws NoSuchElementException if there are no more sets
+     */
+    @Override
+    public Set<T> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        pending = false;
+        Set<T> set = new HashSet<>(requiredElements);
+        for (int i : combination)
+            set.add(elements.get(i));
+        return set;
+    }
+
+    /**
+     * Excludes all supersets of the specified set, including the set itself,
+     * from the remaining iteration.
+     *
+     * @param subset a set
+     *
+     * @throws NullPointerException if argument is {@code null}
+     */
+    public void pruneSupersetsOf(Set<T> subset) {
+        int[] members = new int[subset.size()];
+        int nMembers = 0;
+        for (T element : subset) {
+            Integer position = positions.get(element);
+            if (position != null)
+                members[nMembers++] = position;
+            else if (!requiredElements.contains(element))
+                return; // no set in the power set contains this element
+        }
+        if (nMembers == 0) {
+            // Every set is a superset
+            combination = null;
+            pending = false;
+            return;
+        }
+        pruned.add(Arrays.copyOf(members, nMembers));
+        if (pending && isPruned())
+            pending = false;
+    }
+
+    /**
+     * Checks whether the current set is a superset of a pruned set.
+     *
+     * @return {@code true} if the current set has been pruned
+     */
+    private boolean isPruned() {
+        outer: for (int[] members : pruned) {
+            if (members.length > combination.length)
+                continue;
+            for (int i : members) {
+                if (!chosen[i])
+                    continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves on to the next set, which is the next combination of the same size
+     * in lexicographic order, or the first combination of the next size.
+     */
+    private void advance() {
+        final int n = elements.size();
+        final int k = combination.length;
+        for (int i : combination)
+            chosen[i] = false;
+
+        // Find the rightmost position that can be incremented
+        int i = k - 1;
+        while (i >= 0 && combination[i] == n - k + i)
+            i--;
+
+        if (i >= 0) {
+            combination[i]++;
+            for (int j = i + 1; j < k; j++)
+                combination[j] = combination[j - 1] + 1;
+        } else if (k < n) {
+            combination = new int[k + 1];
+            for (int j = 0; j <= k; j++)
+                combination[j] = j;
+        } else {
+            combination = null;
+            return;
+        }
+
+        for (int j : combination)
+            chosen[j] = true;
+    }
+}
@@ -13,10 +13,14 @@ import java.util.Set;
 
 /**
  * Utility methods for building power sets.
+ * <p>
+ * The methods in this class hold the entire power set in memory. Use
+ * {@link PowerSetIterator} to generate the sets one at a time instead.
  * 
  * @author Micah Stairs
  * @author Sung Ho Yoon
  * 
+ * @see PowerSetIterator
  * @since 2.1.0
  */
 public class PowerSetUtils {
@@ -94,6 +94,66 @@ class HelperMethodTest {
         assertIterableEquals(expectedIndexes, Arrays.asList(getParetoRanks(x, y)));
     }
 
+    @Test
+    @DisplayName("Indexed Special Transitions - TransitionDataList")
+    public void testTransitionDataList() {
+
+        TransitionDataList<TransitionData> list = new TransitionDataList<>();
+        list.add(new TransitionData(1, 1, 2));
+        list.add(new TransitionData(2, 1, 3));
+        list.add(new TransitionData(1, 2, 3));
+        list.add(new TransitionData(1, 1, 2));
+
+        logger.debug("Ensuring that lookups are consistent with list semantics");
+        assertTrue(list.contains(new TransitionData(2, 1, 3)));
+        assertFalse(list.contains(new TransitionData(2, 2, 3)));
+        assertFalse(list.contains(new CommunicationData(2, 1, 3, new CommunicationRole[] { CommunicationRole.NONE })));
+        assertEquals(List.of(new TransitionData(1, 1, 2), new TransitionData(1, 2, 3), new TransitionData(1, 1, 2)),
+                list.getBySource(1));
+        assertTrue(list.containsFrom(1, 2));
+        assertFalse(list.containsFrom(2, 2));
+
+        logger.debug("Ensuring that duplicates are removed one at a time");
+        assertTrue(list.remove(new TransitionData(1, 1, 2)));
+        assertTrue(list.contains(new TransitionData(1, 1, 2)));
+        assertEquals(List.of(new TransitionData(2, 1, 3), new TransitionData(1, 2, 3), new TransitionData(1, 1, 2)),
+                list);
+        assertTrue(list.remove(new TransitionData(1, 1, 2)));
+        assertFalse(list.contains(new TransitionData(1, 1, 2)));
+        assertFalse(list.remove(new TransitionData(1, 1, 2)));
+        assertEquals(List.of(new TransitionData(2, 1, 3), new TransitionData(1, 2, 3)), list);
+
+        logger.debug("Ensuring that the list can be reindexed after elements are modified in place");
+        list.get(0).initialStateID = 3;
+        list.reindex();
+        assertTrue(list.contains(new TransitionData(3, 1, 3)));
+        assertFalse(list.contains(new TransitionData(2, 1, 3)));
+        assertTrue(list.getBySource(2).isEmpty());
+        assertEquals(List.of(new TransitionData(3, 1, 3)), list.getBySource(3));
+    }
+
+    @Test
+    @DisplayName("Removing Special Transitions - removeTransitionData()")
+    public void testRemoveTransitionData() {
+
+        logger.debug("Instantiating a U-Structure...");
+        UStructure uStructure = AutomatonGenerator.generateFromGUICode(
+                new UStructure(2),
+                "<a,a,a>,TF,TF\n<o,o,o>,TT,TT", // Events
+                "@1\n2\n3", // States
+                "1,<a,a,a>,2:POTENTIAL_COMMUNICATION-SR\n2,<o,o,o>,3:DISABLEMENT_DECISION-TF" // Transitions
+        );
+        int a = uStructure.getEvent("<a,a,a>").getID();
+        int o = uStructure.getEvent("<o,o,o>").getID();
+
+        logger.debug("Ensuring that removing a transition removes its potential communication");
+        assertTrue(uStructure.removeTransition(new TransitionData(1, a, 2)));
+        assertTrue(uStructure.getPotentialCommunications().isEmpty());
+        logger.debug("Ensuring that removing a transition removes its disablement decision");
+        assertTrue(uStructure.removeTransition(new TransitionData(2, o, 3)));
+        assertTrue(uStructure.getDisablementDecisions().isEmpty());
+    }
+
     private static Integer[] getParetoRanks(int[] objective1, int[] objective2) {
 
         if (objective1.length != objective2.length)
@@ -8,20 +8,26 @@ package com.github.automaton.automata;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.*;
 import org.junit.jupiter.params.provider.*;
 
+import com.github.automaton.automata.incremental.*;
 import com.github.automaton.io.input.AutomatonGenerator;
 import com.github.automaton.io.json.AutomatonJsonFileAdapter;
 
 @DisplayName("Inference Observability Test")
 public class ObservabilityTest {
 
+    private static Logger logger = LogManager.getLogger();
+
     @ParameterizedTest(name = "Test {index}")
     @MethodSource
     @Disabled
@@ -46,6 +52,79 @@ public class ObservabilityTest {
         
     }
 
+    @Test
+    @DisplayName("Test Reuse of Observability Analysis")
+    public void testObservabilityAnalysisReuse() throws IOException {
+        Automaton automaton = testObservableAutomata()[0];
+        ObservabilityAnalysis analysis = ObservabilityAnalysis.of(automaton);
+
+        assertSame(analysis, ObservabilityAnalysis.of(automaton));
+        assertSame(analysis, ObservabilityAnalysis.of(automaton.clone()));
+        assertEquals(analysis.testObservability(true), automaton.testObservability(true));
+        assertEquals(analysis.generateLocalControlDecisions(false).size(),
+                automaton.calculateAmbiguityLevels().size());
+
+        assertNotEquals(0, automaton.addTransition(automaton.getStateID("8"), "alpha", automaton.getStateID("0")));
+        assertNotSame(analysis, ObservabilityAnalysis.of(automaton));
+
+        ObservabilityAnalysis modified = ObservabilityAnalysis.of(automaton);
+        ObservabilityAnalysis.evict(automaton);
+        assertNotSame(modified, ObservabilityAnalysis.of(automaton));
+
+        // "Aa" and "BB" have the same hash code
+        Automaton aa = AutomatonGenerator.generateFromGUICode(new Automaton(1), "a,T,T", "@Aa,T", "Aa,a,Aa");
+        Automaton bb = AutomatonGenerator.generateFromGUICode(new Automaton(1), "a,T,T", "@BB,T", "BB,a,BB");
+        assertNotSame(ObservabilityAnalysis.of(aa), ObservabilityAnalysis.of(bb));
+    }
+
+    @Test
+    @DisplayName("Test Early Detection of Unobservable Automata")
+    public void testEarlyDetection() throws IOException {
+        Automaton automaton = AutomatonGenerator.generateFromGUICode(
+                new Automaton(1),
+                "u,F,F\nc,T,T", // Events
+                "@0,F\n1,F\n2,F\n3,F", // States
+                "0,c,2\n0,u,1\n1,c,3:BAD" // Transitions
+        );
+        ObservabilityAnalysis.clearCache();
+        assertFalse(ObservabilityAnalysis.testObservability(automaton));
+        assertFalse(ObservabilityAnalysis.of(automaton).testObservability(false).getLeft());
+
+        for (Automaton observable : testObservableAutomata()) {
+            assertTrue(ObservabilityAnalysis.testObservability(observable));
+            ObservabilityAnalysis analysis = ObservabilityAnalysis.of(observable);
+            for (int i = 1; i <= observable.getNumberOfControllers(); i++) {
+                SubsetConstruction subsetConstruction = analysis.getSubsetConstruction(i);
+                assertTrue(subsetConstruction.isComplete());
+                assertEquals(analysis.getUStructure().subsetConstruction(i).getNumberOfStates(),
+                        subsetConstruction.getNumberOfStates());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test Counterexample Extraction")
+    public void testCounterexampleExtraction() {
+        Automaton automaton = AutomatonGenerator.generateFromGUICode(
+                new Automaton(1),
+                "u,F,F\nc,T,T\nv,F,F", // Events
+                "@0,F\n1,F\n2,F\n3,F\n4,F\n5,F", // States
+                "0,c,2\n0,u,1\n1,c,3:BAD\n0,v,4\n4,u,5\n5,c,3:BAD" // Transitions
+        );
+        UStructure uStructure = UStructureOperations
+                .relabelConfigurationStates(AutomataOperations.synchronizedComposition(automaton));
+        List<Counterexample> counterexamples = new CounterexampleExtractor(uStructure).extractAll(automaton,
+                CounterexampleHeuristics.SHORT_C);
+
+        assertEquals(2, counterexamples.size());
+        assertEquals("c", counterexamples.get(0).getEvent().getLabel());
+        assertEquals(List.of(new Word("u"), Word.EPSILON), counterexamples.get(0).getWords());
+        assertEquals(List.of(new Word(new String[] { "v", "u" }), Word.EPSILON), counterexamples.get(1).getWords());
+
+        assertEquals(List.of(counterexamples.get(1), counterexamples.get(0)),
+                new CounterexampleExtractor(uStructure).extractAll(automaton, CounterexampleHeuristics.LONG_C));
+    }
+
     static Automaton[] testObservableAutomata() throws IOException {
         AutomatonJsonFileAdapter fig6Adapter = new AutomatonJsonFileAdapter(new File("aut/fig-6.json"));
         return new Automaton[] {
@@ -157,6 +236,292 @@ public class ObservabilityTest {
         };
     }
 
+    @Test
+    @DisplayName("Test Composition Cache")
+    public void testCompositionCache() {
+        Automaton[] components = systemComponents("sigma,TT,TT");
+        Automaton plant1 = components[0], plant2 = components[1], spec1 = components[2], spec2 = components[3];
+        CompositionCache cache = new CompositionCache();
+
+        Set<Automaton> plants = new LinkedHashSet<>();
+        Set<Automaton> specs = new LinkedHashSet<>(List.of(spec1));
+        assertSystemEquals(AutomataOperations.buildMonolithicSystem(plants, specs),
+                cache.buildMonolithicSystem(plants, specs));
+        assertEquals(0, cache.getHits());
+
+        plants.add(plant1);
+        assertSystemEquals(AutomataOperations.buildMonolithicSystem(plants, specs),
+                cache.buildMonolithicSystem(plants, specs));
+        assertEquals(1, cache.getHits());
+
+        plants.add(plant2);
+        specs.add(spec2);
+        assertSystemEquals(AutomataOperations.buildMonolithicSystem(plants, specs),
+                cache.buildMonolithicSystem(plants, specs));
+        assertEquals(1, cache.getHits());
+        assertEquals(4, cache.getMisses());
+
+        cache.logAndResetStatistics("Test");
+        assertSystemEquals(AutomataOperations.buildMonolithicSystem(plants, specs),
+                cache.buildMonolithicSystem(plants, specs));
+        assertEquals(2, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = ';', value = { "sigma,TT,TT; true", "sigma,TT,TF; true", "sigma,TT,FT; false" })
+    @DisplayName("Test Incremental Observability")
+    public void testIncrementalObservability(String sigma, boolean observable) {
+        Automaton[] components = systemComponents(sigma);
+        Set<Automaton> plants = new LinkedHashSet<>(List.of(components[0], components[1]));
+        Set<Automaton> specs = new LinkedHashSet<>(List.of(components[2], components[3]));
+        assertEquals(observable, AutomataOperations.testIncrementalObservability(plants, specs));
+        assertEquals(AutomataOperations.testObservability(AutomataOperations.buildMonolithicSystem(plants, specs), false)
+                .getLeft(), AutomataOperations.testIncrementalObservability(plants, specs));
+        for (Automaton spec : specs) {
+            assertEquals(
+                    AutomataOperations.testObservability(AutomataOperations.buildMonolithicSystem(plants, Set.of(spec)),
+                            false).getLeft(),
+                    AutomataOperations.testIncrementalObservability(plants, Set.of(spec)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Parallel Component Search")
+    public void testParallelComponentSearch() {
+        List<Automaton> components = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            boolean rejecting = i == 17 || i == 40;
+            components.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T", // Events
+                    "@0,T", // States
+                    rejecting ? "" : "0,a,0" // Transitions
+            ));
+        }
+        Counterexample counterexample = new Counterexample(components.get(0).getEvent("a"),
+                List.of(new Word("a"), new Word("a")));
+        Set<Automaton> plants = new LinkedHashSet<>(components);
+
+        try (ComponentSearch sequential = new ComponentSearch(CompositionOptions.sequential());
+                ComponentSearch parallel = new ComponentSearch(CompositionOptions.parallel(4))) {
+            assertSame(components.get(17),
+                    sequential.findRejectingComponent(components, counterexample, plants, 1));
+            assertEquals(18, sequential.getNumberOfChecks());
+            for (int i = 0; i < 10; i++) {
+                assertSame(components.get(17),
+                        parallel.findRejectingComponent(components, counterexample, plants, 1));
+            }
+            assertNull(parallel.findRejectingComponent(components.subList(18, 40), counterexample, plants, 1));
+            assertNull(parallel.findRejectingComponent(List.of(), counterexample, plants, 1));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "sigma,TT,TT", "sigma,TT,TF", "sigma,TT,FT" })
+    @DisplayName("Test Parallel Incremental Observability")
+    public void testParallelIncrementalObservability(String sigma) {
+        Automaton[] components = systemComponents(sigma);
+        Set<Automaton> plants = new LinkedHashSet<>(List.of(components[0], components[1]));
+        Set<Automaton> specs = new LinkedHashSet<>(List.of(components[2], components[3]));
+        for (CounterexampleHeuristics heuristic : CounterexampleHeuristics.values()) {
+            assertEquals(
+                    AutomataOperations.testIncrementalObservability(plants, specs, heuristic,
+                            RandomOrderComponentIterable::new),
+                    AutomataOperations.testIncrementalObservability(plants, specs, heuristic,
+                            RandomOrderComponentIterable::new, CompositionOptions.parallel(2)));
+        }
+    }
+
+    @Test
+    @DisplayName("Component Heuristic Benchmark")
+    public void benchmarkComponentHeuristics(@TempDir Path tempDir) throws IOException {
+        Path statistics = tempDir.resolve("component-statistics.json");
+        for (int run = 1; run <= 2; run++) {
+            Set<Automaton> plants = new LinkedHashSet<>(), specs = new LinkedHashSet<>();
+            buildBenchmarkSystem(plants, specs);
+
+            List<FilteredComponentIterableGenerator> heuristics = new ArrayList<>(
+                    List.of(ComponentHeuristics.values()));
+            LearnedComponentHeuristic learned = LearnedComponentHeuristic.load(statistics, ComponentHeuristics.RANDOM);
+            heuristics.add(learned);
+
+            int fewestChecks = Integer.MAX_VALUE;
+            for (FilteredComponentIterableGenerator heuristic : heuristics) {
+                CountingHeuristic counter = new CountingHeuristic(heuristic);
+                assertTrue(AutomataOperations.testIncrementalObservability(plants, specs,
+                        CounterexampleHeuristics.NONE, counter));
+                logger.info("Run " + run + ", " + heuristic + ": " + counter.nChecks + " component checks in "
+                        + counter.nSearches + " searches");
+                if (heuristic != learned)
+                    fewestChecks = Math.min(fewestChecks, counter.nChecks);
+                else if (run > 1) {
+                    assertEquals(counter.nSearches, counter.nChecks);
+                    assertTrue(counter.nChecks <= fewestChecks);
+                }
+            }
+            learned.save(statistics);
+        }
+
+        LearnedComponentHeuristic reloaded = LearnedComponentHeuristic.load(statistics, ComponentHeuristics.RANDOM);
+        assertTrue(reloaded.getRejectionCount("plant0", "u0") > 0);
+        assertEquals(0, reloaded.getRejectionCount("noise0", "u0"));
+
+        for (String malformed : List.of("[]", "{}", "{\"version\": 1}", "{\"version\": \"1\", \"rejections\": {}}",
+                "{\"version\": 1, \"rejections\": {\"plant0\": 3}}",
+                "{\"version\": 1, \"rejections\": {\"plant0\": {\"u0\": []}}}")) {
+            Files.writeString(statistics, malformed);
+            assertThrows(IOException.class,
+                    () -> LearnedComponentHeuristic.load(statistics, ComponentHeuristics.RANDOM));
+        }
+    }
+
+    /**
+     * Builds a system in which each specification forbids an event after an
+     * unobservable event, and only one of the plants prevents the unobservable
+     * event from occurring.
+     */
+    private static void buildBenchmarkSystem(Set<Automaton> plants, Set<Automaton> specs) {
+        final int nGroups = 4, nNoise = 20;
+        StringBuilder events = new StringBuilder();
+        for (int k = 0; k < nGroups; k++)
+            events.append("u").append(k).append(",F,F\ns").append(k).append(",T,T\n");
+        for (int k = 0; k < nGroups; k++) {
+            StringBuilder specTransitions = new StringBuilder(), plantTransitions = new StringBuilder();
+            for (int j = 0; j < nGroups; j++) {
+                specTransitions.append("0,s").append(j).append(",0\n");
+                specTransitions.append("0,u").append(j).append(j == k ? ",1\n" : ",0\n");
+                specTransitions.append("1,u").append(j).append(",1\n");
+                if (j != k) {
+                    specTransitions.append("1,s").append(j).append(",1\n");
+                    plantTransitions.append("0,u").append(j).append(",0\n");
+                }
+                plantTransitions.append("0,s").append(j).append(",0\n");
+            }
+            Automaton spec = AutomatonGenerator.generateFromGUICode(new Automaton(1), events.toString(), "@0,T\n1,T",
+                    specTransitions.toString());
+            spec.setStrRepr("spec" + k);
+            specs.add(spec);
+            Automaton plant = AutomatonGenerator.generateFromGUICode(new Automaton(1), events.toString(), "@0,T",
+                    plantTransitions.toString());
+            plant.setStrRepr("plant" + k);
+            plants.add(plant);
+        }
+        StringBuilder noiseTransitions = new StringBuilder();
+        for (int j = 0; j < nGroups; j++)
+            noiseTransitions.append("0,s").append(j).append(",0\n0,u").append(j).append(",0\n");
+        for (int i = 0; i < nNoise; i++) {
+            Automaton noise = AutomatonGenerator.generateFromGUICode(new Automaton(1), events.toString(), "@0,T",
+                    noiseTransitions.toString());
+            noise.setStrRepr("noise" + i);
+            plants.add(noise);
+        }
+    }
+
+    private static final class CountingHeuristic implements FilteredComponentIterableGenerator {
+        private final FilteredComponentIterableGenerator heuristic;
+        private int nChecks, nSearches;
+
+        CountingHeuristic(FilteredComponentIterableGenerator heuristic) {
+            this.heuristic = heuristic;
+        }
+
+        @Override
+        public ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime,
+                Set<Automaton> hPrime) {
+            return heuristic.generate(plants, specs, gPrime, hPrime);
+        }
+
+        @Override
+        public ComponentIterable generate(Set<Automaton> plants, Set<Automaton> specs, Set<Automaton> gPrime,
+                Set<Automaton> hPrime, Counterexample counterexample) {
+            return heuristic.generate(plants, specs, gPrime, hPrime, counterexample);
+        }
+
+        @Override
+        public void searchCompleted(Counterexample counterexample, Automaton component, int nChecks) {
+            this.nChecks += nChecks;
+            this.nSearches++;
+            heuristic.searchCompleted(counterexample, component, nChecks);
+        }
+    }
+
+    private static void assertSystemEquals(Automaton expected, Automaton actual) {
+        assertEquals(expected.toJsonObject(), actual.toJsonObject());
+    }
+
+    static Automaton[] systemComponents(String sigma) {
+        Automaton[] components = new Automaton[] {
+                AutomatonGenerator.generateFromGUICode(
+                        new Automaton(2),
+                        """
+                                a,TF,FF
+                                b,FT,FF
+                                %s""".formatted(sigma), // Events
+                        """
+                                @0,F
+                                1,F
+                                2,F
+                                3,F""", // States
+                        """
+                                0,a,1
+                                0,b,2
+                                0,sigma,3
+                                1,sigma,3
+                                2,sigma,3""" // Transitions
+                ),
+                AutomatonGenerator.generateFromGUICode(
+                        new Automaton(2),
+                        """
+                                a,TF,FF
+                                b,FT,FF
+                                %s""".formatted(sigma), // Events
+                        """
+                                @0,F
+                                1,F""", // States
+                        """
+                                0,a,0
+                                0,b,0
+                                0,sigma,1""" // Transitions
+                ),
+                AutomatonGenerator.generateFromGUICode(
+                        new Automaton(2),
+                        """
+                                a,TF,FF
+                                b,FT,FF
+                                %s""".formatted(sigma), // Events
+                        """
+                                @0,F
+                                1,F
+                                2,F""", // States
+                        """
+                                0,a,1
+                                0,b,0
+                                1,sigma,2
+                                1,b,1""" // Transitions
+                ),
+                AutomatonGenerator.generateFromGUICode(
+                        new Automaton(2),
+                        """
+                                a,TF,FF
+                                b,FT,FF
+                                %s""".formatted(sigma), // Events
+                        """
+                                @0,F
+                                1,F
+                                2,F""", // States
+                        """
+                                0,a,0
+                                0,b,1
+                                0,sigma,2
+                                1,a,1""" // Transitions
+                )
+        };
+        for (Automaton component : components)
+            assertNotNull(component.getEvent("sigma"));
+        return components;
+    }
+
     @ParameterizedTest(name = "Test {index}")
     @MethodSource
     @DisplayName("Test Unobservable Automata")
@@ -8,11 +8,13 @@ package com.github.automaton.automata;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.*;
 import org.junit.jupiter.api.*;
 
+import com.github.automaton.automata.util.IDUtil;
 import com.github.automaton.io.input.AutomatonGenerator;
 
 @SuppressWarnings("removal")
@@ -202,6 +204,127 @@ public class TestAutomata {
 
         }
 
+        @Test
+        @DisplayName("State Label Lookup Tests")
+        public void testStateLabelLookup() {
+            /* State Label Lookup Tests */
+
+            logger.debug("STATE LABEL LOOKUPS: ");
+
+            logger.debug("Instantiating empty automaton...");
+            Automaton automaton = new Automaton();
+            long firstID = automaton.addState("firstState", true, true);
+            long secondID = automaton.addState("secondState", true, false);
+
+            logger.debug("Ensuring that states can be looked up by label");
+            assertEquals(firstID, automaton.getStateID("firstState"));
+            assertEquals(secondID, automaton.getStateID("secondState"));
+            assertFalse(automaton.stateExists("thirdState"));
+
+            logger.debug("Relabeling a state...");
+            automaton.relabelState(automaton.getState(secondID), "thirdState");
+            logger.debug("Ensuring that the state can only be looked up by its new label");
+            assertFalse(automaton.stateExists("secondState"));
+            assertEquals(secondID, automaton.getStateID("thirdState"));
+
+            logger.debug("Removing a state...");
+            automaton.removeState(firstID);
+            logger.debug("Ensuring that the removed state can no longer be looked up");
+            assertFalse(automaton.stateExists("firstState"));
+
+            logger.debug("Renumbering states...");
+            automaton.renumberStates();
+            logger.debug("Ensuring that the remaining state can be looked up with its new ID");
+            assertEquals(1L, automaton.getStateID("thirdState"));
+
+            logger.debug("Adding states that share a label...");
+            long firstDuplicateID = automaton.addState("duplicateState", false, false);
+            long secondDuplicateID = automaton.addState("duplicateState", false, false);
+            long thirdDuplicateID = automaton.addState("duplicateState", false, false);
+            logger.debug("Ensuring that the first state with the label is looked up");
+            assertEquals(firstDuplicateID, automaton.getStateID("duplicateState"));
+
+            logger.debug("Removing states that share a label...");
+            automaton.removeState(secondDuplicateID);
+            assertEquals(firstDuplicateID, automaton.getStateID("duplicateState"));
+            automaton.removeState(firstDuplicateID);
+            logger.debug("Ensuring that the remaining state with the label is looked up");
+            assertEquals(thirdDuplicateID, automaton.getStateID("duplicateState"));
+            automaton.removeState(thirdDuplicateID);
+            assertFalse(automaton.stateExists("duplicateState"));
+        }
+
+        @Test
+        @DisplayName("State Transition Index Tests")
+        public void testStateTransitionIndex() {
+            /* State Transition Index Tests */
+
+            logger.debug("STATE TRANSITION INDEX: ");
+
+            logger.debug("Instantiating a state with many transitions...");
+            Event a = new Event("a", 1, new boolean[] { true }, new boolean[] { true });
+            Event b = new Event("b", 2, new boolean[] { true }, new boolean[] { true });
+            State state = new State("state", 1, false);
+            for (long target = 1; target <= 10; target++) {
+                assertTrue(state.addTransition(new Transition(target % 2 == 0 ? a : b, target)));
+            }
+
+            logger.debug("Ensuring that duplicate transitions are rejected");
+            assertFalse(state.addTransition(new Transition(a, 4)));
+            assertEquals(10, state.getNumberOfTransitions());
+
+            logger.debug("Ensuring that transitions can be looked up by event");
+            assertEquals(List.of(2L, 4L, 6L, 8L, 10L),
+                    state.getTransitionsWithEvent(a).stream().map(Transition::getTargetStateID).toList());
+            assertTrue(state.hasTransitionWithEvent(b));
+            assertFalse(state.hasTransitionWithEvent(new Event("c", 3, new boolean[] { true }, new boolean[] { true })));
+
+            logger.debug("Removing a transition...");
+            assertTrue(state.removeTransition(new Transition(a, 4)));
+            logger.debug("Ensuring that the removed transition can no longer be looked up");
+            assertFalse(state.containsTransition(new Transition(a, 4)));
+            assertEquals(List.of(2L, 6L, 8L, 10L),
+                    state.getTransitionsWithEvent(a).stream().map(Transition::getTargetStateID).toList());
+            assertTrue(state.addTransition(new Transition(a, 4)));
+        }
+
+        @Test
+        @DisplayName("State Set Tests")
+        public void testStateSet() {
+            /* State Set Tests */
+
+            logger.debug("STATE SET: ");
+
+            State s1 = new State("one", 1, false);
+            State s2 = new State("two", 2, false);
+            State s3 = new State("three", 3, false);
+
+            logger.debug("Instantiating state sets with the same members in different orders...");
+            StateSet ss1 = new StateSet(new LinkedHashSet<>(List.of(s3, s1)), 3);
+            StateSet ss2 = new StateSet(new LinkedHashSet<>(List.of(s1, s3)), 3);
+            StateSet ss3 = new StateSet(Set.of(s1, s2, s3), 3);
+
+            logger.debug("Ensuring that state sets are compared by members");
+            assertEquals(ss1, ss2);
+            assertEquals(ss1.hashCode(), ss2.hashCode());
+            assertNotEquals(ss1, ss3);
+
+            logger.debug("Ensuring that IDs and labels are consistent with state vectors");
+            assertEquals(ss1.toStateVector().getID(), ss1.getID());
+            assertEquals(IDUtil.combineBigIDs(List.of(1L, 3L), 3).longValue(),
+                    ss1.getID());
+            assertEquals(new LabelVector(List.of("one", "three")).toString(), ss1.getLabel());
+            assertEquals(ss1.getLabel(), ss1.clone().getLabel());
+
+            logger.debug("Ensuring that containment is checked correctly");
+            assertTrue(ss3.containsAll(ss1));
+            assertFalse(ss1.containsAll(ss3));
+            assertEquals(2, ss1.size());
+            assertTrue(ss1.getSet().contains(s3));
+            assertFalse(ss1.getSet().contains(s2));
+            assertIterableEquals(List.of(s1, s3), ss2.getSet());
+        }
+
     }
 
     @Nested
@@ -871,6 +994,532 @@ public class TestAutomata {
 
     }
 
+    @Nested
+    @DisplayName("ADD COMMUNICATIONS")
+    class AddCommunicationsTest {
+
+        @Test
+        @DisplayName("Add Communications Operation Tests")
+        public void testAddCommunications() {
+            /* Add Communications Operation Tests */
+            logger.debug("ADD COMMUNICATIONS OPERATION: ");
+
+            logger.debug("Instantiating a U-Structure...");
+            UStructure synchronizedComposition = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7:DISABLEMENT_DECISION-FT\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6:DISABLEMENT_DECISION-TF\n5_5_5,<o,o,o>,7_7_7:DISABLEMENT_DECISION-TT" // Transitions
+            );
+            String eventInput = synchronizedComposition.getEventInput();
+            String transitionInput = synchronizedComposition.getTransitionInput();
+
+            logger.debug("Adding communications to the U-Structure...");
+            UStructure communications = UStructureOperations.addCommunications(synchronizedComposition);
+            logger.debug("Ensuring the events are correct");
+            assertMultiLineEquals(
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT\n<b,b,b>,FT,FT\n<a,a,a>,TF,TF",
+                    communications.getEventInput());
+            logger.debug("Ensuring the states are correct");
+            assertMultiLineEquals(
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7",
+                    communications.getStateInput());
+            logger.debug("Ensuring the transitions are correct");
+            assertMultiLineEquals(
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_1,<b,b,b>,3_3_3\n1_1_1,<a,a,a>,2_2_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_1_2,<b,b,b>,3_3_4\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_1,<a,a,a>,2_5_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_1,<b,b,b>,4_4_3\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_2_2,<b,b,b>,4_4_4\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_3,<a,a,a>,5_2_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_3,<a,a,a>,5_5_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6\n5_5_5,<o,o,o>,7_7_7",
+                    communications.getTransitionInput());
+            logger.debug("Ensuring the potential communications are correct");
+            assertEquals(8, communications.getPotentialCommunications().size());
+            assertTrue(communications.getInvalidCommunications().isEmpty());
+
+            logger.debug("Ensuring the original U-Structure is unchanged");
+            assertMultiLineEquals(eventInput, synchronizedComposition.getEventInput());
+            assertMultiLineEquals(transitionInput, synchronizedComposition.getTransitionInput());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("PROTOCOL SEARCH")
+    class ProtocolSearchTest {
+
+        @Test
+        @DisplayName("Parallel Protocol Search Tests")
+        public void testParallelProtocolSearch() {
+            /* Parallel Protocol Search Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure synchronizedComposition = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7:DISABLEMENT_DECISION-FT\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6:DISABLEMENT_DECISION-TF\n5_5_5,<o,o,o>,7_7_7:DISABLEMENT_DECISION-TT" // Transitions
+            );
+            UStructure communications = UStructureOperations.addCommunications(synchronizedComposition);
+            List<CommunicationData> potentialCommunications = communications.getPotentialCommunications();
+
+            logger.debug("Searching for feasible protocols sequentially...");
+            List<Set<CommunicationData>> sequential = new ProtocolSearch(communications,
+                    CompositionOptions.sequential()).findAllFeasibleProtocols(potentialCommunications, false, null);
+            logger.debug("Ensuring that feasible protocols were found");
+            assertFalse(sequential.isEmpty());
+
+            logger.debug("Searching for feasible protocols in parallel...");
+            List<Set<CommunicationData>> found = new ArrayList<>();
+            List<Set<CommunicationData>> parallel = new ProtocolSearch(communications,
+                    CompositionOptions.parallel(2)).findAllFeasibleProtocols(potentialCommunications, false, found::add);
+            logger.debug("Ensuring that the results are the same, in the same order");
+            assertIterableEquals(sequential, parallel);
+            logger.debug("Ensuring that the listener received every feasible protocol in order");
+            assertIterableEquals(sequential, found);
+            logger.debug("Ensuring that the protocols are sorted smallest to largest");
+            for (int i = 1; i < parallel.size(); i++)
+                assertTrue(parallel.get(i - 1).size() <= parallel.get(i).size());
+
+            logger.debug("Searching for the smallest feasible protocols in parallel...");
+            List<Set<CommunicationData>> smallest = new ProtocolSearch(communications,
+                    CompositionOptions.parallel(2)).findSmallestFeasibleProtocols(potentialCommunications, null);
+            logger.debug("Ensuring that only the protocols of the smallest size were found");
+            assertIterableEquals(sequential.stream().filter(p -> p.size() == sequential.get(0).size()).toList(),
+                    smallest);
+        }
+
+        @Test
+        @DisplayName("Protocol Search Cancellation Tests")
+        public void testProtocolSearchCancellation() {
+            /* Protocol Search Cancellation Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure synchronizedComposition = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7:DISABLEMENT_DECISION-FT\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6:DISABLEMENT_DECISION-TF\n5_5_5,<o,o,o>,7_7_7:DISABLEMENT_DECISION-TT" // Transitions
+            );
+            UStructure communications = UStructureOperations.addCommunications(synchronizedComposition);
+
+            logger.debug("Ensuring that a cancelled search throws an exception");
+            ProtocolSearch search = new ProtocolSearch(communications, CompositionOptions.parallel(2));
+            search.cancel();
+            assertTrue(search.isCancelled());
+            assertThrows(CancellationException.class, () -> search
+                    .findAllFeasibleProtocols(communications.getPotentialCommunications(), false, null));
+
+            logger.debug("Ensuring that the search can be cancelled from the listener");
+            ProtocolSearch cancelledSearch = new ProtocolSearch(communications, CompositionOptions.sequential());
+            List<Set<CommunicationData>> found = new ArrayList<>();
+            assertThrows(CancellationException.class,
+                    () -> cancelledSearch.findAllFeasibleProtocols(communications.getPotentialCommunications(), false,
+                            protocol -> {
+                                found.add(protocol);
+                                cancelledSearch.cancel();
+                            }));
+            assertFalse(found.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Protocol Pruner Tests")
+        public void testProtocolPruner() {
+            /* Protocol Pruner Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure synchronizedComposition = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7:DISABLEMENT_DECISION-FT\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6:DISABLEMENT_DECISION-TF\n5_5_5,<o,o,o>,7_7_7:DISABLEMENT_DECISION-TT" // Transitions
+            );
+            UStructure communications = UStructureOperations.addCommunications(synchronizedComposition);
+            ProtocolPruner pruner = new ProtocolPruner(communications);
+
+            for (CommunicationData data : communications.getPotentialCommunications()) {
+                Set<CommunicationData> protocol = Set.of(data);
+                logger.debug("Pruning with protocol " + data.toString(communications) + "...");
+                int mark = pruner.mark();
+                pruner.discardUnusedCommunications(protocol);
+                pruner.prune(protocol);
+                List<TransitionData> removed = pruner.removedSince(mark);
+                logger.debug("Ensuring that the pruned transitions are not in the pruned U-Structure");
+                PrunedUStructure pruned = UStructureOperations.duplicateAsPrunedUStructure(communications);
+                for (TransitionData t : removed)
+                    assertTrue(pruned.removeTransition(t));
+                assertEquals(communications.applyProtocol(protocol, true).getTransitionInput(),
+                        pruned.accessible().getTransitionInput());
+                logger.debug("Ensuring that rolling back restores the pruned transitions");
+                pruner.rollback(mark);
+                assertTrue(pruner.removedSince(mark).isEmpty());
+                logger.debug("Ensuring that checking feasibility leaves the pruner unchanged");
+                boolean feasible = pruner.isFeasible(new HashSet<>(protocol), false);
+                assertEquals(mark, pruner.mark());
+                assertEquals(feasible, pruner.isFeasible(new HashSet<>(protocol), false));
+            }
+        }
+
+        @Test
+        @DisplayName("Protocol Pruner Equivalence Tests")
+        public void testProtocolPrunerEquivalence() {
+            /* Protocol Pruner Equivalence Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure synchronizedComposition = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<*,b,*>,FF,FF\n<*,*,a>,FF,FF\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n1_1_2\n1_3_1\n1_3_2\n2_2_1\n2_2_2\n2_4_1\n2_4_2\n2_5_1\n2_5_2\n3_1_3\n3_1_4\n3_1_5\n3_3_3\n3_3_4\n3_3_5\n4_2_3\n4_2_4\n4_2_5\n4_4_3\n4_4_4\n4_4_5\n4_5_3\n4_5_4\n4_5_5\n5_2_3\n5_2_4\n5_2_5\n5_4_3\n5_4_4\n5_4_5\n5_5_3\n5_5_4\n5_5_5\n6_6_6\n6_6_7\n6_7_6\n6_7_7\n7_6_6\n7_6_7\n7_7_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n1_1_1,<*,b,*>,1_3_1\n1_1_1,<*,*,a>,1_1_2\n1_1_2,<a,a,*>,2_2_2\n1_1_2,<b,*,b>,3_1_4\n1_1_2,<*,b,*>,1_3_2\n1_3_1,<a,a,*>,2_5_1\n1_3_1,<b,*,b>,3_3_3\n1_3_1,<*,*,a>,1_3_2\n1_3_2,<a,a,*>,2_5_2\n1_3_2,<b,*,b>,3_3_4\n2_2_1,<b,*,b>,4_2_3\n2_2_1,<*,b,*>,2_4_1\n2_2_1,<*,*,a>,2_2_2\n2_2_2,<b,*,b>,4_2_4\n2_2_2,<*,b,*>,2_4_2\n2_4_1,<b,*,b>,4_4_3\n2_4_1,<*,*,a>,2_4_2\n2_4_2,<b,*,b>,4_4_4\n2_5_1,<b,*,b>,4_5_3\n2_5_1,<*,*,a>,2_5_2\n2_5_2,<b,*,b>,4_5_4\n3_1_3,<a,a,*>,5_2_3\n3_1_3,<*,b,*>,3_3_3\n3_1_3,<*,*,a>,3_1_5\n3_1_4,<a,a,*>,5_2_4\n3_1_4,<*,b,*>,3_3_4\n3_1_5,<a,a,*>,5_2_5\n3_1_5,<*,b,*>,3_3_5\n3_3_3,<a,a,*>,5_5_3\n3_3_3,<*,*,a>,3_3_5\n3_3_4,<a,a,*>,5_5_4\n3_3_5,<a,a,*>,5_5_5\n4_2_3,<*,b,*>,4_4_3\n4_2_3,<*,*,a>,4_2_5\n4_2_4,<*,b,*>,4_4_4\n4_2_5,<*,b,*>,4_4_5\n4_4_3,<*,*,a>,4_4_5\n4_4_4,<o,o,o>,6_6_6\n4_4_5,<o,o,o>,6_6_7\n4_5_3,<*,*,a>,4_5_5\n4_5_4,<o,o,o>,6_7_6\n4_5_5,<o,o,o>,6_7_7:CONDITIONAL_VIOLATION\n5_2_3,<*,b,*>,5_4_3\n5_2_3,<*,*,a>,5_2_5\n5_2_4,<*,b,*>,5_4_4\n5_2_5,<*,b,*>,5_4_5\n5_4_3,<*,*,a>,5_4_5\n5_4_4,<o,o,o>,7_6_6:UNCONDITIONAL_VIOLATION\n5_4_5,<o,o,o>,7_6_7:DISABLEMENT_DECISION-FT\n5_5_3,<*,*,a>,5_5_5\n5_5_4,<o,o,o>,7_7_6:DISABLEMENT_DECISION-TF\n5_5_5,<o,o,o>,7_7_7:DISABLEMENT_DECISION-TT" // Transitions
+            );
+            UStructure communications = UStructureOperations.addCommunications(synchronizedComposition);
+            List<CommunicationData> potentialCommunications = communications.getPotentialCommunications();
+            ProtocolPruner pruner = new ProtocolPruner(communications);
+
+            List<Set<CommunicationData>> protocols = new ArrayList<>();
+            for (int i = 0; i < potentialCommunications.size(); i++)
+                for (int j = i; j < potentialCommunications.size(); j++)
+                    protocols.add(new LinkedHashSet<>(
+                            List.of(potentialCommunications.get(i), potentialCommunications.get(j))));
+
+            for (Set<CommunicationData> protocol : protocols) {
+                logger.debug("Pruning with a protocol of size " + protocol.size() + "...");
+                PrunedUStructure expected = pruneWithPrunedUStructure(communications, protocol);
+
+                int mark = pruner.mark();
+                pruner.discardUnusedCommunications(protocol);
+                pruner.prune(protocol);
+                PrunedUStructure actual = UStructureOperations.duplicateAsPrunedUStructure(communications);
+                for (TransitionData t : pruner.removedSince(mark))
+                    assertTrue(actual.removeTransition(t));
+                pruner.rollback(mark);
+
+                logger.debug("Ensuring that both prune exactly the same transitions");
+                assertEquals(expected.getTransitionInput(), actual.getTransitionInput());
+            }
+
+            logger.debug("Removing a state, so that the state IDs are no longer consecutive...");
+            UStructure gapped = communications.clone();
+            assertTrue(gapped.removeState(gapped.getStateID("1_3_2")));
+            for (CommunicationData data : gapped.getPotentialCommunications()) {
+                Set<CommunicationData> protocol = Set.of(data);
+                logger.debug("Applying protocol " + data.toString(gapped) + "...");
+                PrunedUStructure expected = pruneWithPrunedUStructure(gapped, protocol);
+                PrunedUStructure actual = assertDoesNotThrow(() -> gapped.applyProtocol(protocol, true));
+                logger.debug("Ensuring that both prune exactly the same transitions");
+                assertEquals(expected.accessible().getTransitionInput(), actual.getTransitionInput());
+                assertDoesNotThrow(() -> gapped.isFeasibleProtocol(new HashSet<>(protocol), false));
+            }
+        }
+
+    }
+
+    @Nested
+    @DisplayName("INDISTINGUISHABLE STATES")
+    class IndistinguishableStatesTest {
+
+        @Test
+        @DisplayName("Connecting States Tests")
+        public void testConnectingStates() {
+            /* Connecting States Tests */
+            final int nStates = 100000;
+            logger.debug("Instantiating a U-Structure with a long unobservable chain...");
+            StringBuilder states = new StringBuilder("@0_0");
+            StringBuilder transitions = new StringBuilder();
+            for (int i = 1; i < nStates; i++) {
+                states.append('\n').append(i).append("_0");
+                transitions.append(i - 1).append("_0,<u,*>,").append(i).append("_0\n");
+            }
+            UStructure uStructure = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(1), "<u,*>,F,F", states.toString(), transitions.toString());
+            UStructure inverted = uStructure.invert();
+
+            logger.debug("Ensuring that every state in the chain is connected to the middle of the chain");
+            Set<Long> connectingStates = new LinkedHashSet<>();
+            assertDoesNotThrow(() -> UStructure.findConnectingStates(uStructure, inverted, connectingStates,
+                    nStates / 2, 1));
+            assertEquals(nStates, connectingStates.size());
+            logger.debug("Ensuring that the states are found in depth-first order");
+            Iterator<Long> iterator = connectingStates.iterator();
+            for (long id = nStates / 2; id <= nStates; id++)
+                assertEquals(id, iterator.next());
+            for (long id = nStates / 2 - 1; id >= 1; id--)
+                assertEquals(id, iterator.next());
+
+            logger.debug("Ensuring that the plant distinguishes every state in the chain");
+            connectingStates.clear();
+            UStructure.findConnectingStates(uStructure, inverted, connectingStates, nStates / 2, 0);
+            assertEquals(Set.of((long) nStates / 2), connectingStates);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("WORD RECOGNITION")
+    class WordRecognitionTest {
+
+        @Test
+        @DisplayName("Word Recognition Tests")
+        public void testWordRecognition() {
+            /* Word Recognition Tests */
+            logger.debug("Instantiating an automaton with an unobservable cycle...");
+            Automaton automaton = AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,FF\nb,FT,FF\nu,FF,FF", // Events
+                    "@0,F\n1,F\n2,F\n3,F", // States
+                    "0,u,1\n1,u,0\n1,a,2\n2,b,3" // Transitions
+            );
+
+            logger.debug("Ensuring that each controller recognizes the projections of the paths");
+            assertTrue(automaton.recognizesWord(1, Word.EPSILON));
+            assertTrue(automaton.recognizesWord(1, new Word("a")));
+            assertTrue(automaton.recognizesWord(2, new Word("b")));
+            logger.debug("Ensuring that rejected words do not get stuck in the unobservable cycle");
+            assertFalse(automaton.recognizesWord(1, new Word(new String[] { "a", "a" })));
+            assertFalse(automaton.recognizesWord(2, new Word(new String[] { "b", "b" })));
+            logger.debug("Ensuring that events that are unobservable to a controller are rejected");
+            assertFalse(automaton.recognizesWord(1, new Word("b")));
+            assertFalse(automaton.recognizesWord(1, new Word("c")));
+
+            logger.debug("Ensuring that modifying the automaton updates the recognized words");
+            automaton.addTransition(automaton.getStateID("2"), "a", automaton.getStateID("2"));
+            assertTrue(automaton.recognizesWord(1, new Word(new String[] { "a", "a" })));
+            automaton.markTransitionAsBad(automaton.getStateID("1"), automaton.getEvent("a").getID(),
+                    automaton.getStateID("2"));
+            assertFalse(automaton.recognizesWord(1, new Word("a")));
+            assertTrue(automaton.recognizesWord(2, Word.EPSILON));
+            assertFalse(automaton.recognizesWord(2, new Word("b")));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("SUBSET CONSTRUCTION")
+    class SubsetConstructionTest {
+
+        @Test
+        @DisplayName("Subset Construction Tests")
+        public void testSubsetConstruction() {
+            /* Subset Construction Tests */
+            final int nStates = 20000;
+            logger.debug("Instantiating a U-Structure with a long unobservable chain...");
+            StringBuilder states = new StringBuilder("@0_0");
+            StringBuilder transitions = new StringBuilder();
+            for (int i = 1; i < nStates; i++) {
+                states.append('\n').append(i).append("_0");
+                transitions.append(i - 1).append("_0,<u,*>,").append(i).append("_0\n");
+            }
+            UStructure uStructure = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(1), "<u,*>,F,F", states.toString(), transitions.toString());
+
+            logger.debug("SUBSET CONSTRUCTION: ");
+
+            logger.debug("Ensuring that the null closure covers the whole chain");
+            SubsetConstruction subsetConstruction = assertDoesNotThrow(() -> new SubsetConstruction(uStructure, 1));
+            assertEquals(1, subsetConstruction.getNumberOfStates());
+            assertEquals(nStates, subsetConstruction.getStateAsStateSet(subsetConstruction.getInitialStateID()).size());
+
+            logger.debug("Ensuring that the plant distinguishes every state in the chain");
+            assertEquals(nStates, new SubsetConstruction(uStructure, 0).getNumberOfStates());
+        }
+
+        @Test
+        @DisplayName("Batch Subset Construction Tests")
+        public void testBatchSubsetConstruction() {
+            /* Batch Subset Construction Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure uStructure = AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,FF\nb,FT,FF\nc,TT,FT", // Events
+                    "@0,F\n1,F\n2,F\n3,F\n4,F", // States
+                    "0,a,1\n0,b,2\n1,c,3\n2,c,4:BAD" // Transitions
+            ).synchronizedComposition();
+
+            logger.debug("BATCH SUBSET CONSTRUCTION: ");
+
+            for (CompositionOptions options : List.of(CompositionOptions.sequential(), CompositionOptions.parallel(),
+                    CompositionOptions.parallel(2))) {
+                logger.debug("Building subset constructions for all controllers with " + options + "...");
+                List<SubsetConstruction> subsetConstructions = UStructureOperations.subsetConstructions(uStructure,
+                        options);
+                assertEquals(3, subsetConstructions.size());
+                logger.debug("Ensuring that each construction matches the one built individually");
+                for (int controller = 0; controller <= 2; controller++) {
+                    SubsetConstruction expected = uStructure.subsetConstruction(controller);
+                    SubsetConstruction actual = subsetConstructions.get(controller);
+                    assertEquals(controller, actual.getController());
+                    assertMultiLineEquals(expected.getStateInput(), actual.getStateInput());
+                    assertMultiLineEquals(expected.getTransitionInput(), actual.getTransitionInput());
+                }
+            }
+
+            logger.debug("Ensuring that controllers out of bounds are rejected");
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> UStructureOperations.subsetConstructions(uStructure, CompositionOptions.sequential(), 1, 3));
+        }
+
+    }
+
+    @Nested
+    @DisplayName("RELABEL CONFIGURATION STATES")
+    class RelabelConfigurationStatesTest {
+
+        @Test
+        @DisplayName("Relabel Configuration States Tests")
+        public void testRelabelConfigurationStates() {
+            /* Relabel Configuration States Tests */
+            logger.debug("RELABEL CONFIGURATION STATES: ");
+
+            logger.debug("Instantiating U-Structures...");
+            List<UStructure> uStructures = new ArrayList<>();
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T\nb,T,T\ng,T,T", // Events
+                    "@zero,F\none,F\ntwo,T\nthree,F\nfour,F\nfive,F\nsix,F", // States
+                    "zero,a,one\none,a,three\none,b,two\none,g,five\ntwo,g,zero\nthree,b,four\nfour,g,four\nfour,a,three\nsix,a,three\nsix,b,two" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T\nb,T,T\ng,T,T", // Events
+                    "@x,T\ny,F\nz,T", // States
+                    "x,a,x\nx,g,z\ny,b,y\ny,a,x\nz,b,z\nz,a,y\nz,g,y" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,F\nb,F,F\no,F,T", // Events
+                    "@1,T\n2,T\n3,T\n4,T\n5,T\n6,T\n7,T", // States
+                    "1,a,2\n1,b,3\n2,b,4\n3,a,5\n4,o,6\n5,o,7:BAD" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,TF\nb,FT,FT\no,TT,TF", // Events
+                    "@1,T\n2,T\n3,T\n4,T\n5,T\n6,T\n7,T", // States
+                    "1,a,2\n1,b,3\n2,b,4\n3,a,5\n4,o,6\n5,o,7:BAD" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,TF\nb,FT,FT\no,TT,TT", // Events
+                    "@1,T\n2,T\n3,T\n4,T\n5,T\n6,T\n7,T", // States
+                    "1,a,2\n1,b,3\n2,b,4\n3,a,5\n4,o,6\n5,o,7:BAD" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,TT\nb,FT,FT", // Events
+                    "@1,T\n2,T", // States
+                    "1,b,2\n1,a,1" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,FF\nb,FT,FF\nc,TT,FT", // Events
+                    "@0,F\n1,F\n2,F\n3,F\n4,F", // States
+                    "0,a,1\n0,b,2\n1,c,3\n2,c,4:BAD" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(3),
+                    "a1,TFF,FFF\na2,TFF,FFF\nb1,FTF,FFF\nb2,FTF,FFF\nc1,FFT,FFF\nc2,FFT,FFF\no,FFF,TTT", // Events
+                    "@0,T\n1,T\n2,T\n3,T\n4,T\n5,T\n6,T\n7,T\n8,T\n9,T\n10,T\n11,T\n12,T\n13,T\n14,T\n15,T\n16,T\n17,T\n18,T\n19,T", // States
+                    "0,a1,4\n0,b2,3\n0,b1,2\n0,c1,1\n1,b2,6\n1,a2,5\n2,a1,7\n3,c2,8\n4,b1,9\n5,b1,10\n6,a1,11\n7,c2,12\n8,a2,13\n9,c1,14\n10,o,15\n11,o,16\n12,o,17\n13,o,18:BAD\n14,o,19:BAD" // Transitions
+            ).synchronizedComposition());
+            uStructures.add(AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n2_2_1\n3_1_3\n4_2_3\n5_2_3\n6_6_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n2_2_1,<b,*,b>,4_2_3\n3_1_3,<a,a,*>,5_2_3\n4_2_3,<o,o,o>,6_6_6:CONDITIONAL_VIOLATION\n5_2_3,<o,o,o>,7_7_7:UNCONDITIONAL_VIOLATION,DISABLEMENT_DECISION-TF" // Transitions
+            ));
+
+            for (UStructure uStructure : uStructures) {
+                logger.debug("Relabeling a U-Structure with " + uStructure.getNumberOfStates() + " states...");
+                UStructure relabeled = UStructureOperations.relabelConfigurationStates(uStructure);
+                UStructure expected = relabelConfigurationStatesReference(uStructure);
+                logger.debug("Ensuring the events are correct");
+                assertMultiLineEquals(expected.getEventInput(), relabeled.getEventInput());
+                logger.debug("Ensuring the states are correct");
+                assertMultiLineEquals(expected.getStateInput(), relabeled.getStateInput());
+                logger.debug("Ensuring the transitions are correct");
+                assertMultiLineEquals(expected.getTransitionInput(), relabeled.getTransitionInput());
+                logger.debug("Ensuring the special transitions are correct");
+                assertEquals(expected.toJsonObject(), relabeled.toJsonObject());
+            }
+        }
+
+        /**
+         * Reference implementation of
+         * {@link UStructureOperations#relabelConfigurationStates(UStructure)},
+         * which carries the whole path in each entry of the queue.
+         */
+        private UStructure relabelConfigurationStatesReference(UStructure uStructure) {
+            SubsetConstruction subsetConstruction = new SubsetConstruction(uStructure, 0);
+            Map<Long, Integer> counts = new HashMap<>();
+            Map<Long, Map<Long, Long>> relabelMapping = new HashMap<>();
+            Queue<Object[]> queue = new ArrayDeque<>();
+            queue.add(new Object[] { subsetConstruction.initialState, new Sequence(subsetConstruction.initialState), true });
+
+            UStructure relabeled = new UStructure(uStructure.getNumberOfControllers());
+            relabeled.addAllEvents(uStructure.getEvents());
+
+            while (!queue.isEmpty()) {
+                Object[] entry = queue.remove();
+                Sequence sequence = (Sequence) entry[1];
+                boolean extendable = (Boolean) entry[2];
+                StateSet ss = subsetConstruction.getStateAsStateSet((Long) entry[0]);
+                Map<Long, Long> currMap = extendable ? new LinkedHashMap<>() : relabelMapping.get(ss.getID());
+                if (extendable) {
+                    relabelMapping.put(ss.getID(), currMap);
+                    for (State s : ss.getSet()) {
+                        int count = counts.getOrDefault(s.getID(), 0);
+                        long modID = s.getID() + uStructure.getNumberOfStates() * count;
+                        currMap.put(s.getID(), modID);
+                        relabeled.addStateAt(new State(s.getLabel() + (count == 0 ? "" : "-" + count), modID, false,
+                                s.getEnablementEvents(), s.getDisablementEvents(), s.getIllegalConfigEvents()), false);
+                        counts.put(s.getID(), count + 1);
+                    }
+                    for (State s : ss.getSet()) {
+                        for (Transition t : s.getTransitions()) {
+                            if (currMap.containsKey(t.getTargetStateID()))
+                                relabeled.addTransition(currMap.get(s.getID()), t.getEvent().getLabel(),
+                                        currMap.get(t.getTargetStateID()));
+                        }
+                    }
+                }
+                if (sequence.getEventArray().length > 0) {
+                    long prevID = sequence.getState(sequence.length() - 2);
+                    Map<Long, Long> prevMap = relabelMapping.get(prevID);
+                    for (State s : subsetConstruction.getStateAsStateSet(prevID).getSet()) {
+                        for (Transition t : s.getTransitions()) {
+                            if (currMap.containsKey(t.getTargetStateID()))
+                                relabeled.addTransition(prevMap.get(s.getID()), t.getEvent().getLabel(),
+                                        currMap.get(t.getTargetStateID()));
+                        }
+                    }
+                }
+                if (extendable) {
+                    for (Transition t : ss.getTransitions()) {
+                        if (t.getTargetStateID() != ss.getID())
+                            queue.add(new Object[] { t.getTargetStateID(),
+                                    sequence.append(t.getEvent().getID(), t.getTargetStateID()),
+                                    !sequence.containsState(t.getTargetStateID()) });
+                    }
+                }
+            }
+
+            uStructure.copyOverSpecialTransitions(relabeled);
+            for (int k = 0; k < 2; k++) {
+                boolean unconditional = k == 0;
+                for (TransitionData td : unconditional ? uStructure.getUnconditionalViolations()
+                        : uStructure.getConditionalViolations()) {
+                    for (int i = 1; i < counts.getOrDefault(td.initialStateID, 0); i++) {
+                        long initID = td.initialStateID + uStructure.getNumberOfStates() * i;
+                        for (int j = 1; j < counts.getOrDefault(td.targetStateID, 0); j++) {
+                            long targetID = td.targetStateID + uStructure.getNumberOfStates() * j;
+                            if (!relabeled.transitionExists(initID, td.eventID, targetID))
+                                continue;
+                            if (unconditional)
+                                relabeled.addUnconditionalViolation(initID, td.eventID, targetID);
+                            else
+                                relabeled.addConditionalViolation(initID, td.eventID, targetID);
+                        }
+                    }
+                }
+            }
+
+            relabeled.setInitialStateID(uStructure.getInitialStateID());
+            relabeled.renumberStates();
+            return relabeled;
+        }
+
+    }
+
     @Nested
     @DisplayName("SPECIAL TRANSITIONS")
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -919,6 +1568,163 @@ public class TestAutomata {
                     uStructure.getTransitionInput());
         }
 
+        @Test
+        @DisplayName("Clone Operation Tests")
+        public void testCloneOperation() {
+            /* Clone Operation Tests */
+            logger.debug("Instantiating a U-Structure...");
+            UStructure original = AutomatonGenerator.generateFromGUICode(
+                    new UStructure(2),
+                    "<a,a,*>,TF,TF\n<b,*,b>,FT,FT\n<o,o,o>,TT,TT", // Events
+                    "@1_1_1\n2_2_1\n3_1_3\n4_2_3\n5_2_3\n6_6_6\n7_7_7", // States
+                    "1_1_1,<a,a,*>,2_2_1\n1_1_1,<b,*,b>,3_1_3\n2_2_1,<b,*,b>,4_2_3\n3_1_3,<a,a,*>,5_2_3\n4_2_3,<o,o,o>,6_6_6:CONDITIONAL_VIOLATION\n5_2_3,<o,o,o>,7_7_7:UNCONDITIONAL_VIOLATION,DISABLEMENT_DECISION-TF" // Transitions
+            );
+            UStructure withCommunications = original.addCommunications();
+
+            logger.debug("CLONE OPERATIONS: ");
+
+            logger.debug("Cloning the U-Structure...");
+            UStructure copy = withCommunications.clone();
+            logger.debug("Ensuring that the copy has the same representation as the original");
+            assertEquals(withCommunications.toJsonObject(), copy.toJsonObject());
+            assertMultiLineEquals(withCommunications.getTransitionInput(), copy.getTransitionInput());
+            assertEquals(withCommunications.getPotentialCommunications(), copy.getPotentialCommunications());
+            assertEquals(withCommunications.getUnconditionalViolations(), copy.getUnconditionalViolations());
+
+            logger.debug("Modifying the copy...");
+            String originalTransitions = withCommunications.getTransitionInput();
+            TransitionData violation = copy.getConditionalViolations().get(0);
+            copy.removeTransition(violation);
+            copy.getEvent(1).setID(42);
+            logger.debug("Ensuring that the original is unchanged");
+            assertMultiLineEquals(originalTransitions, withCommunications.getTransitionInput());
+            assertEquals(1, withCommunications.getConditionalViolations().size());
+            assertEquals(0, copy.getConditionalViolations().size());
+            assertEquals(1, withCommunications.getEvent(1).getID());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("COMPACT AUTOMATA")
+    class CompactAutomatonTest {
+
+        @Test
+        @DisplayName("Accessible and Co-Accessible Operation Tests")
+        public void testAccessibleOperations() {
+            logger.debug("Instantiating automaton from Figure 2.12...");
+            CompactAutomaton fig2_12 = CompactAutomaton.of(AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T\nb,T,T\ng,T,T", // Events
+                    "@zero,F\none,F\ntwo,T\nthree,F\nfour,F\nfive,F\nsix,F", // States
+                    "zero,a,one\none,a,three\none,b,two\none,g,five\ntwo,g,zero\nthree,b,four\nfour,g,four\nfour,a,three\nsix,a,three\nsix,b,two" // Transitions
+            ));
+
+            logger.debug("Taking the co-accessible part of Figure 2.12...");
+            Automaton result = AutomataOperations.coaccessible(fig2_12).toAutomaton();
+            logger.debug("Ensuring the states are correct");
+            assertMultiLineEquals("@zero,F\none,F\ntwo,T\nsix,F", result.getStateInput());
+            logger.debug("Ensuring the transitions are correct");
+            assertMultiLineEquals("zero,a,one\none,b,two\ntwo,g,zero\nsix,b,two", result.getTransitionInput());
+
+            logger.debug("Trimming Figure 2.12...");
+            result = AutomataOperations.accessible(AutomataOperations.coaccessible(fig2_12)).toAutomaton();
+            logger.debug("Ensuring the events are correct");
+            assertMultiLineEquals("a,T,T\nb,T,T\ng,T,T", result.getEventInput());
+            logger.debug("Ensuring the states are correct");
+            assertMultiLineEquals("@zero,F\none,F\ntwo,T", result.getStateInput());
+            logger.debug("Ensuring the transitions are correct");
+            assertMultiLineEquals("zero,a,one\none,b,two\ntwo,g,zero", result.getTransitionInput());
+        }
+
+        @Test
+        @DisplayName("Intersection Operation Tests")
+        public void testIntersectionOperation() {
+            logger.debug("Instantiating automata from Figure 2.1 and Figure 2.2...");
+            Automaton fig2_1 = AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T\nb,T,T\ng,T,T", // Events
+                    "@x,T\ny,F\nz,T", // States
+                    "x,a,x\nx,g,z\ny,b,y\ny,a,x\nz,b,z\nz,a,y\nz,g,y" // Transitions
+            );
+            Automaton fig2_2 = AutomatonGenerator.generateFromGUICode(
+                    new Automaton(1),
+                    "a,T,T\nb,T,T", // Events
+                    "@zero,F\none,T", // States
+                    "zero,b,zero\nzero,a,one\none,a,one\none,b,zero" // Transitions
+            );
+
+            logger.debug("Taking the intersection of Figure 2.1 and Figure 2.2...");
+            Automaton result = AutomataOperations
+                    .intersection(CompactAutomaton.of(fig2_1), CompactAutomaton.of(fig2_2)).toAutomaton();
+            logger.debug("Ensuring the events are correct");
+            assertMultiLineEquals("a,T,T\nb,T,T", result.getEventInput());
+            logger.debug("Ensuring the states are correct");
+            assertMultiLineEquals("@x_zero,F\nx_one,T", result.getStateInput());
+            logger.debug("Ensuring the transitions are correct");
+            assertMultiLineEquals("x_zero,a,x_one\nx_one,a,x_one", result.getTransitionInput());
+        }
+
+        @Test
+        @DisplayName("Synchronized Composition Operation Tests")
+        public void testSynchronizedCompositionOperation() {
+            Automaton automaton = AutomatonGenerator.generateFromGUICode(
+                    new Automaton(2),
+                    "a,TF,FF\nb,FT,FF\nc,TT,FT", // Events
+                    "@0,F\n1,F\n2,F\n3,F\n4,F", // States
+                    "0,a,1\n0,b,2\n1,c,3\n2,c,4:BAD" // Transitions
+            );
+
+            logger.debug("Comparing the U-Structures built from the automaton and its compact representation");
+            UStructure expected = automaton.synchronizedComposition();
+            UStructure actual = AutomataOperations.synchronizedComposition(CompactAutomaton.of(automaton));
+            assertMultiLineEquals(expected.getEventInput(), actual.getEventInput());
+            assertMultiLineEquals(expected.getStateInput(), actual.getStateInput());
+            assertMultiLineEquals(expected.getTransitionInput(), actual.getTransitionInput());
+            for (State s : expected.getStates()) {
+                State other = actual.getState(s.getLabel());
+                assertEquals(s.getEnablementEvents(), other.getEnablementEvents());
+                assertEquals(s.getDisablementEvents(), other.getDisablementEvents());
+                assertEquals(s.getIllegalConfigEvents(), other.getIllegalConfigEvents());
+            }
+        }
+
+        @Test
+        @DisplayName("Parallel Synchronized Composition Operation Tests")
+        public void testParallelSynchronizedCompositionOperation() {
+            logger.debug("Instantiating a ring automaton...");
+            Automaton automaton = new Automaton(2);
+            int a = automaton.addEvent("a", new boolean[] { true, false }, new boolean[] { true, false });
+            int b = automaton.addEvent("b", new boolean[] { false, true }, new boolean[] { false, false });
+            int c = automaton.addEvent("c", new boolean[] { true, true }, new boolean[] { false, true });
+            final int nStates = 12;
+            for (int i = 0; i < nStates; i++)
+                automaton.addState(Integer.toString(i), false, i == 0);
+            for (int i = 0; i < nStates; i++) {
+                automaton.addTransition(i + 1, a, (i + 1) % nStates + 1);
+                automaton.addTransition(i + 1, b, (i + 2) % nStates + 1);
+                automaton.addTransition(i + 1, c, (i + 3) % nStates + 1);
+                if (i % 5 == 0)
+                    automaton.markTransitionAsBad(i + 1, c, (i + 3) % nStates + 1);
+            }
+
+            logger.debug("Comparing the U-Structures built sequentially and in parallel");
+            UStructure expected = AutomataOperations.synchronizedComposition(automaton, CompositionOptions.sequential());
+            UStructure actual = AutomataOperations.synchronizedComposition(automaton, CompositionOptions.parallel(4));
+            assertEquals(expected.getNumberOfStates(), actual.getNumberOfStates());
+            assertEquals(expected.getState(expected.getInitialStateID()).getLabel(),
+                    actual.getState(actual.getInitialStateID()).getLabel());
+            assertMultiLineEquals(expected.getEventInput(), actual.getEventInput());
+            assertMultiLineEquals(expected.getStateInput(), actual.getStateInput());
+            assertMultiLineEquals(expected.getTransitionInput(), actual.getTransitionInput());
+            for (State s : expected.getStates()) {
+                State other = actual.getState(s.getLabel());
+                assertEquals(s.getEnablementEvents(), other.getEnablementEvents());
+                assertEquals(s.getDisablementEvents(), other.getDisablementEvents());
+                assertEquals(s.getIllegalConfigEvents(), other.getIllegalConfigEvents());
+            }
+        }
+
     }
 
     @Nested
@@ -1015,6 +1821,20 @@ public class TestAutomata {
         }
     }
 
+    private static PrunedUStructure pruneWithPrunedUStructure(UStructure uStructure,
+            Set<CommunicationData> protocol) {
+        PrunedUStructure pruned = UStructureOperations.duplicateAsPrunedUStructure(uStructure);
+        for (TransitionData data : uStructure.getInvalidCommunications())
+            pruned.removeTransition(data);
+        for (CommunicationData data : uStructure.getPotentialAndNashCommunications())
+            if (!protocol.contains(data))
+                pruned.removeTransition(data);
+        for (CommunicationData data : protocol)
+            pruned.prune(protocol, uStructure.getEvent(data.eventID).getVector(), data.initialStateID,
+                    data.getIndexOfSender() + 1);
+        return pruned;
+    }
+
     private static List<String> protocolsToString(UStructure uStructure, List<Set<CommunicationData>> protocols) {
 
         List<String> list = new ArrayList<String>();
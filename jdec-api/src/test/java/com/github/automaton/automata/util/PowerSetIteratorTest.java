@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) Sung Ho Yoon. All rights reserved.
+ * Licensed under the MIT license. See LICENSE file in the project root for details.
+ */
+
+package com.github.automaton.automata.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.apache.logging.log4j.*;
+import org.junit.jupiter.api.*;
+
+public class PowerSetIteratorTest {
+
+    private static Logger logger = LogManager.getLogger();
+
+    private static <T> List<Set<T>> toList(Iterator<Set<T>> iterator) {
+        List<Set<T>> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    private static <T> List<Set<T>> sortedBySize(List<Set<T>> sets) {
+        List<Set<T>> sorted = new ArrayList<>(sets);
+        sorted.sort((set1, set2) -> Integer.compare(set1.size(), set2.size()));
+        return sorted;
+    }
+
+    @Test
+    @DisplayName("Power Set Iteration Tests")
+    public void testPowerSetIterator() {
+        /* Power Set Iteration Tests */
+
+        List<String> elements = List.of("a", "b", "c", "d", "e");
+
+        logger.debug("Ensuring that the power set is generated in order of increasing size");
+        assertIterableEquals(sortedBySize(PowerSetUtils.powerSet(elements)),
+                toList(new PowerSetIterator<>(elements)));
+
+        logger.debug("Ensuring that the required elements are included in each set");
+        Set<String> required = Set.of("b", "d");
+        assertIterableEquals(sortedBySize(PowerSetUtils.powerSetSubset(elements, required)),
+                toList(new PowerSetIterator<>(elements, required)));
+
+        logger.debug("Ensuring that the power set of the empty set contains the empty set only");
+        assertIterableEquals(List.of(Set.of()), toList(new PowerSetIterator<>(List.of())));
+
+        logger.debug("Ensuring that required elements must be in the set");
+        assertThrows(IllegalArgumentException.class, () -> new PowerSetIterator<>(elements, Set.of("f")));
+    }
+
+    @Test
+    @DisplayName("Power Set Pruning Tests")
+    public void testPruning() {
+        /* Power Set Pruning Tests */
+
+        List<String> elements = List.of("a", "b", "c", "d", "e");
+
+        logger.debug("Pruning supersets of {a,c} and {d} while iterating");
+        PowerSetIterator<String> iterator = new PowerSetIterator<>(elements);
+        List<Set<String>> sets = new ArrayList<>();
+        while (iterator.hasNext()) {
+            Set<String> set = iterator.next();
+            sets.add(set);
+            if (set.equals(Set.of("d")) || set.equals(Set.of("a", "c")))
+                iterator.pruneSupersetsOf(set);
+        }
+        List<Set<String>> expected = sortedBySize(PowerSetUtils.powerSet(elements)).stream()
+                .filter(set -> set.equals(Set.of("d")) || set.equals(Set.of("a", "c"))
+                        || !(set.contains("d") || set.containsAll(Set.of("a", "c"))))
+                .collect(Collectors.toList());
+        logger.debug("Ensuring that only the pruned sets are skipped");
+        assertIterableEquals(expected, sets);
+
+        logger.debug("Ensuring that pruning supersets of the empty set ends the iteration");
+        iterator = new PowerSetIterator<>(elements);
+        iterator.next();
+        iterator.pruneSupersetsOf(Set.of());
+        assertFalse(iterator.hasNext());
+
+        logger.debug("Ensuring that pruning supersets of a set with unknown elements has no effect");
+        iterator = new PowerSetIterator<>(elements);
+        iterator.pruneSupersetsOf(Set.of("a", "f"));
+        assertEquals(32, toList(iterator).size());
+    }
+
+    @Test
+    @DisplayName("Large Power Set Tests")
+    public void testLargePowerSet() {
+        /* Large Power Set Tests */
+
+        logger.debug("Iterating over the smallest sets in the power set of a set with 64 elements");
+        List<Integer> elements = IntStream.range(0, 64).boxed().collect(Collectors.toList());
+        PowerSetIterator<Integer> iterator = new PowerSetIterator<>(elements);
+        int count = 0;
+        while (iterator.hasNext() && iterator.next().size() <= 2)
+            count++;
+        logger.debug("Ensuring that there are 1 + 64 + 2016 sets of size 2 or less");
+        assertEquals(1 + 64 + 2016, count);
+    }
+}
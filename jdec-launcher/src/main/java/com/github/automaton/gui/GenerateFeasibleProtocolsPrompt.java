@@ -6,10 +6,17 @@
 package com.github.automaton.gui;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.*;
 import javax.swing.*;
 
+import org.apache.logging.log4j.*;
+
 import com.github.automaton.automata.CommunicationData;
 import com.github.automaton.automata.CommunicationRole;
+import com.github.automaton.automata.CompositionOptions;
+import com.github.automaton.automata.OperationFailedException;
+import com.github.automaton.automata.ProtocolSearch;
 import com.github.automaton.automata.UStructure;
 
 /**
@@ -21,6 +28,8 @@ import com.github.automaton.automata.UStructure;
  */
 public class GenerateFeasibleProtocolsPrompt extends ChooseSendersAndReceiversPrompt {
 
+    private static Logger logger = LogManager.getLogger();
+
     /* CONSTRUCTOR */
 
     /**
@@ -44,7 +53,19 @@ public class GenerateFeasibleProtocolsPrompt extends ChooseSendersAndReceiversPr
     @Override
     protected boolean performAction() {
 
-        List<Set<CommunicationData>> feasibleProtocols = generateFeasibleProtocols();
+        List<Set<CommunicationData>> feasibleProtocols;
+        try {
+            feasibleProtocols = generateFeasibleProtocols();
+        } catch (OperationFailedException e) {
+            logger.catching(e);
+            gui.displayErrorMessage("Operation Failed",
+                    "An error occurred while searching for feasible protocols.");
+            return false;
+        }
+
+        // The search was cancelled
+        if (feasibleProtocols == null)
+            return false;
 
         if (feasibleProtocols.size() == 0) {
 
@@ -71,8 +92,17 @@ public class GenerateFeasibleProtocolsPrompt extends ChooseSendersAndReceiversPr
 
     /**
      * Generate the feasible protocols based on the selected senders and receivers.
+     * <p>
+     * The protocols are searched for in the background, while a dialog box that
+     * shows the number of feasible protocols found so far is displayed. The user
+     * can cancel the search from the dialog box.
+     * 
+     * @return The list of feasible protocols, or {@code null} if the search was
+     *         cancelled
+     * 
+     * @throws OperationFailedException if the search failed
      * 
-     * @return The list of feasible protocols
+     * @revised 2.2.0
      **/
     protected List<Set<CommunicationData>> generateFeasibleProtocols() {
 
@@ -94,7 +124,48 @@ public class GenerateFeasibleProtocolsPrompt extends ChooseSendersAndReceiversPr
 
         }
 
-        return uStructure.generateAllFeasibleProtocols(chosenCommunications, false);
+        /* Search for feasible protocols in the background */
+
+        final ProtocolSearch search = new ProtocolSearch(uStructure, CompositionOptions.parallel());
+        final JLabel status = new JLabel("Searching for feasible protocols...");
+        final JOptionPane pane = new JOptionPane(status, JOptionPane.INFORMATION_MESSAGE, JOptionPane.DEFAULT_OPTION,
+                null, new Object[] { "Cancel" });
+        final JDialog dialog = pane.createDialog(this, "Generating Feasible Protocols");
+        final AtomicInteger nFound = new AtomicInteger();
+        final AtomicReference<List<Set<CommunicationData>>> result = new AtomicReference<>();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Thread searchThread = new Thread(() -> {
+            try {
+                result.set(search.findAllFeasibleProtocols(chosenCommunications, false, protocol -> {
+                    int n = nFound.incrementAndGet();
+                    SwingUtilities.invokeLater(() -> status.setText("Feasible protocols found so far: " + n));
+                }));
+            } catch (CancellationException e) {
+                logger.info("Feasible protocol search was cancelled.");
+            } catch (RuntimeException e) {
+                failure.set(e);
+            } finally {
+                SwingUtilities.invokeLater(dialog::dispose);
+            }
+        });
+        searchThread.start();
+
+        // Blocks until the search is done, or the user cancels it
+        dialog.setVisible(true);
+        search.cancel();
+
+        // Wait for the search to stop, so that its outcome is known
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        if (failure.get() != null)
+            throw new OperationFailedException("Feasible protocol search failed", failure.get());
+        return result.get();
 
     }
 